@@ -6,4 +6,104 @@ Tomahawk.resolverData =
 Tomahawk.addTrackResults =
     function (results) {
         Tomahawk.addTrackResultsString(JSON.stringify(results));
-    }
\ No newline at end of file
+    };
+
+// Executes all calls Java has queued up in the ScriptInterface. The arguments are handed over as
+// json, so that they never have to be escaped into javascript source code.
+Tomahawk.dispatchCalls =
+    function () {
+        var calls = JSON.parse(Tomahawk.takeCallsString());
+        for (var i = 0; i < calls.length; i++) {
+            try {
+                Tomahawk.dispatchCall(calls[i]);
+            } catch (e) {
+                Tomahawk.log("dispatchCall: " + calls[i].method + ": " + e);
+            }
+        }
+    };
+
+Tomahawk.dispatchCall =
+    function (call) {
+        var instance = Tomahawk.resolver.instance;
+        var resolver = instance ? instance : TomahawkResolver;
+        var result;
+        if (call.method === "init") {
+            result = resolver.init();
+        } else if (call.method === "settings") {
+            result = resolver.settings ? resolver.settings : getSettings();
+        } else if (call.method === "userConfig") {
+            result = resolver.getUserConfig();
+        } else if (call.method === "resolve") {
+            resolver = instance ? instance : window;
+            resolver.resolve(call.qid, call.artist, call.album, call.track);
+        } else if (call.method === "httpResponse") {
+            var callback = Tomahawk.httpCallbacks[call.requestId];
+            delete Tomahawk.httpCallbacks[call.requestId];
+            if (callback) {
+                callback(call);
+            }
+        } else if (call.method === "search") {
+            if (instance !== undefined) {
+                instance.search(call.qid, call.searchString);
+            } else {
+                resolve(call.qid, '', '', call.searchString);
+            }
+        }
+        if (call.id !== undefined) {
+            Tomahawk.callbackToJava(call.id, JSON.stringify(result), call.returnResult);
+        }
+    };
+
+// Every XMLHttpRequest is made through the ScriptInterface, so that all resolvers share the same
+// pooled http client and response cache. This also frees the requests from the same-origin policy.
+Tomahawk.httpCallbacks = {};
+
+Tomahawk.nextHttpRequestId = 0;
+
+var XMLHttpRequest = function () {
+    this.readyState = 0;
+    this.status = 0;
+    this.statusText = "";
+    this.responseText = "";
+    this._headers = {};
+};
+
+XMLHttpRequest.prototype.open = function (method, url, async) {
+    this._method = method;
+    this._url = url;
+    this._async = async !== false;
+    this.readyState = 1;
+};
+
+XMLHttpRequest.prototype.setRequestHeader = function (name, value) {
+    this._headers[name] = String(value);
+};
+
+XMLHttpRequest.prototype.send = function (body) {
+    var xhr = this;
+    var headers = JSON.stringify(this._headers);
+    body = body === undefined || body === null ? "" : String(body);
+    if (this._async) {
+        var requestId = ++Tomahawk.nextHttpRequestId;
+        Tomahawk.httpCallbacks[requestId] = function (response) {
+            xhr._onResponse(response);
+        };
+        Tomahawk.httpRequest(requestId, this._method, this._url, headers, body);
+    } else {
+        this._onResponse(JSON.parse(Tomahawk.httpRequestSync(this._method, this._url, headers,
+            body)));
+    }
+};
+
+XMLHttpRequest.prototype._onResponse = function (response) {
+    this.status = response.status;
+    this.statusText = response.statusText;
+    this.responseText = response.responseText;
+    this.readyState = 4;
+    if (typeof this.onreadystatechange === "function") {
+        this.onreadystatechange();
+    }
+    if (typeof this.onload === "function") {
+        this.onload();
+    }
+};
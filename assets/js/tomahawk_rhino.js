@@ -0,0 +1,92 @@
+// Emulates the parts of the browser environment the resolvers rely on, when they are run inside of
+// the headless Rhino engine. Expects the java objects "ScriptInterface" and "TomahawkHost" to be
+// exposed in the global scope.
+
+var window = this;
+
+var Tomahawk = {
+    callbackToJava: function (id, string, shouldReturnResult) {
+        ScriptInterface.callbackToJava(id, string, shouldReturnResult);
+    },
+    resolverDataString: function () {
+        return String(ScriptInterface.resolverDataString());
+    },
+    log: function (message) {
+        ScriptInterface.log(String(message));
+    },
+    addTrackResultsString: function (string) {
+        ScriptInterface.addTrackResultsString(string);
+    },
+    takeCallsString: function () {
+        return String(ScriptInterface.takeCallsString());
+    },
+    httpRequest: function (requestId, method, url, headers, body) {
+        ScriptInterface.httpRequest(requestId, method, url, headers, body);
+    },
+    httpRequestSync: function (method, url, headers, body) {
+        return String(ScriptInterface.httpRequestSync(method, url, headers, body));
+    }
+};
+
+var console = {
+    log: function (message) {
+        Tomahawk.log(message);
+    }
+};
+
+// Only kept in memory, the resolvers merely store their config in here
+var localStorage = {};
+
+window.setTimeout = function (callback, delay) {
+    return TomahawkHost.setTimeout(callback, delay || 0, false);
+};
+
+window.setInterval = function (callback, delay) {
+    return TomahawkHost.setTimeout(callback, delay || 0, true);
+};
+
+window.clearTimeout = function (id) {
+    TomahawkHost.clearTimeout(id);
+};
+
+window.clearInterval = window.clearTimeout;
+
+// Wraps an org.w3c.dom.Node, so that it can be used like a browser's DOM node
+var XmlNode = function (node) {
+    this._node = node;
+};
+
+XmlNode.prototype.getElementsByTagName = function (name) {
+    var nodeList = this._node.getElementsByTagName(name);
+    var nodes = [];
+    for (var i = 0; i < nodeList.getLength(); i++) {
+        nodes.push(new XmlNode(nodeList.item(i)));
+    }
+    return nodes;
+};
+
+Object.defineProperty(XmlNode.prototype, "childNodes", {
+    get: function () {
+        var nodeList = this._node.getChildNodes();
+        var nodes = [];
+        for (var i = 0; i < nodeList.getLength(); i++) {
+            nodes.push(new XmlNode(nodeList.item(i)));
+        }
+        return nodes;
+    }
+});
+
+Object.defineProperty(XmlNode.prototype, "textContent", {
+    get: function () {
+        var textContent = this._node.getTextContent();
+        return textContent === null ? null : String(textContent);
+    }
+});
+
+var DOMParser = function () {
+};
+
+DOMParser.prototype.parseFromString = function (string, mimeType) {
+    var document = TomahawkHost.parseXml(String(string));
+    return document === null ? null : new XmlNode(document);
+};
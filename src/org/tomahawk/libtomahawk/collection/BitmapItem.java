@@ -17,8 +17,10 @@
  */
 package org.tomahawk.libtomahawk.collection;
 
+import org.tomahawk.libtomahawk.utils.EventBus;
+import org.tomahawk.tomahawk_android.R;
+
 import android.content.Context;
-import android.content.Intent;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
@@ -36,8 +38,8 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 
 /**
- * Every {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}, which
- * needs async {@link Bitmap} loading functionality (like e.g. AlbumArt) extends from this class
+ * Provides async {@link Bitmap} loading functionality for every {@link TomahawkListItem}, which
+ * needs it (like e.g. an {@link Album}'s AlbumArt)
  */
 public class BitmapItem {
 
@@ -46,15 +48,14 @@ public class BitmapItem {
     public static final String BITMAPITEM_BITMAPLOADED
             = "org.tomahawk.tomahawk_android.bitmapitem_bitmaploaded";
 
-    public static final String BITMAPITEM_BITMAPLOADED_PATH
-            = "org.tomahawk.tomahawk_android.bitmapitem_bitmaploaded_path";
-
     public static final int BITMAP_MAXSIZE = 512;
 
     private static final int sCacheSize = (int) (Runtime.getRuntime().maxMemory() / 1024) / 8;
 
     private static AlbumArtCache sAlbumArtCache;
 
+    private static Bitmap sAlbumPlaceHolderBitmap;
+
     /**
      * Cache {@link Album} cover art.
      */
@@ -138,10 +139,7 @@ public class BitmapItem {
      * This {@link AsyncTask} contains all the code, which will asynchronously fetch a {@link
      * Bitmap}.
      */
-    public class BitmapWorkerTask extends AsyncTask<String, Void, Bitmap> {
-
-        //The Context is needed to send broadcasts
-        private Context context;
+    public static class BitmapWorkerTask extends AsyncTask<String, Void, Bitmap> {
 
         //A WeakReference to the ImageView which this AsyncTask works on
         private WeakReference<ImageView> imageViewReference = null;
@@ -173,15 +171,11 @@ public class BitmapItem {
         /**
          * Construct a new {@link BitmapWorkerTask}
          *
-         * @param context           The {@link Context}, which is needed to be able to send
-         *                          broadcasts
          * @param asyncBitmap       the {@link AsyncBitmap} to be asynchronously filled
          * @param placeHolderBitmap the placeHolderBitmap which should be shown before the actual
          *                          image has been loaded
          */
-        public BitmapWorkerTask(Context context, AsyncBitmap asyncBitmap,
-                Bitmap placeHolderBitmap) {
-            this.context = context;
+        public BitmapWorkerTask(AsyncBitmap asyncBitmap, Bitmap placeHolderBitmap) {
             bitMapToFill = asyncBitmap;
             this.placeHolderBitmap = placeHolderBitmap;
             opts.inPreferredConfig = Bitmap.Config.RGB_565;
@@ -268,11 +262,9 @@ public class BitmapItem {
                         bitMapToFill.bitmap = placeHolderBitmap;
                     }
                 }
-                //After we have finished we broadcast the bitmap's path, so anybody listening can
-                //associate the loaded bitmap to the broadcast
-                Intent intent = new Intent(BITMAPITEM_BITMAPLOADED);
-                intent.putExtra(BITMAPITEM_BITMAPLOADED_PATH, path);
-                context.sendBroadcast(intent);
+                //After we have finished we post the bitmap's path, so anybody listening can
+                //associate the loaded bitmap to the event
+                EventBus.getInstance().post(BITMAPITEM_BITMAPLOADED, path);
             }
         }
 
@@ -352,4 +344,63 @@ public class BitmapItem {
         return null;
     }
 
+    /**
+     * Load a {@link android.graphics.Bitmap} asynchronously
+     *
+     * @param context     the context needed for fetching resources
+     * @param album       the {@link Album} whose album art should be loaded
+     * @param asyncBitmap the {@link android.widget.ImageView}, which will be used to show the
+     *                    {@link android.graphics.Bitmap}
+     */
+    public static void loadBitmap(Context context, Album album, AsyncBitmap asyncBitmap) {
+        Bitmap placeHolderBitmap;
+        String pathToBitmap;
+        if (sAlbumPlaceHolderBitmap == null) {
+            sAlbumPlaceHolderBitmap = BitmapFactory
+                    .decodeResource(context.getResources(), R.drawable.no_album_art_placeholder);
+        }
+        placeHolderBitmap = sAlbumPlaceHolderBitmap;
+        pathToBitmap = album.getAlbumArtPath();
+        if (pathToBitmap != null) {
+            if (cancelPotentialWork(pathToBitmap, getBitmapWorkerTask(asyncBitmap))) {
+                final BitmapWorkerTask task = new BitmapWorkerTask(asyncBitmap,
+                        sAlbumPlaceHolderBitmap);
+                asyncBitmap.setBitmapWorkerTaskReference(new WeakReference<BitmapWorkerTask>(task));
+                task.execute(album.getAlbumArtPath());
+            }
+        } else {
+            asyncBitmap.bitmap = placeHolderBitmap;
+        }
+    }
+
+    /**
+     * Load a {@link android.graphics.Bitmap} asynchronously
+     *
+     * @param context   the context needed for fetching resources
+     * @param album     the {@link Album} whose album art should be loaded
+     * @param imageView the {@link android.widget.ImageView}, which will be used to show the {@link
+     *                  android.graphics.Bitmap}
+     */
+    public static void loadBitmap(Context context, Album album, ImageView imageView) {
+        Bitmap placeHolderBitmap;
+        String pathToBitmap;
+        if (sAlbumPlaceHolderBitmap == null) {
+            sAlbumPlaceHolderBitmap = BitmapFactory
+                    .decodeResource(context.getResources(), R.drawable.no_album_art_placeholder);
+        }
+        placeHolderBitmap = sAlbumPlaceHolderBitmap;
+        pathToBitmap = album.getAlbumArtPath();
+        if (pathToBitmap != null) {
+            if (cancelPotentialWork(pathToBitmap, getBitmapWorkerTask(imageView))) {
+                final BitmapWorkerTask task = new BitmapWorkerTask(imageView,
+                        sAlbumPlaceHolderBitmap);
+                final AsyncDrawable asyncDrawable = new AsyncDrawable(context.getResources(),
+                        placeHolderBitmap, task);
+                imageView.setImageDrawable(asyncDrawable);
+                task.execute(album.getAlbumArtPath());
+            }
+        } else {
+            imageView.setImageBitmap(placeHolderBitmap);
+        }
+    }
 }
@@ -67,6 +67,8 @@ public class UserCollection extends Collection {
 
     private ConcurrentHashMap<Long, Track> mTracks = new ConcurrentHashMap<Long, Track>();
 
+    private TrackIndex mTrackIndex = new TrackIndex();
+
     private UserPlaylist mCachedUserPlaylist;
 
     private ConcurrentHashMap<Long, UserPlaylist> mCustomPlaylists
@@ -236,6 +238,14 @@ public class UserCollection extends Collection {
         return mTracks.get(id);
     }
 
+    /**
+     * @return the {@link TrackIndex} over all {@link Track}s in this {@link UserCollection}
+     */
+    @Override
+    public TrackIndex getTrackIndex() {
+        return mTrackIndex;
+    }
+
     /**
      * @return always true
      */
@@ -327,6 +337,8 @@ public class UserCollection extends Collection {
 
             track.setAlbum(album);
             track.setArtist(artist);
+
+            mTrackIndex.put(track);
         }
 
         if (cursor != null) {
@@ -0,0 +1,237 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.database;
+
+import org.tomahawk.libtomahawk.collection.Album;
+import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.resolver.PipeLine;
+import org.tomahawk.libtomahawk.resolver.ResolutionStore;
+import org.tomahawk.libtomahawk.resolver.Resolver;
+import org.tomahawk.libtomahawk.resolver.Result;
+import org.tomahawk.libtomahawk.utils.Platform;
+import org.tomahawk.tomahawk_android.TomahawkApp;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class provides a way of persisting the best {@link Result} a {@link
+ * org.tomahawk.libtomahawk.resolver.Query} has been resolved to in the app's SQLite database, so
+ * that already known {@link Track}s don't have to be resolved again after a restart. Every
+ * resolution is stored under its {@link org.tomahawk.libtomahawk.resolver.Query}'s cache key and
+ * expires after a certain time-to-live.
+ */
+public class ResolutionsDataSource implements ResolutionStore {
+
+    public static final String TAG = ResolutionsDataSource.class.getName();
+
+    // SQLite doesn't allow more than 999 host parameters per statement
+    private static final int MAX_KEYS_PER_QUERY = 500;
+
+    // Database fields
+    private SQLiteDatabase mDatabase;
+
+    private TomahawkSQLiteHelper mDbHelper;
+
+    private PipeLine mPipeLine;
+
+    // All reads and writes are done one after another on this executor, so that we never block
+    // the caller
+    private ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+    private String[] mAllResolutionsColumns = {TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_CACHEKEY,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_TRACKNAME,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_ALBUMNAME,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_ARTISTNAME,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_PATH,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_DURATION,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_RESOLVERID,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_SCORE,
+            TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_EXPIRES};
+
+    /**
+     * @param dbHelper the {@link TomahawkSQLiteHelper} owned by {@link TomahawkApp}, which is
+     *                 shared with every other data source
+     */
+    public ResolutionsDataSource(TomahawkSQLiteHelper dbHelper, PipeLine pipeLine) {
+        mDbHelper = dbHelper;
+        mPipeLine = pipeLine;
+    }
+
+    /**
+     * Get a reference to our database and remove all expired resolutions. The {@link
+     * TomahawkSQLiteHelper} is shared, so it must not be closed here.
+     */
+    public void open() throws SQLException {
+        mDatabase = mDbHelper.getWritableDatabase();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                deleteExpiredResolutions();
+            }
+        });
+    }
+
+    /**
+     * Look up the stored resolutions for the given cache keys on our executor. The {@link
+     * Callback} is invoked on the main thread with every resolution that has been found.
+     *
+     * @param cacheKeys the {@link org.tomahawk.libtomahawk.resolver.Query}s' cache keys
+     * @param callback  the {@link Callback} to report the found resolutions to
+     */
+    public void getResolutions(final ArrayList<String> cacheKeys, final Callback callback) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final HashMap<String, Result> resolutions = new HashMap<String, Result>();
+                if (mDatabase != null) {
+                    for (int i = 0; i < cacheKeys.size(); i += MAX_KEYS_PER_QUERY) {
+                        queryResolutions(cacheKeys.subList(i,
+                                Math.min(i + MAX_KEYS_PER_QUERY, cacheKeys.size())), resolutions);
+                    }
+                }
+                Platform.getInstance().postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onResolutions(resolutions);
+                    }
+                }, 0);
+            }
+        });
+    }
+
+    /**
+     * Query the resolutions for the given cache keys with a single statement and put every valid
+     * one into the given map. Expired resolutions and those whose {@link Resolver} isn't available
+     * anymore are left out.
+     */
+    private void queryResolutions(List<String> cacheKeys,
+            HashMap<String, Result> resolutions) {
+        StringBuilder selection = new StringBuilder();
+        selection.append(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_CACHEKEY).append(" IN (");
+        String[] selectionArgs = new String[cacheKeys.size() + 1];
+        for (int i = 0; i < cacheKeys.size(); i++) {
+            selection.append(i == 0 ? "?" : ", ?");
+            selectionArgs[i] = cacheKeys.get(i);
+        }
+        selection.append(") AND ").append(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_EXPIRES)
+                .append(" > ?");
+        selectionArgs[cacheKeys.size()] = String.valueOf(System.currentTimeMillis());
+        Cursor cursor = null;
+        try {
+            cursor = mDatabase.query(TomahawkSQLiteHelper.TABLE_RESOLUTIONS,
+                    mAllResolutionsColumns, selection.toString(), selectionArgs, null, null, null);
+            while (cursor.moveToNext()) {
+                Resolver resolver = mPipeLine.getResolver(cursor.getInt(6));
+                if (resolver != null) {
+                    Track track = new Track(TomahawkApp.getUniqueId());
+                    track.setName(cursor.getString(1));
+                    Album album = new Album(TomahawkApp.getUniqueId());
+                    album.setName(cursor.getString(2));
+                    Artist artist = new Artist(TomahawkApp.getUniqueId());
+                    artist.setName(cursor.getString(3));
+                    track.setAlbum(album);
+                    track.setArtist(artist);
+                    track.setPath(cursor.getString(4));
+                    track.setDuration(cursor.getLong(5));
+                    track.setResolver(resolver);
+                    Result result = new Result(track);
+                    result.setResolver(resolver);
+                    result.setTrackScore(cursor.getFloat(7));
+                    resolutions.put(cursor.getString(0), result);
+                }
+            }
+        } catch (SQLException e) {
+            Log.e(TAG, "queryResolutions: " + e.getClass() + ": " + e.getLocalizedMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Store the given resolved {@link Track} under the given cache key. Overwrites any existing
+     * resolution. The actual database write is done asynchronously.
+     *
+     * @param cacheKey   the {@link org.tomahawk.libtomahawk.resolver.Query}'s cache key
+     * @param track      the resolved {@link Track}
+     * @param timeToLive the time in milliseconds after which this resolution expires
+     */
+    public void storeResolution(String cacheKey, Track track, long timeToLive) {
+        if (mDatabase == null || cacheKey == null || track.getResolver() == null
+                || track.getPath() == null) {
+            return;
+        }
+        final ContentValues values = new ContentValues();
+        values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_CACHEKEY, cacheKey);
+        values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_TRACKNAME, track.getName());
+        if (track.getAlbum() != null) {
+            values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_ALBUMNAME,
+                    track.getAlbum().getName());
+        }
+        if (track.getArtist() != null) {
+            values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_ARTISTNAME,
+                    track.getArtist().getName());
+        }
+        values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_PATH, track.getPath());
+        values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_DURATION, track.getDuration());
+        values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_RESOLVERID,
+                track.getResolver().getId());
+        values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_SCORE, track.getScore());
+        values.put(TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_EXPIRES,
+                System.currentTimeMillis() + timeToLive);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    mDatabase.insertWithOnConflict(TomahawkSQLiteHelper.TABLE_RESOLUTIONS, null,
+                            values, SQLiteDatabase.CONFLICT_REPLACE);
+                } catch (SQLException e) {
+                    Log.e(TAG, "storeResolution: " + e.getClass() + ": " + e
+                            .getLocalizedMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Delete all resolutions which have expired
+     */
+    private void deleteExpiredResolutions() {
+        try {
+            int count = mDatabase.delete(TomahawkSQLiteHelper.TABLE_RESOLUTIONS,
+                    TomahawkSQLiteHelper.RESOLUTIONS_COLUMN_EXPIRES + " <= ?",
+                    new String[]{String.valueOf(System.currentTimeMillis())});
+            Log.d(TAG, "Deleted " + count + " expired resolutions");
+        } catch (SQLException e) {
+            Log.e(TAG, "deleteExpiredResolutions: " + e.getClass() + ": " + e
+                    .getLocalizedMessage());
+        }
+    }
+}
@@ -82,9 +82,29 @@ public class TomahawkSQLiteHelper extends SQLiteOpenHelper {
 
     public static final String ALBUMS_COLUMN_LASTYEAR = "lastyear";
 
+    public static final String TABLE_RESOLUTIONS = "resolutions";
+
+    public static final String RESOLUTIONS_COLUMN_CACHEKEY = "cachekey";
+
+    public static final String RESOLUTIONS_COLUMN_TRACKNAME = "trackname";
+
+    public static final String RESOLUTIONS_COLUMN_ALBUMNAME = "albumname";
+
+    public static final String RESOLUTIONS_COLUMN_ARTISTNAME = "artistname";
+
+    public static final String RESOLUTIONS_COLUMN_PATH = "path";
+
+    public static final String RESOLUTIONS_COLUMN_DURATION = "duration";
+
+    public static final String RESOLUTIONS_COLUMN_RESOLVERID = "resolverid";
+
+    public static final String RESOLUTIONS_COLUMN_SCORE = "score";
+
+    public static final String RESOLUTIONS_COLUMN_EXPIRES = "expires";
+
     private static final String DATABASE_NAME = "userplaylists.db";
 
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 2;
 
     // Database creation sql statements
     private static final String CREATE_TABLE_USERPLAYLISTS = "CREATE TABLE `" + TABLE_USERPLAYLISTS
@@ -111,6 +131,14 @@ public class TomahawkSQLiteHelper extends SQLiteOpenHelper {
             + TRACKS_COLUMN_IDALBUMS + "`) REFERENCES `" + TABLE_ALBUMS + "` (`" + ALBUMS_COLUMN_ID
             + "`));";
 
+    private static final String CREATE_TABLE_RESOLUTIONS = "CREATE TABLE `" + TABLE_RESOLUTIONS
+            + "` (  `" + RESOLUTIONS_COLUMN_CACHEKEY + "` TEXT PRIMARY KEY ,  `"
+            + RESOLUTIONS_COLUMN_TRACKNAME + "` TEXT , `" + RESOLUTIONS_COLUMN_ALBUMNAME
+            + "` TEXT , `" + RESOLUTIONS_COLUMN_ARTISTNAME + "` TEXT , `" + RESOLUTIONS_COLUMN_PATH
+            + "` TEXT , `" + RESOLUTIONS_COLUMN_DURATION + "` INTEGER , `"
+            + RESOLUTIONS_COLUMN_RESOLVERID + "` INTEGER , `" + RESOLUTIONS_COLUMN_SCORE
+            + "` REAL , `" + RESOLUTIONS_COLUMN_EXPIRES + "` INTEGER );";
+
     public TomahawkSQLiteHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
     }
@@ -123,15 +151,24 @@ public class TomahawkSQLiteHelper extends SQLiteOpenHelper {
         database.execSQL(CREATE_TABLE_USERPLAYLISTS);
         database.execSQL(CREATE_TABLE_ALBUMS);
         database.execSQL(CREATE_TABLE_TRACKS);
+        database.execSQL(CREATE_TABLE_RESOLUTIONS);
     }
 
     /**
-     * Drops all tables and creates them again
+     * Adds the resolutions table, if we upgrade from version 1. Otherwise drops all tables and
+     * creates them again
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion == 1) {
+            Log.d(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion
+                    + ", which will add the resolutions table");
+            db.execSQL(CREATE_TABLE_RESOLUTIONS);
+            return;
+        }
         Log.d(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion
                 + ", which will destroy all old data");
+        db.execSQL("DROP TABLE IF EXISTS `" + TABLE_RESOLUTIONS + "`;");
         db.execSQL("DROP TABLE IF EXISTS `" + TABLE_TRACKS + "`;");
         db.execSQL("DROP TABLE IF EXISTS `" + TABLE_ALBUMS + "`;");
         db.execSQL("DROP TABLE IF EXISTS `" + TABLE_USERPLAYLISTS + "`;");
@@ -26,7 +26,6 @@ import org.tomahawk.libtomahawk.resolver.PipeLine;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 
 import android.content.ContentValues;
-import android.content.Context;
 import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
@@ -71,27 +70,23 @@ public class UserPlaylistsDataSource {
             TomahawkSQLiteHelper.ALBUMS_COLUMN_FIRSTYEAR,
             TomahawkSQLiteHelper.ALBUMS_COLUMN_LASTYEAR};
 
-    public UserPlaylistsDataSource(Context context, PipeLine pipeLine) {
-        mDbHelper = new TomahawkSQLiteHelper(context);
+    /**
+     * @param dbHelper the {@link TomahawkSQLiteHelper} owned by {@link TomahawkApp}, which is
+     *                 shared with every other data source
+     */
+    public UserPlaylistsDataSource(TomahawkSQLiteHelper dbHelper, PipeLine pipeLine) {
+        mDbHelper = dbHelper;
         mPipeLine = pipeLine;
     }
 
     /**
-     * Always try to close the {@link TomahawkSQLiteHelper}, in case it is still open for whatever
-     * reason. Then get a reference to our database.
+     * Get a reference to our database. The {@link TomahawkSQLiteHelper} is shared, so it must not
+     * be closed here.
      */
     public void open() throws SQLException {
-        mDbHelper.close();
         mDatabase = mDbHelper.getWritableDatabase();
     }
 
-    /**
-     * Close the {@link TomahawkSQLiteHelper}
-     */
-    public void close() {
-        mDbHelper.close();
-    }
-
     /**
      * Store the given {@link Playlist} with CACHED_PLAYLIST_ID as its id, and CACHED_PLAYLIST_NAME
      * as its name
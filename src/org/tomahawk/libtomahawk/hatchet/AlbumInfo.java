@@ -17,13 +17,12 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.tomahawk.libtomahawk.utils.TomahawkUtils;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import org.tomahawk.libtomahawk.utils.TomahawkUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 
@@ -83,76 +82,63 @@ public class AlbumInfo implements Info {
     private String mWikiAbstract;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(ALBUMINFO_KEY_ARTIST)) {
-                JSONObject rawArtistInfo = rawInfo.getJSONObject(ALBUMINFO_KEY_ARTIST);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (ALBUMINFO_KEY_ARTIST.equals(name)) {
                 mArtist = new ArtistInfo();
-                mArtist.parseInfo(rawArtistInfo);
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_ID)) {
-                mId = rawInfo.getString(ALBUMINFO_KEY_ID);
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_IMAGES)) {
-                JSONArray rawImageInfos = rawInfo.getJSONArray(ALBUMINFO_KEY_IMAGES);
+                mArtist.parseInfo(reader);
+            } else if (ALBUMINFO_KEY_ID.equals(name)) {
+                mId = reader.nextString();
+            } else if (ALBUMINFO_KEY_IMAGES.equals(name)) {
                 mImages = new ArrayList<ImageInfo>();
-                for (int i = 0; i < rawImageInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     ImageInfo imageInfo = new ImageInfo();
-                    imageInfo.parseInfo(rawImageInfos.getJSONObject(i));
+                    imageInfo.parseInfo(reader);
                     mImages.add(imageInfo);
                 }
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_LABELS)) {
-                JSONArray rawImageInfos = rawInfo.getJSONArray(ALBUMINFO_KEY_LABELS);
-                mLabels = new ArrayList<String>();
-                for (int i = 0; i < rawImageInfos.length(); i++) {
-                    mLabels.add(rawImageInfos.getString(i));
-                }
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_LENGTH)) {
-                mLength = rawInfo.getInt(ALBUMINFO_KEY_LENGTH);
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_NAME)) {
-                mName = rawInfo.getString(ALBUMINFO_KEY_NAME);
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_NAMES)) {
-                JSONArray rawImageInfos = rawInfo.getJSONArray(ALBUMINFO_KEY_NAMES);
-                mNames = new ArrayList<String>();
-                for (int i = 0; i < rawImageInfos.length(); i++) {
-                    mNames.add(rawImageInfos.getString(i));
-                }
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_PRODUCERS)) {
-                JSONArray rawProducerInfos = rawInfo.getJSONArray(ALBUMINFO_KEY_PRODUCERS);
+                reader.endArray();
+            } else if (ALBUMINFO_KEY_LABELS.equals(name)) {
+                mLabels = InfoParser.readStrings(reader);
+            } else if (ALBUMINFO_KEY_LENGTH.equals(name)) {
+                mLength = reader.nextInt();
+            } else if (ALBUMINFO_KEY_NAME.equals(name)) {
+                mName = reader.nextString();
+            } else if (ALBUMINFO_KEY_NAMES.equals(name)) {
+                mNames = InfoParser.readStrings(reader);
+            } else if (ALBUMINFO_KEY_PRODUCERS.equals(name)) {
                 mProducers = new ArrayList<PersonInfo>();
-                for (int i = 0; i < rawProducerInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     PersonInfo personInfo = new PersonInfo();
-                    personInfo.parseInfo(rawProducerInfos.getJSONObject(i));
+                    personInfo.parseInfo(reader);
                     mProducers.add(personInfo);
                 }
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_RELEASEDATE)) {
-                mReleaseDate = TomahawkUtils
-                        .stringToDate(rawInfo.getString(ALBUMINFO_KEY_RELEASEDATE));
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_TRACKS)) {
-                JSONArray rawTrackInfos = rawInfo.getJSONArray(ALBUMINFO_KEY_TRACKS);
+                reader.endArray();
+            } else if (ALBUMINFO_KEY_RELEASEDATE.equals(name)) {
+                mReleaseDate = TomahawkUtils.stringToDate(reader.nextString());
+            } else if (ALBUMINFO_KEY_TRACKS.equals(name)) {
                 mTracks = new ArrayList<TrackInfo>();
-                for (int i = 0; i < rawTrackInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     TrackInfo trackInfo = new TrackInfo();
-                    trackInfo.parseInfo(rawTrackInfos.getJSONObject(i));
+                    trackInfo.parseInfo(reader);
                     mTracks.add(trackInfo);
                 }
+                reader.endArray();
+            } else if (ALBUMINFO_KEY_URL.equals(name)) {
+                mUrl = reader.nextString();
+            } else if (ALBUMINFO_KEY_WIKIABSTRACT.equals(name)) {
+                mWikiAbstract = reader.nextString();
+            } else {
+                reader.skipValue();
             }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_URL)) {
-                mUrl = rawInfo.getString(ALBUMINFO_KEY_URL);
-            }
-            if (!rawInfo.isNull(ALBUMINFO_KEY_WIKIABSTRACT)) {
-                mWikiAbstract = rawInfo.getString(ALBUMINFO_KEY_WIKIABSTRACT);
-            }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public ArtistInfo getArtist() {
@@ -17,12 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -37,20 +35,24 @@ public class AlbumsInfo implements Info {
     private ArrayList<AlbumInfo> mAlbums;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(ALBUMSINFO_KEY_ALBUMS)) {
-                JSONArray rawArtistChartItemInfos = rawInfo.getJSONArray(ALBUMSINFO_KEY_ALBUMS);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (ALBUMSINFO_KEY_ALBUMS.equals(name) && reader.peek() != JsonToken.NULL) {
                 mAlbums = new ArrayList<AlbumInfo>();
-                for (int i = 0; i < rawArtistChartItemInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     AlbumInfo albumInfo = new AlbumInfo();
-                    albumInfo.parseInfo(rawArtistChartItemInfos.getJSONObject(i));
+                    albumInfo.parseInfo(reader);
                     mAlbums.add(albumInfo);
                 }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public ArrayList<AlbumInfo> getAlbums() {
@@ -17,10 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 04.05.13
@@ -37,19 +37,23 @@ public class ArtistChartItemInfo implements Info {
 
     private ArtistInfo mArtist;
 
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(ARTISTCHARTITEMINFO_KEY_PLAYS)) {
-                mPlays = rawInfo.getInt(ARTISTCHARTITEMINFO_KEY_PLAYS);
-            }
-            if (!rawInfo.isNull(ARTISTCHARTITEMINFO_KEY_ARTIST)) {
-                JSONObject rawArtistInfo = rawInfo.getJSONObject(ARTISTCHARTITEMINFO_KEY_ARTIST);
+    @Override
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (ARTISTCHARTITEMINFO_KEY_PLAYS.equals(name)) {
+                mPlays = reader.nextInt();
+            } else if (ARTISTCHARTITEMINFO_KEY_ARTIST.equals(name)) {
                 mArtist = new ArtistInfo();
-                mArtist.parseInfo(rawArtistInfo);
+                mArtist.parseInfo(reader);
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public int getPlays() {
@@ -17,18 +17,16 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 04.05.13
  */
-public class ArtistChartItemsInfo implements Info {
+public class ArtistChartItemsInfo implements Info, PaginatedInfo {
 
     private final static String TAG = ArtistChartItemsInfo.class.getName();
 
@@ -37,25 +35,33 @@ public class ArtistChartItemsInfo implements Info {
     private ArrayList<ArtistChartItemInfo> mArtistChartItems;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(ARTISTCHARTITEMSINFO_KEY_ARTISTCHARTITEMS)) {
-                JSONArray rawArtistChartItemInfos = rawInfo
-                        .getJSONArray(ARTISTCHARTITEMSINFO_KEY_ARTISTCHARTITEMS);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (ARTISTCHARTITEMSINFO_KEY_ARTISTCHARTITEMS.equals(name)
+                    && reader.peek() != JsonToken.NULL) {
                 mArtistChartItems = new ArrayList<ArtistChartItemInfo>();
-                for (int i = 0; i < rawArtistChartItemInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     ArtistChartItemInfo artistChartItemInfo = new ArtistChartItemInfo();
-                    artistChartItemInfo.parseInfo(rawArtistChartItemInfos.getJSONObject(i));
+                    artistChartItemInfo.parseInfo(reader);
                     mArtistChartItems.add(artistChartItemInfo);
                 }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public ArrayList<ArtistChartItemInfo> getArtistChartItems() {
         return mArtistChartItems;
     }
 
+    @Override
+    public int getItemCount() {
+        return mArtistChartItems == null ? 0 : mArtistChartItems.size();
+    }
 }
@@ -17,12 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -68,60 +66,57 @@ public class ArtistInfo implements Info {
 
     private String mWikiAbstract;
 
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(ARTISTINFO_KEY_DISAMBIGUATION)) {
-                mDisambiguation = rawInfo.getString(ARTISTINFO_KEY_DISAMBIGUATION);
-            }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_ID)) {
-                mId = rawInfo.getString(ARTISTINFO_KEY_ID);
-            }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_IMAGES)) {
-                JSONArray rawImageInfos = rawInfo.getJSONArray(ARTISTINFO_KEY_IMAGES);
+    @Override
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (ARTISTINFO_KEY_DISAMBIGUATION.equals(name)) {
+                mDisambiguation = reader.nextString();
+            } else if (ARTISTINFO_KEY_ID.equals(name)) {
+                mId = reader.nextString();
+            } else if (ARTISTINFO_KEY_IMAGES.equals(name)) {
                 mImages = new ArrayList<ImageInfo>();
-                for (int i = 0; i < rawImageInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     ImageInfo imageInfo = new ImageInfo();
-                    imageInfo.parseInfo(rawImageInfos.getJSONObject(i));
+                    imageInfo.parseInfo(reader);
                     mImages.add(imageInfo);
                 }
-            }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_MEMBERS)) {
-                JSONArray rawResourceInfos = rawInfo.getJSONArray(ARTISTINFO_KEY_MEMBERS);
+                reader.endArray();
+            } else if (ARTISTINFO_KEY_MEMBERS.equals(name)) {
                 mMembers = new ArrayList<PersonInfo>();
-                for (int i = 0; i < rawResourceInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     PersonInfo personInfo = new PersonInfo();
-                    personInfo.parseInfo(rawResourceInfos.getJSONObject(i));
+                    personInfo.parseInfo(reader);
                     mMembers.add(personInfo);
                 }
-            }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_NAME)) {
-                mName = rawInfo.getString(ARTISTINFO_KEY_NAME);
-            }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_NAMES)) {
-                JSONArray rawNameInfos = rawInfo.getJSONArray(ARTISTINFO_KEY_NAMES);
-                mNames = new ArrayList<String>();
-                for (int i = 0; i < rawNameInfos.length(); i++) {
-                    mNames.add(rawNameInfos.getString(i));
-                }
-            }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_RESOURCES)) {
-                JSONArray rawResourceInfos = rawInfo.getJSONArray(ARTISTINFO_KEY_RESOURCES);
+                reader.endArray();
+            } else if (ARTISTINFO_KEY_NAME.equals(name)) {
+                mName = reader.nextString();
+            } else if (ARTISTINFO_KEY_NAMES.equals(name)) {
+                mNames = InfoParser.readStrings(reader);
+            } else if (ARTISTINFO_KEY_RESOURCES.equals(name)) {
                 mResources = new ArrayList<ResourceInfo>();
-                for (int i = 0; i < rawResourceInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     ResourceInfo resourceInfo = new ResourceInfo();
-                    resourceInfo.parseInfo(rawResourceInfos.getJSONObject(i));
+                    resourceInfo.parseInfo(reader);
                     mResources.add(resourceInfo);
                 }
+                reader.endArray();
+            } else if (ARTISTINFO_KEY_URL.equals(name)) {
+                mUrl = reader.nextString();
+            } else if (ARTISTINFO_KEY_WIKIABSTRACT.equals(name)) {
+                mWikiAbstract = reader.nextString();
+            } else {
+                reader.skipValue();
             }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_URL)) {
-                mUrl = rawInfo.getString(ARTISTINFO_KEY_URL);
-            }
-            if (!rawInfo.isNull(ARTISTINFO_KEY_WIKIABSTRACT)) {
-                mWikiAbstract = rawInfo.getString(ARTISTINFO_KEY_WIKIABSTRACT);
-            }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public String getDisambiguation() {
@@ -17,10 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
@@ -38,18 +38,22 @@ public class EntryInfo implements Info {
     private TrackInfo mTrack;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(ENTRYINFO_KEY_ID)) {
-                mId = rawInfo.getString(ENTRYINFO_KEY_ID);
-            }
-            if (!rawInfo.isNull(ENTRYINFO_KEY_TRACK)) {
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (ENTRYINFO_KEY_ID.equals(name)) {
+                mId = reader.nextString();
+            } else if (ENTRYINFO_KEY_TRACK.equals(name)) {
                 mTrack = new TrackInfo();
-                mTrack.parseInfo(rawInfo.getJSONObject(ENTRYINFO_KEY_TRACK));
+                mTrack.parseInfo(reader);
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public String getId() {
@@ -17,10 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
@@ -42,20 +42,23 @@ public class ImageInfo implements Info {
     private String mUrl;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(IMAGEINFO_KEY_WIDTH)) {
-                mWidth = rawInfo.getInt(IMAGEINFO_KEY_WIDTH);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (IMAGEINFO_KEY_WIDTH.equals(name)) {
+                mWidth = reader.nextInt();
+            } else if (IMAGEINFO_KEY_HEIGHT.equals(name)) {
+                mHeight = reader.nextInt();
+            } else if (IMAGEINFO_KEY_URL.equals(name)) {
+                mUrl = reader.nextString();
+            } else {
+                reader.skipValue();
             }
-            if (!rawInfo.isNull(IMAGEINFO_KEY_HEIGHT)) {
-                mHeight = rawInfo.getInt(IMAGEINFO_KEY_HEIGHT);
-            }
-            if (!rawInfo.isNull(IMAGEINFO_KEY_URL)) {
-                mUrl = rawInfo.getString(IMAGEINFO_KEY_URL);
-            }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public int getWidth() {
@@ -1,12 +1,18 @@
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 06.05.13
  */
 public interface Info {
 
-    public void parseInfo(JSONObject rawInfo);
+    /**
+     * Parse this {@link Info} from the object the given {@link JsonReader} is positioned at.
+     * Consumes the object completely.
+     */
+    public void parseInfo(JsonReader reader) throws IOException;
 
 }
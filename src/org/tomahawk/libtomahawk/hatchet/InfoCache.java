@@ -0,0 +1,458 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.hatchet;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A two-tier cache for the {@link Info}s of the {@link InfoSystem}. Parsed {@link Info}s are kept
+ * in a size-bounded in-memory cache and evicted in least-recently-used order. The raw responses
+ * are additionally stored on disk, so that they survive a restart of the app and can be used while
+ * we're offline. Every entry expires after a time-to-live, which depends on the type of its {@link
+ * InfoRequestData}. Expired responses are kept on disk for a while longer, so that they can still
+ * be revalidated with the server or used as an offline fallback. They are only removed once the
+ * maximum disk size is exceeded, starting with the least recently stored ones, or once they've
+ * become stale.
+ */
+public class InfoCache {
+
+    private final static String TAG = InfoCache.class.getName();
+
+    public static final int DEFAULT_MAX_MEMORY_ENTRIES = 100;
+
+    public static final long DEFAULT_MAX_DISK_SIZE = 5 * 1024 * 1024;
+
+    private static final long MINUTE = 60 * 1000;
+
+    private static final long HOUR = 60 * MINUTE;
+
+    private static final long DAY = 24 * HOUR;
+
+    private static final String CHARSET = "UTF-8";
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    // A response which has expired longer ago than this is stale and removed from disk
+    private static final long STALE_HORIZON = 7 * DAY;
+
+    // Once the maximum disk size is exceeded, responses are removed until only this fraction of it
+    // is used, so that we don't have to trim again on every following store
+    private static final float TRIM_FACTOR = 0.9f;
+
+    private final int mMaxMemoryEntries;
+
+    private final long mMaxDiskSize;
+
+    private final File mDirectory;
+
+    // Guards all writes to mDirectory and mDiskSize
+    private final Object mDiskLock = new Object();
+
+    // The number of bytes stored in mDirectory, or -1 if it hasn't been determined yet
+    private long mDiskSize = -1;
+
+    // cacheKey -> CacheEntry, in access-order so that the eldest entry is the least recently used
+    private final LinkedHashMap<String, CacheEntry> mEntries
+            = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true);
+
+    /**
+     * A cached {@link Info} together with the time it expires
+     */
+    private static class CacheEntry {
+
+        private final Info mInfo;
+
+        private final long mExpires;
+
+        private CacheEntry(Info info, long expires) {
+            mInfo = info;
+            mExpires = expires;
+        }
+    }
+
+    /**
+     * A raw response as it is stored on disk, together with the validators the server has sent
+     * along with it. The file starts with one line for each validator, followed by the body.
+     */
+    public static class RawResponse {
+
+        private final File mFile;
+
+        // The value of the ETag header, can be null
+        public final String eTag;
+
+        // The value of the Last-Modified header, can be null
+        public final String lastModified;
+
+        private final long mExpires;
+
+        private RawResponse(File file, String eTag, String lastModified, long expires) {
+            mFile = file;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            mExpires = expires;
+        }
+
+        /**
+         * @return whether or not this response has expired and should be revalidated with the
+         * server before it is used
+         */
+        public boolean isExpired() {
+            return mExpires <= System.currentTimeMillis();
+        }
+
+        /**
+         * @return a new {@link InputStream} of the body, which has to be closed by the caller
+         */
+        public InputStream openBody() throws IOException {
+            InputStream in = new BufferedInputStream(new FileInputStream(mFile));
+            try {
+                readLine(in);
+                readLine(in);
+            } catch (IOException e) {
+                closeQuietly(in);
+                throw e;
+            }
+            return in;
+        }
+    }
+
+    /**
+     * Construct a new {@link InfoCache} with the default maximum sizes
+     *
+     * @param directory the directory to store the raw responses in
+     */
+    public InfoCache(File directory) {
+        this(directory, DEFAULT_MAX_MEMORY_ENTRIES, DEFAULT_MAX_DISK_SIZE);
+    }
+
+    /**
+     * Construct a new {@link InfoCache}
+     *
+     * @param directory        the directory to store the raw responses in
+     * @param maxMemoryEntries the maximum number of {@link Info}s to keep in memory
+     * @param maxDiskSize      the maximum number of bytes to store on disk
+     */
+    public InfoCache(File directory, int maxMemoryEntries, long maxDiskSize) {
+        mDirectory = directory;
+        mMaxMemoryEntries = maxMemoryEntries;
+        mMaxDiskSize = maxDiskSize;
+    }
+
+    /**
+     * @return the time in milliseconds after which a response to an {@link InfoRequestData} of the
+     * given type expires. Feeds and logs change all the time, while the info about an album or an
+     * artist hardly ever changes.
+     */
+    public static long getTimeToLive(int type) {
+        switch (type) {
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERFEED:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERPLAYBACKLOG:
+                return 2 * MINUTE;
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERLOVED:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERPLAYLISTS:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_PLAYLISTINFO:
+                return 15 * MINUTE;
+            case InfoRequestData.INFOREQUESTDATA_TYPE_TRACKCHARTS:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTCHARTS:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERTRACKCHARTS:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERARTISTCHARTS:
+                return 6 * HOUR;
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERINFO:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_PERSONINFO:
+                return DAY;
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ALBUMINFO:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTALBUMS:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTINFO:
+                return 7 * DAY;
+        }
+        return HOUR;
+    }
+
+    /**
+     * @return the cached {@link Info} for the given {@link InfoRequestData}, or null if it isn't
+     * in memory or has expired
+     */
+    public synchronized Info get(InfoRequestData infoRequestData) {
+        CacheEntry entry = mEntries.get(infoRequestData.getCacheKey());
+        if (entry != null && entry.mExpires <= System.currentTimeMillis()) {
+            mEntries.remove(infoRequestData.getCacheKey());
+            entry = null;
+        }
+        return entry == null ? null : entry.mInfo;
+    }
+
+    /**
+     * Add the given {@link Info} to the in-memory cache. Evicts the least recently used {@link
+     * Info}s, if necessary.
+     */
+    public synchronized void put(InfoRequestData infoRequestData, Info info) {
+        mEntries.put(infoRequestData.getCacheKey(), new CacheEntry(info,
+                System.currentTimeMillis() + getTimeToLive(infoRequestData.getType())));
+        Iterator<CacheEntry> iterator = mEntries.values().iterator();
+        while (mEntries.size() > mMaxMemoryEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Look up the raw response to the given {@link InfoRequestData} on disk
+     *
+     * @param allowExpired whether or not to return an expired response, e.g. because its validators
+     *                     are needed to revalidate it with the server or because we couldn't get
+     *                     a fresh one. Stale responses are never returned.
+     * @return the {@link RawResponse}, or null if there is none
+     */
+    public RawResponse getRaw(InfoRequestData infoRequestData, boolean allowExpired) {
+        File file = getFile(infoRequestData);
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        long expires = getExpires(file);
+        long now = System.currentTimeMillis();
+        if (expires + STALE_HORIZON <= now || (!allowExpired && expires <= now)) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            return new RawResponse(file, emptyToNull(readLine(in)), emptyToNull(readLine(in)),
+                    expires);
+        } catch (IOException e) {
+            Log.e(TAG, "getRaw: " + e.getClass() + ": " + e.getLocalizedMessage());
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Store the raw response to the given {@link InfoRequestData} on disk, while it is being read
+     * from the given {@link InputStream}. Evicts the least recently stored responses, if the
+     * maximum disk size is exceeded.
+     *
+     * @return the stored {@link RawResponse}
+     * @throws IOException if the response couldn't be read or stored completely
+     */
+    public RawResponse putRaw(InfoRequestData infoRequestData, String eTag, String lastModified,
+            InputStream body) throws IOException {
+        File file = getFile(infoRequestData);
+        if (file == null || (!mDirectory.exists() && !mDirectory.mkdirs())) {
+            throw new IOException("Couldn't create " + mDirectory);
+        }
+        // Write to a temporary file first, so that nobody reads a half-written response
+        File tmpFile = new File(mDirectory, file.getName() + "." + Thread.currentThread().getId()
+                + TMP_SUFFIX);
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(tmpFile);
+            out.write((nullToEmpty(eTag) + "\n" + nullToEmpty(lastModified) + "\n")
+                    .getBytes(CHARSET));
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = body.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            out.close();
+            out = null;
+            synchronized (mDiskLock) {
+                if (mDiskSize < 0) {
+                    trimDisk(mMaxDiskSize);
+                }
+                long oldLength = file.length();
+                if (!tmpFile.renameTo(file)) {
+                    throw new IOException("Couldn't rename " + tmpFile + " to " + file);
+                }
+                mDiskSize += file.length() - oldLength;
+                if (mDiskSize > mMaxDiskSize) {
+                    trimDisk((long) (mMaxDiskSize * TRIM_FACTOR));
+                }
+            }
+        } finally {
+            closeQuietly(out);
+            tmpFile.delete();
+        }
+        return new RawResponse(file, eTag, lastModified,
+                System.currentTimeMillis() + getTimeToLive(infoRequestData.getType()));
+    }
+
+    /**
+     * Remove the raw response to the given {@link InfoRequestData} from disk, e.g. because it
+     * turned out to be broken
+     */
+    public void removeRaw(InfoRequestData infoRequestData) {
+        File file = getFile(infoRequestData);
+        if (file != null) {
+            synchronized (mDiskLock) {
+                long length = file.length();
+                if (file.delete() && mDiskSize >= 0) {
+                    mDiskSize -= length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Restart the time-to-live of the raw response to the given {@link InfoRequestData}, e.g.
+     * because the server has told us that it is still up to date
+     */
+    public void touchRaw(InfoRequestData infoRequestData) {
+        File file = getFile(infoRequestData);
+        if (file != null) {
+            synchronized (mDiskLock) {
+                file.setLastModified(System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Remove all stale responses and left behind temporary files from disk. Then remove the least
+     * recently stored responses, until at most the given number of bytes is used. Has to be called
+     * while holding mDiskLock.
+     */
+    private void trimDisk(long targetSize) {
+        mDiskSize = 0;
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                long diff = lhs.lastModified() - rhs.lastModified();
+                return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+            }
+        });
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < files.length; i++) {
+            if (files[i].getName().endsWith(TMP_SUFFIX)) {
+                // Might still be written to, so only remove it if it has been left behind
+                if (files[i].lastModified() + HOUR <= now) {
+                    files[i].delete();
+                }
+                files[i] = null;
+            } else if (getExpires(files[i]) + STALE_HORIZON <= now && files[i].delete()) {
+                files[i] = null;
+            } else {
+                mDiskSize += files[i].length();
+            }
+        }
+        for (int i = 0; i < files.length && mDiskSize > targetSize; i++) {
+            if (files[i] != null) {
+                long length = files[i].length();
+                if (files[i].delete()) {
+                    mDiskSize -= length;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the time at which the response stored in the given file expires. The type of the
+     * {@link InfoRequestData} is encoded in the file's name.
+     */
+    private static long getExpires(File file) {
+        String name = file.getName();
+        int separator = name.indexOf('_');
+        if (separator >= 0) {
+            try {
+                int type = Integer.parseInt(name.substring(0, separator));
+                return file.lastModified() + getTimeToLive(type);
+            } catch (NumberFormatException e) {
+                // Not one of our files, so it can be removed
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the file the response to the given {@link InfoRequestData} is stored in, or null if
+     * its cache key couldn't be hashed
+     */
+    private File getFile(InfoRequestData infoRequestData) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] hash = digest.digest(infoRequestData.getCacheKey().getBytes(CHARSET));
+            StringBuilder name = new StringBuilder();
+            name.append(infoRequestData.getType()).append('_');
+            for (byte b : hash) {
+                name.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+            }
+            return new File(mDirectory, name.toString());
+        } catch (NoSuchAlgorithmException e) {
+            Log.e(TAG, "getFile: " + e.getClass() + ": " + e.getLocalizedMessage());
+        } catch (UnsupportedEncodingException e) {
+            Log.e(TAG, "getFile: " + e.getClass() + ": " + e.getLocalizedMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Read a single line of a response's header from the given {@link InputStream}
+     */
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                throw new IOException("Unexpected end of file");
+            }
+            line.write(b);
+        }
+        return line.toString(CHARSET);
+    }
+
+    private static String nullToEmpty(String string) {
+        return string == null ? "" : string;
+    }
+
+    private static String emptyToNull(String string) {
+        return string.length() == 0 ? null : string;
+    }
+
+    /**
+     * Close the given {@link Closeable}, ignoring any {@link IOException}
+     */
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // Nothing we could do about it
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.hatchet;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+
+/**
+ * Parses {@link Info}s straight from the byte stream of a response. Every {@link Info} reads its
+ * fields directly from the {@link JsonReader} and hands nested objects on to the {@link Info}s they
+ * belong to, so that neither a tree of the whole response nor one of any of its items is ever built
+ * in memory.
+ */
+public class InfoParser {
+
+    private static final String CHARSET = "UTF-8";
+
+    /**
+     * Parse the given {@link Info} from the given {@link InputStream}. The {@link InputStream} is
+     * not closed.
+     */
+    public static void parse(Info info, InputStream in) throws IOException {
+        info.parseInfo(new JsonReader(new InputStreamReader(in, CHARSET)));
+    }
+
+    /**
+     * Read the array of strings the given {@link JsonReader} is positioned at
+     */
+    public static ArrayList<String> readStrings(JsonReader reader) throws IOException {
+        ArrayList<String> strings = new ArrayList<String>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            strings.add(nextStringOrNull(reader));
+        }
+        reader.endArray();
+        return strings;
+    }
+
+    /**
+     * @return the string the given {@link JsonReader} is positioned at, or null if it's positioned
+     * at a null value
+     */
+    public static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -17,7 +17,6 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.apache.http.client.methods.HttpGet;
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
 import org.tomahawk.libtomahawk.collection.Track;
@@ -60,6 +59,9 @@ public class InfoRequestData {
 
     public static final int INFOREQUESTDATA_TYPE_USERARTISTCHARTS = 23;
 
+    // The number of items which are requested per page of a paginated InfoRequestData
+    public static final int PAGE_SIZE = 50;
+
     static TomahawkApp mTomahawkApp;
 
     private String mRequestId;
@@ -74,7 +76,9 @@ public class InfoRequestData {
 
     private String mCacheKey;
 
-    private HttpGet mRequestGet;
+    private String mRequestUrl;
+
+    private int mOffset;
 
     public Info mResult;
 
@@ -84,7 +88,8 @@ public class InfoRequestData {
         mType = type;
         mUseCache = useCache;
         mCacheKey = "" + mType;
-        mRequestGet = buildRequestGet();
+        mRequestUrl = buildRequestUrl();
+        addPageParams();
     }
 
     public InfoRequestData(TomahawkApp tomahawkApp, String requestId, int type, boolean useCache,
@@ -95,7 +100,8 @@ public class InfoRequestData {
         mUseCache = useCache;
         mFirstParam = prepareString(firstParam);
         mCacheKey = mType + "/" + mFirstParam;
-        mRequestGet = buildRequestGet(mFirstParam);
+        mRequestUrl = buildRequestUrl(mFirstParam);
+        addPageParams();
     }
 
     public InfoRequestData(TomahawkApp tomahawkApp, String requestId, int type, boolean useCache,
@@ -107,7 +113,67 @@ public class InfoRequestData {
         mFirstParam = prepareString(firstParam);
         mSecondParam = prepareString(secondParam);
         mCacheKey = mType + "/" + mFirstParam + "/" + mSecondParam;
-        mRequestGet = buildRequestGet(mFirstParam, mSecondParam);
+        mRequestUrl = buildRequestUrl(mFirstParam, mSecondParam);
+        addPageParams();
+    }
+
+    /**
+     * Construct the {@link InfoRequestData} for the page following the given one
+     */
+    private InfoRequestData(InfoRequestData previousPage, String requestId) {
+        mRequestId = requestId;
+        mType = previousPage.mType;
+        // The following pages are prefetched, so they should be taken from the cache
+        mUseCache = true;
+        mFirstParam = previousPage.mFirstParam;
+        mSecondParam = previousPage.mSecondParam;
+        mOffset = previousPage.mOffset + PAGE_SIZE;
+        if (mFirstParam == null) {
+            mCacheKey = "" + mType;
+            mRequestUrl = buildRequestUrl();
+        } else if (mSecondParam == null) {
+            mCacheKey = mType + "/" + mFirstParam;
+            mRequestUrl = buildRequestUrl(mFirstParam);
+        } else {
+            mCacheKey = mType + "/" + mFirstParam + "/" + mSecondParam;
+            mRequestUrl = buildRequestUrl(mFirstParam, mSecondParam);
+        }
+        addPageParams();
+    }
+
+    /**
+     * @return whether or not the given type of {@link InfoRequestData} is requested page by page
+     */
+    public static boolean isPaginated(int type) {
+        switch (type) {
+            case INFOREQUESTDATA_TYPE_USERPLAYBACKLOG:
+            case INFOREQUESTDATA_TYPE_USERLOVED:
+            case INFOREQUESTDATA_TYPE_USERFEED:
+            case INFOREQUESTDATA_TYPE_TRACKCHARTS:
+            case INFOREQUESTDATA_TYPE_ARTISTCHARTS:
+            case INFOREQUESTDATA_TYPE_USERTRACKCHARTS:
+            case INFOREQUESTDATA_TYPE_USERARTISTCHARTS:
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return a new {@link InfoRequestData} for the page following this one
+     */
+    public InfoRequestData createNextPage(String requestId) {
+        return new InfoRequestData(this, requestId);
+    }
+
+    /**
+     * Add the current page to the cache key and the request url, if this {@link InfoRequestData}
+     * is paginated
+     */
+    private void addPageParams() {
+        if (isPaginated(mType) && mRequestUrl != null) {
+            mCacheKey += "/" + mOffset;
+            mRequestUrl += "?offset=" + mOffset + "&limit=" + PAGE_SIZE;
+        }
     }
 
     private String prepareString(String in) {
@@ -205,101 +271,87 @@ public class InfoRequestData {
         return artist;
     }
 
-    private HttpGet buildRequestGet() {
-        HttpGet httpGet = null;
+    private String buildRequestUrl() {
+        String url = null;
         switch (mType) {
             case INFOREQUESTDATA_TYPE_TRACKCHARTS:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_TRACK_PATH + "/"
-                                + InfoSystem.HATCHET_CHARTS_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_TRACK_PATH + "/"
+                        + InfoSystem.HATCHET_CHARTS_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_ARTISTCHARTS:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ARTIST_PATH + "/"
-                                + InfoSystem.HATCHET_CHARTS_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ARTIST_PATH + "/"
+                        + InfoSystem.HATCHET_CHARTS_PATH;
                 break;
         }
-        return httpGet;
+        return url;
     }
 
-    private HttpGet buildRequestGet(String firstParam) {
-        HttpGet httpGet = null;
+    private String buildRequestUrl(String firstParam) {
+        String url = null;
         switch (mType) {
             case INFOREQUESTDATA_TYPE_ARTISTALBUMS:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ARTIST_PATH + "/"
-                                + InfoSystem.HATCHET_NAME_PATH + "/" + firstParam + "/"
-                                + InfoSystem.HATCHET_ALBUMS_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ARTIST_PATH + "/"
+                        + InfoSystem.HATCHET_NAME_PATH + "/" + firstParam + "/"
+                        + InfoSystem.HATCHET_ALBUMS_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_ARTISTINFO:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ARTIST_PATH + "/"
-                                + "/" + InfoSystem.HATCHET_NAME_PATH + "/" + firstParam + "/"
-                                + InfoSystem.HATCHET_INFO_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ARTIST_PATH + "/"
+                        + "/" + InfoSystem.HATCHET_NAME_PATH + "/" + firstParam + "/"
+                        + InfoSystem.HATCHET_INFO_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_USERINFO:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_INFO_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_INFO_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_PERSONINFO:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_PERSON_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_INFO_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_PERSON_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_INFO_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_USERPLAYLISTS:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_PLAYLISTS_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_PLAYLISTS_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_USERPLAYBACKLOG:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_PLAYBACKLOG_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_PLAYBACKLOG_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_USERLOVED:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_LOVED_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_LOVED_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_USERFEED:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_FEED_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_FEED_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_USERTRACKCHARTS:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_TRACKS_PATH + "/"
-                                + InfoSystem.HATCHET_CHARTS_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_TRACKS_PATH + "/"
+                        + InfoSystem.HATCHET_CHARTS_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_USERARTISTCHARTS:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_ARTISTS_PATH + "/"
-                                + InfoSystem.HATCHET_CHARTS_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_ARTISTS_PATH + "/"
+                        + InfoSystem.HATCHET_CHARTS_PATH;
                 break;
         }
-        return httpGet;
+        return url;
     }
 
-    private HttpGet buildRequestGet(String firstParam, String secondParam) {
-        HttpGet httpGet = null;
+    private String buildRequestUrl(String firstParam, String secondParam) {
+        String url = null;
         switch (mType) {
             case INFOREQUESTDATA_TYPE_ALBUMINFO:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ALBUM_PATH + "/"
-                                + "/" + InfoSystem.HATCHET_NAME_PATH + "/" + firstParam + "/"
-                                + secondParam + "/" + InfoSystem.HATCHET_INFO_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_ALBUM_PATH + "/"
+                        + "/" + InfoSystem.HATCHET_NAME_PATH + "/" + firstParam + "/"
+                        + secondParam + "/" + InfoSystem.HATCHET_INFO_PATH;
                 break;
             case INFOREQUESTDATA_TYPE_PLAYLISTINFO:
-                httpGet = new HttpGet(
-                        InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
-                                + firstParam + "/" + InfoSystem.HATCHET_PLAYLIST_PATH + "/"
-                                + secondParam + "/" + InfoSystem.HATCHET_INFO_PATH);
+                url = InfoSystem.HATCHET_BASE_URL + "/" + InfoSystem.HATCHET_USER_PATH + "/"
+                        + firstParam + "/" + InfoSystem.HATCHET_PLAYLIST_PATH + "/"
+                        + secondParam + "/" + InfoSystem.HATCHET_INFO_PATH;
                 break;
         }
-        return httpGet;
+        return url;
     }
 
     public String getRequestId() {
@@ -322,11 +374,22 @@ public class InfoRequestData {
         return mSecondParam;
     }
 
+    public boolean isPaginated() {
+        return isPaginated(mType);
+    }
+
+    /**
+     * @return the index of the first item on this {@link InfoRequestData}'s page
+     */
+    public int getOffset() {
+        return mOffset;
+    }
+
     public String getCacheKey() {
         return mCacheKey;
     }
 
-    public HttpGet getRequestGet() {
-        return mRequestGet;
+    public String getRequestUrl() {
+        return mRequestUrl;
     }
 }
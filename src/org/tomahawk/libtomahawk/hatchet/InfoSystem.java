@@ -17,27 +17,27 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.StatusLine;
-import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.json.JSONException;
-import org.json.JSONObject;
+import org.tomahawk.libtomahawk.utils.EventBus;
+import org.tomahawk.libtomahawk.utils.NamedThreadFactory;
+import org.tomahawk.libtomahawk.utils.Platform;
+import org.tomahawk.libtomahawk.utils.TomahawkHttpClient;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 
-import android.content.Intent;
-import android.os.AsyncTask;
 import android.util.Log;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
@@ -48,9 +48,6 @@ public class InfoSystem {
 
     public static final String INFOSYSTEM_RESULTSREPORTED = "infosystem_resultsreported";
 
-    public static final String INFOSYSTEM_RESULTSREPORTED_REQUESTID
-            = "infosystem_resultsreported_requestid";
-
     public static final String HATCHET_BASE_URL = "http://api.hatchet.is";
 
     public static final String HATCHET_ARTIST_PATH = "artist";
@@ -87,15 +84,58 @@ public class InfoSystem {
 
     public static final String HATCHET_NAME_PATH = "name";
 
+    private static final int REQUEST_THREAD_COUNT = 4;
+
+    private static final int REQUEST_QUEUE_CAPACITY = 64;
+
+    private static final int REQUEST_TIMEOUT = 10000;
+
+    private static final int MAX_RETRIES = 3;
+
+    private static final long RETRY_BASE_DELAY = 500;
+
+    private static final int MAX_REPORTED_REQUESTS = 32;
+
     TomahawkApp mTomahawkApp;
 
+    // All requests are made in parallel on this executor, so that the requests of a single page
+    // don't have to wait for each other
+    private final ThreadPoolExecutor mRequestExecutor = new ThreadPoolExecutor(
+            REQUEST_THREAD_COUNT, REQUEST_THREAD_COUNT, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<Runnable>(REQUEST_QUEUE_CAPACITY),
+            new NamedThreadFactory("InfoSystem"));
+
+    // requestId -> every InfoRequestData which is going to be reported, but hasn't been yet
     private ConcurrentHashMap<String, InfoRequestData> mRequests
             = new ConcurrentHashMap<String, InfoRequestData>();
 
-    private ConcurrentHashMap<String, Info> mCachedInfos = new ConcurrentHashMap<String, Info>();
+    // requestId -> every reported InfoRequestData, which hasn't been taken by its caller yet. The
+    // eldest ones are dropped, so that results nobody takes (e.g. because the Fragment has been
+    // paused in the meantime) don't pile up together with their Infos.
+    private final LinkedHashMap<String, InfoRequestData> mReportedRequests
+            = new LinkedHashMap<String, InfoRequestData>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, InfoRequestData> eldest) {
+            return size() > MAX_REPORTED_REQUESTS;
+        }
+    };
+
+    private InfoCache mInfoCache;
+
+    // cacheKey -> all InfoRequestDatas waiting for the one request in flight for this cache key.
+    // The first one is the InfoRequestData the request has been made for.
+    private final HashMap<String, ArrayList<InfoRequestData>> mInFlightRequests
+            = new HashMap<String, ArrayList<InfoRequestData>>();
+
+    // cacheKey -> all InfoRequestDatas which couldn't wait for the request in flight for this
+    // cache key, because they don't agree on whether or not to use the cache. They are started
+    // once that request has finished.
+    private final HashMap<String, ArrayList<InfoRequestData>> mDeferredRequests
+            = new HashMap<String, ArrayList<InfoRequestData>>();
 
     public InfoSystem(TomahawkApp tomahawkApp) {
         mTomahawkApp = tomahawkApp;
+        mInfoCache = new InfoCache(new File(tomahawkApp.getCacheDir(), "hatchet"));
     }
 
     public String resolve(int type, boolean useCache) {
@@ -118,177 +158,350 @@ public class InfoSystem {
             infoRequestData = new InfoRequestData(mTomahawkApp, requestId, type, useCache,
                     secondParam);
         }
-        mRequests.put(infoRequestData.getRequestId(), infoRequestData);
-        new JSONResponseTask().execute(infoRequestData);
+        enqueue(infoRequestData, true);
         return infoRequestData.getRequestId();
     }
 
     public void resolve(InfoRequestData infoRequestData) {
-        mRequests.put(infoRequestData.getRequestId(), infoRequestData);
-        new JSONResponseTask().execute(infoRequestData);
+        enqueue(infoRequestData, true);
     }
 
-    public InfoRequestData getInfoRequestById(String requestId) {
-        return mRequests.get(requestId);
+    /**
+     * Request the page following the one of the given reported {@link InfoRequestData}. Every
+     * page is reported on its own, so that lists can be filled progressively while the user is
+     * scrolling. The page has usually been prefetched already, once the previous one arrived.
+     *
+     * @return the id of the new {@link InfoRequestData}, or null if there is no following page
+     */
+    public String resolveNextPage(InfoRequestData infoRequestData) {
+        if (!hasNextPage(infoRequestData, infoRequestData.mResult)) {
+            return null;
+        }
+        InfoRequestData nextPage = infoRequestData
+                .createNextPage(TomahawkApp.getUniqueStringId());
+        enqueue(nextPage, true);
+        return nextPage.getRequestId();
     }
 
-    private class JSONResponseTask extends AsyncTask<InfoRequestData, Void, ArrayList<String>> {
+    /**
+     * @return whether or not there might be another page following the given {@link
+     * InfoRequestData}'s page, which has resulted in the given {@link Info}
+     */
+    private static boolean hasNextPage(InfoRequestData infoRequestData, Info info) {
+        return infoRequestData.isPaginated() && info instanceof PaginatedInfo
+                && ((PaginatedInfo) info).getItemCount() >= InfoRequestData.PAGE_SIZE;
+    }
 
-        @Override
-        protected ArrayList<String> doInBackground(InfoRequestData... infoRequestDatas) {
-            ArrayList<String> doneRequestsIds = new ArrayList<String>();
-            HttpClient httpClient = new DefaultHttpClient();
-            StringBuilder builder = new StringBuilder();
-            try {
-                for (InfoRequestData infoRequestData : infoRequestDatas) {
-                    long start = System.currentTimeMillis();
-                    if (infoRequestData.isUseCache() && mCachedInfos
-                            .containsKey(infoRequestData.getCacheKey())) {
-                        infoRequestData.mResult = mCachedInfos.get(infoRequestData.getCacheKey());
-                        doneRequestsIds.add(infoRequestData.getRequestId());
-                    } else {
-                        HttpGet httpGet = infoRequestData.getRequestGet();
-                        HttpResponse httpResponse = httpClient.execute(httpGet);
-                        StatusLine statusLine = httpResponse.getStatusLine();
-                        if (statusLine.getStatusCode() == 200) {
-                            HttpEntity httpEntity = httpResponse.getEntity();
-                            InputStream content = httpEntity.getContent();
-                            BufferedReader bufferedReader = new BufferedReader(
-                                    new InputStreamReader(content));
-                            String line;
-                            while ((line = bufferedReader.readLine()) != null) {
-                                builder.append(line);
-                            }
-                            JSONObject rawInfo = new JSONObject(builder.toString());
-                            switch (infoRequestData.getType()) {
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_ALBUMINFO:
-                                    infoRequestData.mResult = new AlbumInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTALBUMS:
-                                    infoRequestData.mResult = new AlbumsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTINFO:
-                                    infoRequestData.mResult = new ArtistInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_USERINFO:
-                                    infoRequestData.mResult = new UserInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_PERSONINFO:
-                                    infoRequestData.mResult = new PersonInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_PLAYLISTINFO:
-                                    infoRequestData.mResult = new PlaylistInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_USERPLAYLISTS:
-                                    infoRequestData.mResult = new PlaylistsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_USERPLAYBACKLOG:
-                                    infoRequestData.mResult = new TrackActionItemsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_USERLOVED:
-                                    infoRequestData.mResult = new TrackActionItemsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_USERFEED:
-
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_TRACKCHARTS:
-                                    infoRequestData.mResult = new TrackChartItemsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTCHARTS:
-                                    infoRequestData.mResult = new ArtistChartItemsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_USERTRACKCHARTS:
-                                    infoRequestData.mResult = new TrackChartItemsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                                case InfoRequestData.INFOREQUESTDATA_TYPE_USERARTISTCHARTS:
-                                    infoRequestData.mResult = new ArtistChartItemsInfo();
-                                    infoRequestData.mResult.parseInfo(rawInfo);
-                                    mCachedInfos.put(infoRequestData.getCacheKey(),
-                                            infoRequestData.mResult);
-                                    doneRequestsIds.add(infoRequestData.getRequestId());
-                                    break;
-                            }
-                        } else {
-                            Log.e(TAG,
-                                    "JSONResponseTask Failed to download: StatusCode='" + statusLine
-                                            .getStatusCode() + "', URI='" + httpGet.getURI()
-                                            .toString() + "'");
-                        }
+    /**
+     * Take the reported {@link InfoRequestData} with the given id. The {@link InfoSystem} forgets
+     * about it afterwards, so this can only be done once, by the caller which has made the
+     * request.
+     *
+     * @return the {@link InfoRequestData}, or null if it hasn't been reported (or has already been
+     * taken or dropped)
+     */
+    public InfoRequestData takeInfoRequestById(String requestId) {
+        synchronized (mReportedRequests) {
+            return mReportedRequests.remove(requestId);
+        }
+    }
+
+    /**
+     * Start answering the given {@link InfoRequestData}. If an {@link InfoRequestData} with the
+     * same cache key and the same useCache flag is already in flight, the given one simply waits
+     * for its result instead of making a request of its own. If the useCache flags differ, the
+     * given one is started as soon as the request in flight has finished.
+     *
+     * @param report whether or not to report the result. Prefetched pages aren't reported, they
+     *               only fill the {@link InfoCache}.
+     */
+    private void enqueue(InfoRequestData infoRequestData, boolean report) {
+        if (report) {
+            mRequests.put(infoRequestData.getRequestId(), infoRequestData);
+        }
+        synchronized (mInFlightRequests) {
+            ArrayList<InfoRequestData> waiting =
+                    mInFlightRequests.get(infoRequestData.getCacheKey());
+            if (waiting != null) {
+                if (waiting.get(0).isUseCache() == infoRequestData.isUseCache()) {
+                    waiting.add(infoRequestData);
+                    Log.d(TAG, "enqueue: coalesced request for " + infoRequestData.getCacheKey());
+                } else {
+                    ArrayList<InfoRequestData> deferred =
+                            mDeferredRequests.get(infoRequestData.getCacheKey());
+                    if (deferred == null) {
+                        deferred = new ArrayList<InfoRequestData>();
+                        mDeferredRequests.put(infoRequestData.getCacheKey(), deferred);
                     }
-                    Log.d(TAG, "doInBackground(...) took " + (System.currentTimeMillis() - start)
-                            + "ms to finish, useCache = " + infoRequestData.isUseCache());
+                    deferred.add(infoRequestData);
+                    Log.d(TAG, "enqueue: deferred request for " + infoRequestData.getCacheKey());
                 }
-            } catch (ClientProtocolException e) {
-                Log.e(TAG, "JSONResponseTask: " + e.getClass() + ": " + e.getLocalizedMessage());
-            } catch (IOException e) {
-                Log.e(TAG, "JSONResponseTask: " + e.getClass() + ": " + e.getLocalizedMessage());
-            } catch (JSONException e) {
-                Log.e(TAG, "JSONResponseTask: " + e.getClass() + ": " + e.getLocalizedMessage());
+                return;
+            }
+            waiting = new ArrayList<InfoRequestData>();
+            waiting.add(infoRequestData);
+            mInFlightRequests.put(infoRequestData.getCacheKey(), waiting);
+        }
+        execute(new InfoRequestTask(infoRequestData, 0));
+    }
+
+    private void execute(InfoRequestTask task) {
+        try {
+            mRequestExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "execute: " + e.getClass() + ": " + e.getLocalizedMessage());
+            onRequestFinished(task.mInfoRequestData, null);
+        }
+    }
+
+    /**
+     * Called once the request for the given {@link InfoRequestData} has finished. Hands the
+     * resulting {@link Info} to every {@link InfoRequestData} with the same cache key, that has
+     * been waiting for it, and reports each of them. Reported ones are kept until their caller
+     * takes them. If one of them has been reported and there is a following page, that page is
+     * prefetched. All deferred {@link InfoRequestData}s with the same cache key are started as
+     * well.
+     *
+     * @param info the resulting {@link Info}, or null if the request has failed
+     */
+    private void onRequestFinished(InfoRequestData infoRequestData, Info info) {
+        ArrayList<InfoRequestData> waiting;
+        ArrayList<InfoRequestData> deferred;
+        synchronized (mInFlightRequests) {
+            waiting = mInFlightRequests.remove(infoRequestData.getCacheKey());
+            deferred = mDeferredRequests.remove(infoRequestData.getCacheKey());
+        }
+        if (deferred != null) {
+            for (InfoRequestData deferredRequestData : deferred) {
+                // Already registered in mRequests, if it is going to be reported
+                enqueue(deferredRequestData, false);
+            }
+        }
+        if (waiting == null) {
+            return;
+        }
+        if (info == null) {
+            // Nothing is going to be reported, so forget about the failed requests
+            for (InfoRequestData waitingRequestData : waiting) {
+                mRequests.remove(waitingRequestData.getRequestId());
             }
-            return doneRequestsIds;
+            return;
+        }
+        boolean reported = false;
+        for (InfoRequestData waitingRequestData : waiting) {
+            waitingRequestData.mResult = info;
+            if (mRequests.remove(waitingRequestData.getRequestId()) != null) {
+                synchronized (mReportedRequests) {
+                    mReportedRequests.put(waitingRequestData.getRequestId(), waitingRequestData);
+                }
+                postReportResultsEvent(waitingRequestData.getRequestId());
+                reported = true;
+            }
+        }
+        if (reported && hasNextPage(infoRequestData, info)) {
+            enqueue(infoRequestData.createNextPage(TomahawkApp.getUniqueStringId()), false);
+        }
+    }
+
+    /**
+     * Answers a single {@link InfoRequestData}, either from the {@link InfoCache} or by making a
+     * request through the shared {@link TomahawkHttpClient}. Requests which failed because of a
+     * network error or a server error are retried with an exponentially growing delay. Expired
+     * responses are revalidated with the server through their ETag or Last-Modified value, so that
+     * an unchanged response only costs a "304 Not Modified". If the request still fails and the
+     * {@link InfoRequestData} allows it, the expired response from the {@link InfoCache} is used
+     * instead.
+     */
+    private class InfoRequestTask implements Runnable {
+
+        private InfoRequestData mInfoRequestData;
+
+        private int mAttempt;
+
+        private boolean mRetryScheduled;
+
+        private InfoCache.RawResponse mStoredResponse;
+
+        public InfoRequestTask(InfoRequestData infoRequestData, int attempt) {
+            mInfoRequestData = infoRequestData;
+            mAttempt = attempt;
         }
 
         @Override
-        protected void onPostExecute(ArrayList<String> doneRequestsIds) {
-            for (String doneRequestId : doneRequestsIds) {
-                sendReportResultsBroadcast(doneRequestId);
+        public void run() {
+            long start = System.currentTimeMillis();
+            Info info = null;
+            if (mInfoRequestData.isUseCache() && mAttempt == 0) {
+                info = mInfoCache.get(mInfoRequestData);
             }
+            if (info == null) {
+                // The stored response is either used right away or, if it has expired, provides
+                // the validators to revalidate it with the server
+                InfoCache.RawResponse cachedResponse = mInfoCache.getRaw(mInfoRequestData, true);
+                if (mInfoRequestData.isUseCache() && mAttempt == 0 && cachedResponse != null
+                        && !cachedResponse.isExpired()) {
+                    info = parseResult(cachedResponse);
+                }
+                if (info == null) {
+                    info = fetchResult(cachedResponse);
+                }
+                if (mRetryScheduled) {
+                    return;
+                }
+            }
+            Log.d(TAG, "InfoRequestTask took " + (System.currentTimeMillis() - start)
+                    + "ms to finish, attempt = " + mAttempt);
+            onRequestFinished(mInfoRequestData, info);
+        }
+
+        /**
+         * Request the {@link Info} from the server
+         *
+         * @param cachedResponse the stored response, whose validators are sent along so that the
+         *                       server can tell us that it is still up to date. Can be null.
+         * @return the resulting {@link Info}, or null if the request has failed or is going to be
+         * retried
+         */
+        private Info fetchResult(InfoCache.RawResponse cachedResponse) {
+            Map<String, String> headers = new HashMap<String, String>();
+            if (cachedResponse != null) {
+                if (cachedResponse.eTag != null) {
+                    headers.put("If-None-Match", cachedResponse.eTag);
+                }
+                if (cachedResponse.lastModified != null) {
+                    headers.put("If-Modified-Since", cachedResponse.lastModified);
+                }
+            }
+            // A successful response is streamed straight into the InfoCache and parsed from there
+            mStoredResponse = null;
+            TomahawkHttpClient.BodyHandler bodyHandler = new TomahawkHttpClient.BodyHandler() {
+                @Override
+                public void onBody(TomahawkHttpClient.Response response, InputStream body)
+                        throws IOException {
+                    if (response.isSuccessful()) {
+                        mStoredResponse = mInfoCache.putRaw(mInfoRequestData,
+                                response.getHeader("ETag"), response.getHeader("Last-Modified"),
+                                body);
+                    }
+                }
+            };
+            TomahawkHttpClient.Response response = TomahawkHttpClient.getInstance()
+                    .execute("GET", mInfoRequestData.getRequestUrl(), headers, null,
+                            REQUEST_TIMEOUT, bodyHandler);
+            if (response.status == HttpURLConnection.HTTP_NOT_MODIFIED && cachedResponse != null) {
+                Info info = parseResult(cachedResponse);
+                if (info == null) {
+                    // The stored response has been evicted or was broken, so request it in full
+                    return fetchResult(null);
+                }
+                mInfoCache.touchRaw(mInfoRequestData);
+                return info;
+            } else if (response.isSuccessful() && mStoredResponse != null) {
+                return parseResult(mStoredResponse);
+            } else if ((response.status == 0 || response.status >= 500)
+                    && mAttempt < MAX_RETRIES) {
+                long delay = RETRY_BASE_DELAY << mAttempt;
+                Log.d(TAG, "InfoRequestTask: retrying in " + delay + "ms, StatusCode='"
+                        + response.status + "', URI='" + mInfoRequestData.getRequestUrl() + "'");
+                Platform.getInstance().postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        execute(new InfoRequestTask(mInfoRequestData, mAttempt + 1));
+                    }
+                }, delay);
+                mRetryScheduled = true;
+                return null;
+            }
+            Log.e(TAG, "InfoRequestTask Failed to download: StatusCode='" + response.status
+                    + "', URI='" + mInfoRequestData.getRequestUrl() + "'");
+            if (mInfoRequestData.isUseCache() && cachedResponse != null) {
+                return parseResult(cachedResponse);
+            }
+            return null;
+        }
+
+        /**
+         * Parse the given raw response and store the resulting {@link Info} in the {@link
+         * InfoCache}. A raw response which can't be parsed is removed from the {@link InfoCache}.
+         *
+         * @return the resulting {@link Info}, or null if the raw response couldn't be parsed
+         */
+        private Info parseResult(InfoCache.RawResponse rawResponse) {
+            Info info = createInfo(mInfoRequestData.getType());
+            if (info == null) {
+                return null;
+            }
+            InputStream in = null;
+            try {
+                in = rawResponse.openBody();
+                InfoParser.parse(info, in);
+            } catch (IOException e) {
+                Log.e(TAG, "parseResult: " + e.getClass() + ": " + e.getLocalizedMessage());
+                info = null;
+            } catch (IllegalStateException e) {
+                // Thrown by the JsonReader, if the response isn't structured as expected
+                Log.e(TAG, "parseResult: " + e.getClass() + ": " + e.getLocalizedMessage());
+                info = null;
+            } catch (NumberFormatException e) {
+                // Thrown by the JsonReader, if a number is expected but something else is found
+                Log.e(TAG, "parseResult: " + e.getClass() + ": " + e.getLocalizedMessage());
+                info = null;
+            } finally {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException e) {
+                        // Nothing we could do about it
+                    }
+                }
+            }
+            if (info == null) {
+                mInfoCache.removeRaw(mInfoRequestData);
+                return null;
+            }
+            mInfoCache.put(mInfoRequestData, info);
+            return info;
+        }
+    }
+
+    /**
+     * @return a new, empty {@link Info} for the given INFOREQUESTDATA_TYPE_*, or null if the type
+     * is unknown
+     */
+    private static Info createInfo(int type) {
+        switch (type) {
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ALBUMINFO:
+                return new AlbumInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTALBUMS:
+                return new AlbumsInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTINFO:
+                return new ArtistInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERINFO:
+                return new UserInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_PERSONINFO:
+                return new PersonInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_PLAYLISTINFO:
+                return new PlaylistInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERPLAYLISTS:
+                return new PlaylistsInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERPLAYBACKLOG:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERLOVED:
+                return new TrackActionItemsInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERFEED:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_TRACKCHARTS:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERTRACKCHARTS:
+                return new TrackChartItemsInfo();
+            case InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTCHARTS:
+            case InfoRequestData.INFOREQUESTDATA_TYPE_USERARTISTCHARTS:
+                return new ArtistChartItemsInfo();
         }
+        return null;
     }
 
     /**
-     * Send a broadcast containing the id of the resolved inforequest.
+     * Post an event containing the id of the resolved inforequest.
      */
-    private void sendReportResultsBroadcast(String requestId) {
-        Intent reportIntent = new Intent(INFOSYSTEM_RESULTSREPORTED);
-        reportIntent.putExtra(INFOSYSTEM_RESULTSREPORTED_REQUESTID, requestId);
-        mTomahawkApp.sendBroadcast(reportIntent);
+    private void postReportResultsEvent(String requestId) {
+        EventBus.getInstance().post(INFOSYSTEM_RESULTSREPORTED, requestId);
     }
 }
@@ -17,10 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
@@ -38,19 +38,23 @@ public class MembershipInfo implements Info {
     private TimeSpanInfo mTimeSpan;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(MEMBERSHIPINFO_KEY_ARTIST)) {
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (MEMBERSHIPINFO_KEY_ARTIST.equals(name)) {
                 mArtist = new ArtistInfo();
-                mArtist.parseInfo(rawInfo.getJSONObject(MEMBERSHIPINFO_KEY_ARTIST));
-            }
-            if (!rawInfo.isNull(MEMBERSHIPINFO_KEY_TIMESPAN)) {
+                mArtist.parseInfo(reader);
+            } else if (MEMBERSHIPINFO_KEY_TIMESPAN.equals(name)) {
                 mTimeSpan = new TimeSpanInfo();
-                mTimeSpan.parseInfo(rawInfo.getJSONObject(MEMBERSHIPINFO_KEY_TIMESPAN));
+                mTimeSpan.parseInfo(reader);
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public TimeSpanInfo getTimeSpan() {
@@ -17,12 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -67,52 +65,48 @@ public class PersonInfo implements Info {
     private String mUrl;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(PERSONINFO_KEY_DISAMBIGUATION)) {
-                mDisambiguation = rawInfo.getString(PERSONINFO_KEY_DISAMBIGUATION);
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_ID)) {
-                mId = rawInfo.getString(PERSONINFO_KEY_ID);
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_IMAGES)) {
-                JSONArray rawImageInfos = rawInfo.getJSONArray(PERSONINFO_KEY_IMAGES);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (PERSONINFO_KEY_DISAMBIGUATION.equals(name)) {
+                mDisambiguation = reader.nextString();
+            } else if (PERSONINFO_KEY_ID.equals(name)) {
+                mId = reader.nextString();
+            } else if (PERSONINFO_KEY_IMAGES.equals(name)) {
                 mImages = new ArrayList<ImageInfo>();
-                for (int i = 0; i < rawImageInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     ImageInfo imageInfo = new ImageInfo();
-                    imageInfo.parseInfo(rawImageInfos.getJSONObject(i));
+                    imageInfo.parseInfo(reader);
                     mImages.add(imageInfo);
                 }
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_LIFESPAN)) {
+                reader.endArray();
+            } else if (PERSONINFO_KEY_LIFESPAN.equals(name)) {
                 mTimeSpan = new TimeSpanInfo();
-                mTimeSpan.parseInfo(rawInfo.getJSONObject(PERSONINFO_KEY_LIFESPAN));
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_MEMBERSHIPS)) {
-                JSONArray rawMembershipInfos = rawInfo.getJSONArray(PERSONINFO_KEY_MEMBERSHIPS);
+                mTimeSpan.parseInfo(reader);
+            } else if (PERSONINFO_KEY_MEMBERSHIPS.equals(name)) {
                 mMemberships = new ArrayList<MembershipInfo>();
-                for (int i = 0; i < rawMembershipInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     MembershipInfo membershipInfo = new MembershipInfo();
-                    membershipInfo.parseInfo(rawMembershipInfos.getJSONObject(i));
+                    membershipInfo.parseInfo(reader);
                     mMemberships.add(membershipInfo);
                 }
+                reader.endArray();
+            } else if (PERSONINFO_KEY_NAME.equals(name)) {
+                mName = reader.nextString();
+            } else if (PERSONINFO_KEY_NAMES.equals(name)) {
+                mNames = InfoParser.readStrings(reader);
+            } else if (PERSONINFO_KEY_URL.equals(name)) {
+                mUrl = reader.nextString();
+            } else {
+                reader.skipValue();
             }
-            if (!rawInfo.isNull(PERSONINFO_KEY_NAME)) {
-                mName = rawInfo.getString(PERSONINFO_KEY_NAME);
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_NAMES)) {
-                JSONArray rawNameInfos = rawInfo.getJSONArray(PERSONINFO_KEY_NAMES);
-                mNames = new ArrayList<String>();
-                for (int i = 0; i < rawNameInfos.length(); i++) {
-                    mNames.add(rawNameInfos.getString(i));
-                }
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_URL)) {
-                mUrl = rawInfo.getString(PERSONINFO_KEY_URL);
-            }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public String getDisambiguation() {
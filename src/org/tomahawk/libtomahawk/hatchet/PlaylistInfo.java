@@ -17,13 +17,12 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.tomahawk.libtomahawk.utils.TomahawkUtils;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import org.tomahawk.libtomahawk.utils.TomahawkUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 
@@ -61,35 +60,34 @@ public class PlaylistInfo implements Info {
     private String mTitle;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(PLAYLISTINFO_KEY_CREATED)) {
-                mCreated = TomahawkUtils.stringToDate(rawInfo.getString(PLAYLISTINFO_KEY_CREATED));
-            }
-            if (!rawInfo.isNull(PLAYLISTINFO_KEY_CURRENTREVISION)) {
-                mCurrentRevision = rawInfo.getString(PLAYLISTINFO_KEY_CURRENTREVISION);
-            }
-            if (!rawInfo.isNull(PLAYLISTINFO_KEY_ENTRIES)) {
-                JSONArray rawEntryInfos = rawInfo.getJSONArray(PLAYLISTINFO_KEY_ENTRIES);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (PLAYLISTINFO_KEY_CREATED.equals(name)) {
+                mCreated = TomahawkUtils.stringToDate(reader.nextString());
+            } else if (PLAYLISTINFO_KEY_CURRENTREVISION.equals(name)) {
+                mCurrentRevision = reader.nextString();
+            } else if (PLAYLISTINFO_KEY_ENTRIES.equals(name)) {
                 mEntries = new ArrayList<EntryInfo>();
-                for (int i = 0; i < rawEntryInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     EntryInfo entryInfo = new EntryInfo();
-                    entryInfo.parseInfo(rawEntryInfos.getJSONObject(i));
+                    entryInfo.parseInfo(reader);
                     mEntries.add(entryInfo);
                 }
+                reader.endArray();
+            } else if (PLAYLISTINFO_KEY_ID.equals(name)) {
+                mId = reader.nextString();
+            } else if (PLAYLISTINFO_KEY_TITLE.equals(name)) {
+                mTitle = reader.nextString();
+            } else {
+                reader.skipValue();
             }
-            if (!rawInfo.isNull(PLAYLISTINFO_KEY_ID)) {
-                mId = rawInfo.getString(PLAYLISTINFO_KEY_ID);
-            }
-            if (!rawInfo.isNull(PLAYLISTINFO_KEY_REVISIONS)) {
-
-            }
-            if (!rawInfo.isNull(PLAYLISTINFO_KEY_TITLE)) {
-                mTitle = rawInfo.getString(PLAYLISTINFO_KEY_TITLE);
-            }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public Date getCreated() {
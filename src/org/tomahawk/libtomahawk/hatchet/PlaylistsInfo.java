@@ -17,12 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -37,20 +35,24 @@ public class PlaylistsInfo implements Info {
     private ArrayList<PlaylistInfo> mPlaylists;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(PLAYLISTINFO_KEY_PLAYLISTS)) {
-                JSONArray rawRevisionInfos = rawInfo.getJSONArray(PLAYLISTINFO_KEY_PLAYLISTS);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (PLAYLISTINFO_KEY_PLAYLISTS.equals(name) && reader.peek() != JsonToken.NULL) {
                 mPlaylists = new ArrayList<PlaylistInfo>();
-                for (int i = 0; i < rawRevisionInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     PlaylistInfo playlistInfo = new PlaylistInfo();
-                    playlistInfo.parseInfo(rawRevisionInfos.getJSONObject(i));
+                    playlistInfo.parseInfo(reader);
                     mPlaylists.add(playlistInfo);
                 }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public ArrayList<PlaylistInfo> getPlaylists() {
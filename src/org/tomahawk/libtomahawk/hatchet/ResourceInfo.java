@@ -17,10 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
@@ -38,17 +38,21 @@ public class ResourceInfo implements Info {
     private String mUrl;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(RESOURCEINFO_KEY_TYPE)) {
-                mType = rawInfo.getString(RESOURCEINFO_KEY_TYPE);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (RESOURCEINFO_KEY_TYPE.equals(name)) {
+                mType = reader.nextString();
+            } else if (RESOURCEINFO_KEY_URL.equals(name)) {
+                mUrl = reader.nextString();
+            } else {
+                reader.skipValue();
             }
-            if (!rawInfo.isNull(RESOURCEINFO_KEY_URL)) {
-                mUrl = rawInfo.getString(RESOURCEINFO_KEY_URL);
-            }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public String getType() {
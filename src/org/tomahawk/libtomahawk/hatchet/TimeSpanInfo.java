@@ -17,12 +17,12 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.tomahawk.libtomahawk.utils.TomahawkUtils;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import org.tomahawk.libtomahawk.utils.TomahawkUtils;
 
+import java.io.IOException;
 import java.util.Date;
 
 /**
@@ -41,18 +41,21 @@ public class TimeSpanInfo implements Info {
     private Date mEndsAt;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(TIMESPANINFO_KEY_STARTSAT)) {
-                mStartsAt = TomahawkUtils
-                        .stringToDate(rawInfo.getString(TIMESPANINFO_KEY_STARTSAT));
-            }
-            if (!rawInfo.isNull(TIMESPANINFO_KEY_ENDSAT)) {
-                mEndsAt = TomahawkUtils.stringToDate(rawInfo.getString(TIMESPANINFO_KEY_ENDSAT));
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (TIMESPANINFO_KEY_STARTSAT.equals(name)) {
+                mStartsAt = TomahawkUtils.stringToDate(reader.nextString());
+            } else if (TIMESPANINFO_KEY_ENDSAT.equals(name)) {
+                mEndsAt = TomahawkUtils.stringToDate(reader.nextString());
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public Date getStartsAt() {
@@ -17,12 +17,12 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.tomahawk.libtomahawk.utils.TomahawkUtils;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import org.tomahawk.libtomahawk.utils.TomahawkUtils;
 
+import java.io.IOException;
 import java.util.Date;
 
 /**
@@ -45,20 +45,22 @@ public class TrackActionItemInfo implements Info {
     private TrackInfo mTrack;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(TRACKACTIONITEMINFO_KEY_TIMESTAMP)) {
-                mTimeStamp = TomahawkUtils
-                        .stringToDate(rawInfo.getString(TRACKACTIONITEMINFO_KEY_TIMESTAMP));
-            }
-            if (!rawInfo.isNull(TRACKACTIONITEMINFO_KEY_TRACK)) {
-                JSONObject rawTrackInfo = rawInfo.getJSONObject(TRACKACTIONITEMINFO_KEY_TRACK);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (TRACKACTIONITEMINFO_KEY_TIMESTAMP.equals(name)) {
+                mTimeStamp = TomahawkUtils.stringToDate(reader.nextString());
+            } else if (TRACKACTIONITEMINFO_KEY_TRACK.equals(name)) {
                 mTrack = new TrackInfo();
-                mTrack.parseInfo(rawTrackInfo);
+                mTrack.parseInfo(reader);
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public Date getTimeStamp() {
@@ -17,18 +17,16 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 04.05.13
  */
-public class TrackActionItemsInfo implements Info {
+public class TrackActionItemsInfo implements Info, PaginatedInfo {
 
     private final static String TAG = TrackActionItemsInfo.class.getName();
 
@@ -39,29 +37,34 @@ public class TrackActionItemsInfo implements Info {
     private ArrayList<TrackActionItemInfo> mTrackActionItems;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            JSONArray rawTrackActionItemInfos = null;
-            if (!rawInfo.isNull(TRACKACTIONITEMINFO_KEY_PLAYBACKLOGS)) {
-                rawTrackActionItemInfos = rawInfo
-                        .getJSONArray(TRACKACTIONITEMINFO_KEY_PLAYBACKLOGS);
-            } else if (!rawInfo.isNull(TRACKACTIONITEMINFO_KEY_LOVES)) {
-                rawTrackActionItemInfos = rawInfo.getJSONArray(TRACKACTIONITEMINFO_KEY_LOVES);
-            }
-            if (rawTrackActionItemInfos != null) {
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ((TRACKACTIONITEMINFO_KEY_PLAYBACKLOGS.equals(name)
+                    || TRACKACTIONITEMINFO_KEY_LOVES.equals(name))
+                    && reader.peek() != JsonToken.NULL) {
                 mTrackActionItems = new ArrayList<TrackActionItemInfo>();
-                for (int i = 0; i < rawTrackActionItemInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     TrackActionItemInfo trackActionItemInfo = new TrackActionItemInfo();
-                    trackActionItemInfo.parseInfo(rawTrackActionItemInfos.getJSONObject(i));
+                    trackActionItemInfo.parseInfo(reader);
                     mTrackActionItems.add(trackActionItemInfo);
                 }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public ArrayList<TrackActionItemInfo> getTrackActionItems() {
         return mTrackActionItems;
     }
+
+    @Override
+    public int getItemCount() {
+        return mTrackActionItems == null ? 0 : mTrackActionItems.size();
+    }
 }
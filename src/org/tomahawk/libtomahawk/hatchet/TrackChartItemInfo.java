@@ -17,10 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
@@ -40,19 +40,22 @@ public class TrackChartItemInfo implements Info {
     private TrackInfo mTrack;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(TRACKCHARTITEMINFO_KEY_PLAYS)) {
-                mPlays = rawInfo.getInt(TRACKCHARTITEMINFO_KEY_PLAYS);
-            }
-            if (!rawInfo.isNull(TRACKCHARTITEMINFO_KEY_TRACK)) {
-                JSONObject rawTrackInfo = rawInfo.getJSONObject(TRACKCHARTITEMINFO_KEY_TRACK);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (TRACKCHARTITEMINFO_KEY_PLAYS.equals(name)) {
+                mPlays = reader.nextInt();
+            } else if (TRACKCHARTITEMINFO_KEY_TRACK.equals(name)) {
                 mTrack = new TrackInfo();
-                mTrack.parseInfo(rawTrackInfo);
+                mTrack.parseInfo(reader);
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public int getPlays() {
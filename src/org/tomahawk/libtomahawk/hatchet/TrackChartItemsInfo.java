@@ -17,18 +17,16 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
  */
-public class TrackChartItemsInfo implements Info {
+public class TrackChartItemsInfo implements Info, PaginatedInfo {
 
     private final static String TAG = TrackChartItemsInfo.class.getName();
 
@@ -37,25 +35,33 @@ public class TrackChartItemsInfo implements Info {
     private ArrayList<TrackChartItemInfo> mTrackChartItems;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(TRACKCHARTITEMINFO_KEY_TRACKCHARTITEMS)) {
-                JSONArray rawTrackChartItemInfos = rawInfo
-                        .getJSONArray(TRACKCHARTITEMINFO_KEY_TRACKCHARTITEMS);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (TRACKCHARTITEMINFO_KEY_TRACKCHARTITEMS.equals(name)
+                    && reader.peek() != JsonToken.NULL) {
                 mTrackChartItems = new ArrayList<TrackChartItemInfo>();
-                for (int i = 0; i < rawTrackChartItemInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     TrackChartItemInfo trackChartItemInfo = new TrackChartItemInfo();
-                    trackChartItemInfo.parseInfo(rawTrackChartItemInfos.getJSONObject(i));
+                    trackChartItemInfo.parseInfo(reader);
                     mTrackChartItems.add(trackChartItemInfo);
                 }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public ArrayList<TrackChartItemInfo> getTrackChartItems() {
         return mTrackChartItems;
     }
 
+    @Override
+    public int getItemCount() {
+        return mTrackChartItems == null ? 0 : mTrackChartItems.size();
+    }
 }
@@ -17,10 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import android.util.Log;
+import java.io.IOException;
 
 /**
  * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 20.04.13
@@ -46,25 +46,26 @@ public class TrackInfo implements Info {
     private String mUrl;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(TRACKINFO_KEY_ARTIST)) {
-                JSONObject rawArtistInfo = rawInfo.getJSONObject(TRACKINFO_KEY_ARTIST);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (TRACKINFO_KEY_ARTIST.equals(name)) {
                 mArtist = new ArtistInfo();
-                mArtist.parseInfo(rawArtistInfo);
+                mArtist.parseInfo(reader);
+            } else if (TRACKINFO_KEY_ID.equals(name)) {
+                mId = reader.nextString();
+            } else if (TRACKINFO_KEY_NAME.equals(name)) {
+                mName = reader.nextString();
+            } else if (TRACKINFO_KEY_URL.equals(name)) {
+                mUrl = reader.nextString();
+            } else {
+                reader.skipValue();
             }
-            if (!rawInfo.isNull(TRACKINFO_KEY_ID)) {
-                mId = rawInfo.getString(TRACKINFO_KEY_ID);
-            }
-            if (!rawInfo.isNull(TRACKINFO_KEY_NAME)) {
-                mName = rawInfo.getString(TRACKINFO_KEY_NAME);
-            }
-            if (!rawInfo.isNull(TRACKINFO_KEY_URL)) {
-                mUrl = rawInfo.getString(TRACKINFO_KEY_URL);
-            }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public ArtistInfo getArtist() {
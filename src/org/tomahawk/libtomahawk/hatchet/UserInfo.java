@@ -17,12 +17,10 @@
  */
 package org.tomahawk.libtomahawk.hatchet;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -49,30 +47,32 @@ public class UserInfo implements Info {
     private ArrayList<UserInfo> mFollows;
 
     @Override
-    public void parseInfo(JSONObject rawInfo) {
-        try {
-            if (!rawInfo.isNull(PERSONINFO_KEY_ID)) {
-                mId = rawInfo.getString(PERSONINFO_KEY_ID);
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_NAME)) {
-                mName = rawInfo.getString(PERSONINFO_KEY_NAME);
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_URL)) {
-                mUrl = rawInfo.getString(PERSONINFO_KEY_URL);
-            }
-            if (!rawInfo.isNull(PERSONINFO_KEY_FOLLOWS)) {
-                JSONArray rawFollowsInfos = rawInfo
-                        .getJSONArray(PlaylistInfo.PLAYLISTINFO_KEY_ENTRIES);
+    public void parseInfo(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (PERSONINFO_KEY_ID.equals(name)) {
+                mId = reader.nextString();
+            } else if (PERSONINFO_KEY_NAME.equals(name)) {
+                mName = reader.nextString();
+            } else if (PERSONINFO_KEY_URL.equals(name)) {
+                mUrl = reader.nextString();
+            } else if (PERSONINFO_KEY_FOLLOWS.equals(name)) {
                 mFollows = new ArrayList<UserInfo>();
-                for (int i = 0; i < rawFollowsInfos.length(); i++) {
+                reader.beginArray();
+                while (reader.hasNext()) {
                     UserInfo userInfo = new UserInfo();
-                    userInfo.parseInfo(rawFollowsInfos.getJSONObject(i));
+                    userInfo.parseInfo(reader);
                     mFollows.add(userInfo);
                 }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "parseInfo: " + e.getClass() + ": " + e.getLocalizedMessage());
         }
+        reader.endObject();
     }
 
     public String getId() {
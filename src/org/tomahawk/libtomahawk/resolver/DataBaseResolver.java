@@ -20,10 +20,10 @@ package org.tomahawk.libtomahawk.resolver;
 import org.json.JSONObject;
 import org.tomahawk.libtomahawk.collection.Collection;
 import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.collection.TrackIndex;
 import org.tomahawk.libtomahawk.collection.UserCollection;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.TomahawkApp;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 
 import android.graphics.drawable.Drawable;
 import android.text.TextUtils;
@@ -31,13 +31,14 @@ import android.widget.Filter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link Resolver} which resolves {@link Track}s via our local database. Or in other words:
  * Fetches {@link Track}s from the local {@link UserCollection}. Can also be used to resolve from
  * remote {@link Collection}s.
  */
-public class DataBaseResolver implements Resolver {
+public class DataBaseResolver implements IconResolver {
 
     private TomahawkApp mTomahawkApp;
 
@@ -59,6 +60,10 @@ public class DataBaseResolver implements Resolver {
 
     private boolean mStopped;
 
+    // qid -> the TomahawkListItemFilter which is currently resolving the Query with this id
+    private ConcurrentHashMap<String, TomahawkListItemFilter> mRunningFilters
+            = new ConcurrentHashMap<String, TomahawkListItemFilter>();
+
     /**
      * Construct this {@link DataBaseResolver}
      *
@@ -93,6 +98,14 @@ public class DataBaseResolver implements Resolver {
         return mReady && !mStopped;
     }
 
+    /**
+     * @return always true, because a {@link DataBaseResolver} only resolves against a local {@link
+     * Collection}
+     */
+    public boolean isLocal() {
+        return true;
+    }
+
     /**
      * @return the icon of this {@link Resolver} as a {@link Drawable}
      */
@@ -107,11 +120,110 @@ public class DataBaseResolver implements Resolver {
      */
     public void resolve(Query query) {
         mStopped = false;
+        createFilter(query).filter(null);
+    }
+
+    /**
+     * Resolve all of the given {@link Query}s within a single filtering pass.
+     *
+     * @param queries the {@link Query}s which should be resolved
+     */
+    public void resolve(ArrayList<Query> queries) {
+        mStopped = false;
+        new BatchFilter(queries).filter(null);
+    }
+
+    /**
+     * Stop resolving the given {@link Query}. Its {@link TomahawkListItemFilter} stops filtering as
+     * soon as possible and doesn't report anything.
+     *
+     * @param query the {@link Query} which should not be resolved anymore
+     */
+    public void cancel(Query query) {
+        TomahawkListItemFilter filter = mRunningFilters.remove(query.getQid());
+        if (filter != null) {
+            filter.mCancelled = true;
+        }
+    }
+
+    /**
+     * @return a new {@link TomahawkListItemFilter} which resolves the given {@link Query}
+     */
+    private TomahawkListItemFilter createFilter(Query query) {
+        TomahawkListItemFilter filter;
         if (query.isFullTextQuery()) {
-            new TomahawkListItemFilter(query.getQid(), this, query.getFullTextQuery()).filter(null);
+            filter = new TomahawkListItemFilter(query.getQid(), this, query.getFullTextQuery());
         } else {
-            new TomahawkListItemFilter(query.getQid(), this, query.getTrackName(),
-                    query.getAlbumName(), query.getArtistName()).filter(null);
+            filter = new TomahawkListItemFilter(query.getQid(), this, query.getTrackName(),
+                    query.getAlbumName(), query.getArtistName());
+        }
+        mRunningFilters.put(query.getQid(), filter);
+        return filter;
+    }
+
+    /**
+     * A {@link Filter} which resolves a whole batch of {@link Query}s at once and reports the
+     * {@link Result}s of all of them, when it's done.
+     */
+    private class BatchFilter extends Filter {
+
+        private ArrayList<TomahawkListItemFilter> mFilters
+                = new ArrayList<TomahawkListItemFilter>();
+
+        /**
+         * Construct this {@link BatchFilter}
+         *
+         * @param queries the {@link Query}s to be resolved
+         */
+        public BatchFilter(ArrayList<Query> queries) {
+            for (Query query : queries) {
+                mFilters.add(createFilter(query));
+            }
+        }
+
+        /**
+         * Called when this {@link BatchFilter} is done with performFiltering(...). Reports the
+         * {@link Result}s of every {@link Query}.
+         *
+         * @param constraint can be ignored in our case
+         * @param results    an {@link ArrayList} containing the {@link Result}s of every {@link
+         *                   Query}
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            ArrayList<ArrayList<Result>> resultLists
+                    = (ArrayList<ArrayList<Result>>) results.values;
+            mStopped = true;
+            for (int i = 0; i < mFilters.size(); i++) {
+                TomahawkListItemFilter filter = mFilters.get(i);
+                mRunningFilters.remove(filter.mQid);
+                if (!filter.mCancelled) {
+                    mTomahawkApp.getPipeLine().reportResults(DataBaseResolver.this,
+                            filter.mQid, resultLists.get(i));
+                }
+            }
+        }
+
+        /**
+         * Resolve every {@link Query} of this batch.
+         *
+         * @param constraint can be ignored in our case
+         * @return the {@link FilterResults} of every {@link Query}
+         */
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            ArrayList<ArrayList<Result>> resultLists = new ArrayList<ArrayList<Result>>();
+            for (TomahawkListItemFilter filter : mFilters) {
+                resultLists.add(filter.getFilteredResults());
+            }
+
+            FilterResults results = new FilterResults();
+            synchronized (this) {
+                results.values = resultLists;
+            }
+
+            return results;
         }
     }
 
@@ -132,6 +244,8 @@ public class DataBaseResolver implements Resolver {
 
         private String mArtistName = "";
 
+        private volatile boolean mCancelled;
+
         /**
          * Construct this {@link TomahawkListItemFilter}, if you want to do a fullTextQuery search.
          *
@@ -179,7 +293,10 @@ public class DataBaseResolver implements Resolver {
         protected void publishResults(CharSequence constraint, FilterResults results) {
             ArrayList<Result> resultList = (ArrayList<Result>) results.values;
             mStopped = true;
-            mTomahawkApp.getPipeLine().reportResults(mQid, resultList);
+            mRunningFilters.remove(mQid);
+            if (!mCancelled) {
+                mTomahawkApp.getPipeLine().reportResults(mResolver, mQid, resultList);
+            }
         }
 
         /**
@@ -213,31 +330,40 @@ public class DataBaseResolver implements Resolver {
                     .isEmpty(mAlbumName) && TextUtils.isEmpty(mArtistName))) {
                 return filteredResults;
             }
-            List<TomahawkBaseAdapter.TomahawkListItem> inputList
-                    = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
-            inputList.addAll(mCollection.getTracks());
-
-            for (TomahawkBaseAdapter.TomahawkListItem item : inputList) {
+            TrackIndex trackIndex = mCollection.getTrackIndex();
+            if (trackIndex != null) {
+                // Let the index look up every matching track, instead of scanning through the
+                // whole collection
+                List<Track> matches;
                 if (!TextUtils.isEmpty(mFullTextQuery)) {
-                    if (item.getName().toLowerCase().contains(mFullTextQuery) || (
-                            item.getArtist() != null && item.getArtist().getName().toLowerCase()
-                                    .contains(mFullTextQuery)) || (item.getAlbum() != null && item
-                            .getAlbum().getName().toLowerCase().contains(mFullTextQuery))) {
-                        Result r;
-                        r = new Result((Track) item);
-                        r.setResolver(mResolver);
-                        filteredResults.add(r);
-                    }
+                    matches = trackIndex.getMatches(mFullTextQuery, mFullTextQuery,
+                            mFullTextQuery);
+                } else {
+                    matches = trackIndex.getMatches(mTrackName, mArtistName, mAlbumName);
+                }
+                for (Track track : matches) {
+                    Result r = new Result(track);
+                    r.setResolver(mResolver);
+                    filteredResults.add(r);
+                }
+                return filteredResults;
+            }
+            boolean isFullTextQuery = !TextUtils.isEmpty(mFullTextQuery);
+            for (Track track : mCollection.getTracks()) {
+                if (mCancelled) {
+                    break;
+                }
+                boolean matches;
+                if (isFullTextQuery) {
+                    matches = TrackIndex.matches(track, mFullTextQuery, mFullTextQuery,
+                            mFullTextQuery);
                 } else {
-                    if (item.getName().toLowerCase().contains(mTrackName) || (
-                            item.getArtist() != null && item.getArtist().getName().toLowerCase()
-                                    .contains(mArtistName)) || (item.getAlbum() != null && item
-                            .getAlbum().getName().toLowerCase().contains(mAlbumName))) {
-                        Result r;
-                        r = new Result((Track) item);
-                        r.setResolver(mResolver);
-                        filteredResults.add(r);
-                    }
+                    matches = TrackIndex.matches(track, mTrackName, mArtistName, mAlbumName);
+                }
+                if (matches) {
+                    Result r = new Result(track);
+                    r.setResolver(mResolver);
+                    filteredResults.add(r);
                 }
             }
             return filteredResults;
@@ -257,4 +383,11 @@ public class DataBaseResolver implements Resolver {
     public int getWeight() {
         return mWeight;
     }
+
+    /**
+     * @return this {@link DataBaseResolver}'s timeout in milliseconds
+     */
+    public int getTimeout() {
+        return mTimeout;
+    }
 }
@@ -20,32 +20,12 @@ package org.tomahawk.libtomahawk.resolver;
 import android.graphics.drawable.Drawable;
 
 /**
- * The basic {@link Resolver} interface, which is implemented by every type of {@link Resolver}
+ * A {@link Resolver}, which has an icon that is shown next to the {@link Result}s it has found
  */
-public interface Resolver {
-
-    /**
-     * @return Whether or not this {@link Resolver} is currently resolving
-     */
-    public boolean isResolving();
+public interface IconResolver extends Resolver {
 
     /**
      * @return the icon of this {@link Resolver} as a {@link Drawable}
      */
     public Drawable getIcon();
-
-    /**
-     * Resolve the given {@link Query}
-     */
-    public void resolve(Query query);
-
-    /**
-     * @return this {@link Resolver}'s id
-     */
-    public int getId();
-
-    /**
-     * @return this {@link Resolver}'s weight
-     */
-    public int getWeight();
 }
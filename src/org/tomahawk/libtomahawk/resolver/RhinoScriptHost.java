@@ -0,0 +1,459 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.mozilla.javascript.ClassShutter;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.tomahawk.libtomahawk.utils.NamedThreadFactory;
+import org.tomahawk.tomahawk_android.R;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import android.content.res.AssetManager;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * A {@link ScriptHost}, which runs the javascript inside of a headless Rhino engine instead of a
+ * {@link android.webkit.WebView}. All {@link RhinoScriptHost}s share a small pool of worker
+ * threads, and the common javascript runtime is compiled only once and then executed in every
+ * resolver's own scope. The calls of one resolver are executed one after another, so that its
+ * javascript never runs on two threads at the same time. The browser APIs the resolvers rely on
+ * (DOMParser, setTimeout, ...) are provided by js/tomahawk_rhino.js on top of the {@link Bridge}.
+ * Resolvers are third-party code, so they don't get access to LiveConnect. The only Java classes
+ * they can see are the {@link Bridge}, the {@link ScriptInterface} and the DOM of parsed xml.
+ */
+public class RhinoScriptHost implements ScriptHost {
+
+    private final static String TAG = RhinoScriptHost.class.getName();
+
+    private final static String[] RUNTIME_SCRIPT_PATHS = {"js/tomahawk_rhino.js",
+            "js/tomahawk_android.js", "js/tomahawk.js"};
+
+    private final static int WORKER_THREAD_COUNT = 2;
+
+    // The LiveConnect objects initStandardObjects() defines, which would give the javascript
+    // access to every Java class
+    private final static String[] LIVECONNECT_OBJECTS = {"Packages", "java", "javax", "org",
+            "com", "edu", "net", "getClass", "JavaAdapter", "JavaImporter"};
+
+    private final static ContextFactory sContextFactory = new ContextFactory() {
+        @Override
+        protected Context makeContext() {
+            Context cx = super.makeContext();
+            cx.setClassShutter(new ScriptClassShutter());
+            return cx;
+        }
+    };
+
+    private final static ExecutorService sWorkerExecutor = Executors
+            .newFixedThreadPool(WORKER_THREAD_COUNT, new NamedThreadFactory("ScriptHost"));
+
+    private final static ScheduledExecutorService sTimerExecutor = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory("ScriptHostTimer"));
+
+    // The common javascript runtime, compiled once and shared by all RhinoScriptHosts
+    private static Script[] sRuntimeScripts;
+
+    private AssetManager mAssetManager;
+
+    private ScriptResolver mScriptResolver;
+
+    private ScriptInterface mScriptInterface;
+
+    private SerialExecutor mExecutor = new SerialExecutor(sWorkerExecutor);
+
+    // Only ever accessed from within mExecutor
+    private Scriptable mScope;
+
+    private ConcurrentHashMap<Integer, ScheduledFuture<?>> mTimers
+            = new ConcurrentHashMap<Integer, ScheduledFuture<?>>();
+
+    private AtomicInteger mTimerIdCounter = new AtomicInteger();
+
+    /**
+     * Only lets the javascript see the Java classes it needs: the {@link Bridge}, the {@link
+     * ScriptInterface} and the DOM implementation returned by {@link Bridge#parseXml(String)}.
+     * Everything else, including java.lang.Class and thereby reflection, is hidden.
+     */
+    private static class ScriptClassShutter implements ClassShutter {
+
+        @Override
+        public boolean visibleToScripts(String fullClassName) {
+            if (fullClassName.equals(Bridge.class.getName())
+                    || fullClassName.equals(ScriptInterface.class.getName())) {
+                return true;
+            }
+            try {
+                Class<?> cl = Class.forName(fullClassName, false,
+                        RhinoScriptHost.class.getClassLoader());
+                return Node.class.isAssignableFrom(cl) || NodeList.class.isAssignableFrom(cl)
+                        || NamedNodeMap.class.isAssignableFrom(cl)
+                        || DOMException.class.isAssignableFrom(cl);
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Executes the given {@link Runnable}s one after another on the given {@link Executor}
+     */
+    private static class SerialExecutor implements Executor {
+
+        private final ArrayDeque<Runnable> mTasks = new ArrayDeque<Runnable>();
+
+        private final Executor mExecutor;
+
+        private Runnable mActive;
+
+        SerialExecutor(Executor executor) {
+            mExecutor = executor;
+        }
+
+        @Override
+        public synchronized void execute(final Runnable runnable) {
+            mTasks.offer(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runnable.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+            if (mActive == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            mActive = mTasks.poll();
+            if (mActive != null) {
+                mExecutor.execute(mActive);
+            }
+        }
+    }
+
+    /**
+     * A piece of work, which is executed with an entered Rhino {@link Context}
+     */
+    private abstract class ScriptTask implements Runnable {
+
+        @Override
+        public void run() {
+            Context cx = enterContext();
+            try {
+                run(cx);
+            } catch (RhinoException e) {
+                Log.e(TAG, "run: " + mScriptResolver.getScriptFilePath() + ": " + e.getClass()
+                        + ": " + e.getLocalizedMessage());
+            } catch (IOException e) {
+                Log.e(TAG, "run: " + mScriptResolver.getScriptFilePath() + ": " + e.getClass()
+                        + ": " + e.getLocalizedMessage());
+            } finally {
+                Context.exit();
+            }
+        }
+
+        protected abstract void run(Context cx) throws IOException;
+    }
+
+    /**
+     * Exposed to the javascript as "TomahawkHost". Provides everything js/tomahawk_rhino.js needs
+     * to emulate the browser APIs.
+     */
+    public class Bridge {
+
+        /**
+         * Call the given function after the given delay in milliseconds
+         *
+         * @param repeat whether or not the function should be called repeatedly
+         * @return the id, which can be used to clear the timeout again
+         */
+        public int setTimeout(final Function function, long delay, final boolean repeat) {
+            final int timerId = mTimerIdCounter.incrementAndGet();
+            final Scriptable scope = mScope;
+            Runnable runnable = new Runnable() {
+                @Override
+                public void run() {
+                    if (!repeat) {
+                        mTimers.remove(timerId);
+                    }
+                    mExecutor.execute(new ScriptTask() {
+                        @Override
+                        protected void run(Context cx) {
+                            if (scope == mScope) {
+                                function.call(cx, scope, scope, new Object[0]);
+                            }
+                        }
+                    });
+                }
+            };
+            delay = Math.max(delay, 0);
+            ScheduledFuture<?> future;
+            if (repeat) {
+                future = sTimerExecutor.scheduleWithFixedDelay(runnable, delay,
+                        Math.max(delay, 1), TimeUnit.MILLISECONDS);
+            } else {
+                future = sTimerExecutor.schedule(runnable, delay, TimeUnit.MILLISECONDS);
+            }
+            mTimers.put(timerId, future);
+            return timerId;
+        }
+
+        public void clearTimeout(int timerId) {
+            ScheduledFuture<?> future = mTimers.remove(timerId);
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        /**
+         * @return the {@link Document} parsed from the given xml {@link String}, or null if it
+         * couldn't be parsed
+         */
+        public Document parseXml(String xml) {
+            try {
+                return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                        .parse(new InputSource(new StringReader(xml)));
+            } catch (ParserConfigurationException e) {
+                Log.e(TAG, "parseXml: " + e.getClass() + ": " + e.getLocalizedMessage());
+            } catch (SAXException e) {
+                Log.e(TAG, "parseXml: " + e.getClass() + ": " + e.getLocalizedMessage());
+            } catch (IOException e) {
+                Log.e(TAG, "parseXml: " + e.getClass() + ": " + e.getLocalizedMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Construct a new {@link RhinoScriptHost}
+     *
+     * @param assetManager   the {@link AssetManager} to load the javascript files with
+     * @param scriptResolver the {@link ScriptResolver} this {@link RhinoScriptHost} runs the
+     *                       javascript of
+     */
+    public RhinoScriptHost(AssetManager assetManager, ScriptResolver scriptResolver) {
+        mAssetManager = assetManager;
+        mScriptResolver = scriptResolver;
+        mScriptInterface = new ScriptInterface(scriptResolver, this);
+    }
+
+    /**
+     * Create a new scope, run the common javascript runtime and the given resolver script in it.
+     * All timeouts of a previously loaded script are cleared.
+     */
+    @Override
+    public void load(final String scriptPath) {
+        mExecutor.execute(new ScriptTask() {
+            @Override
+            protected void run(Context cx) throws IOException {
+                clearScope();
+                ScriptableObject scope = cx.initStandardObjects();
+                for (String name : LIVECONNECT_OBJECTS) {
+                    scope.delete(name);
+                }
+                ScriptableObject.putProperty(scope, "ScriptInterface",
+                        Context.javaToJS(mScriptInterface, scope));
+                ScriptableObject.putProperty(scope, "TomahawkHost",
+                        Context.javaToJS(new Bridge(), scope));
+                mScope = scope;
+                for (Script script : getRuntimeScripts(cx, mAssetManager)) {
+                    script.exec(cx, scope);
+                }
+                cx.evaluateString(scope, readAsset(mAssetManager, scriptPath), scriptPath, 1,
+                        null);
+                mScriptResolver.onScriptEngineReady(RhinoScriptHost.this);
+            }
+        });
+    }
+
+    /**
+     * This method calls the js function resolver.init().
+     */
+    @Override
+    public void callInit() {
+        mScriptInterface.queueCall(ScriptInterface.CALL_INIT, R.id.scriptresolver_resolver_init,
+                false);
+        dispatchCalls();
+    }
+
+    /**
+     * This method tries to get the {@link Resolver}'s settings.
+     */
+    @Override
+    public void callSettings() {
+        mScriptInterface.queueCall(ScriptInterface.CALL_SETTINGS,
+                R.id.scriptresolver_resolver_settings, true);
+        dispatchCalls();
+    }
+
+    /**
+     * This method tries to get the {@link Resolver}'s UserConfig.
+     */
+    @Override
+    public void callUserConfig() {
+        mScriptInterface.queueCall(ScriptInterface.CALL_USERCONFIG,
+                R.id.scriptresolver_resolver_userconfig, true);
+        dispatchCalls();
+    }
+
+    /**
+     * Invoke the javascript to resolve the given {@link Query}.
+     *
+     * @param query the {@link Query} which should be resolved
+     */
+    @Override
+    public void resolve(Query query) {
+        mScriptInterface.queueResolveCall(query);
+        dispatchCalls();
+    }
+
+    /**
+     * Invoke the javascript to resolve all of the given {@link Query}s within one single task.
+     *
+     * @param queries the {@link Query}s which should be resolved
+     */
+    @Override
+    public void resolve(ArrayList<Query> queries) {
+        for (Query query : queries) {
+            mScriptInterface.queueResolveCall(query);
+        }
+        dispatchCalls();
+    }
+
+    /**
+     * Drop the scope and clear all of its timeouts. Everything that is still being executed for
+     * the old scope is discarded.
+     */
+    @Override
+    public void release() {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                clearScope();
+            }
+        });
+    }
+
+    /**
+     * Must only be called from within mExecutor
+     */
+    private void clearScope() {
+        for (ScheduledFuture<?> future : mTimers.values()) {
+            future.cancel(false);
+        }
+        mTimers.clear();
+        mScope = null;
+    }
+
+    /**
+     * Let the precompiled dispatcher function execute all calls, which are queued up in the {@link
+     * ScriptInterface}
+     */
+    @Override
+    public void dispatchCalls() {
+        mExecutor.execute(new ScriptTask() {
+            @Override
+            protected void run(Context cx) {
+                if (mScope != null) {
+                    Object tomahawk = ScriptableObject.getProperty(mScope, "Tomahawk");
+                    ScriptableObject.callMethod(cx, (Scriptable) tomahawk, "dispatchCalls",
+                            new Object[0]);
+                }
+            }
+        });
+    }
+
+    private static Context enterContext() {
+        Context cx = sContextFactory.enterContext();
+        // Dalvik can't load generated bytecode, so we always have to use the interpreter
+        cx.setOptimizationLevel(-1);
+        cx.setLanguageVersion(Context.VERSION_1_8);
+        cx.getWrapFactory().setJavaPrimitiveWrap(false);
+        return cx;
+    }
+
+    /**
+     * @return the compiled common javascript runtime. It is compiled on first use.
+     */
+    private static synchronized Script[] getRuntimeScripts(Context cx, AssetManager assetManager)
+            throws IOException {
+        if (sRuntimeScripts == null) {
+            Script[] scripts = new Script[RUNTIME_SCRIPT_PATHS.length];
+            for (int i = 0; i < RUNTIME_SCRIPT_PATHS.length; i++) {
+                scripts[i] = cx.compileString(readAsset(assetManager, RUNTIME_SCRIPT_PATHS[i]),
+                        RUNTIME_SCRIPT_PATHS[i], 1, null);
+            }
+            sRuntimeScripts = scripts;
+        }
+        return sRuntimeScripts;
+    }
+
+    private static String readAsset(AssetManager assetManager, String path) throws IOException {
+        InputStream in = assetManager.open(path);
+        try {
+            return readString(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, "UTF-8");
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[4096];
+        int count;
+        while ((count = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, count);
+        }
+        return builder.toString();
+    }
+}
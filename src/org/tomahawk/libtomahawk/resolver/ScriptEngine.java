@@ -27,11 +27,14 @@ public class ScriptEngine extends WebViewClient {
 
     ScriptResolver mScriptResolver;
 
-    public ScriptEngine(ScriptResolver scriptResolver) {
+    ScriptHost mScriptHost;
+
+    public ScriptEngine(ScriptResolver scriptResolver, ScriptHost scriptHost) {
         mScriptResolver = scriptResolver;
+        mScriptHost = scriptHost;
     }
 
     public void onPageFinished(WebView view, String url) {
-        mScriptResolver.onScriptEngineReady();
+        mScriptResolver.onScriptEngineReady(mScriptHost);
     }
 }
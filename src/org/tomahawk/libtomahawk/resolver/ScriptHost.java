@@ -0,0 +1,73 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import java.util.ArrayList;
+
+/**
+ * Runs the javascript of one {@link ScriptResolver}. Every call returns immediately, the actual
+ * work is done asynchronously. Everything the javascript reports back is handed over to the {@link
+ * ScriptResolver} through a {@link ScriptInterface}.
+ */
+public interface ScriptHost {
+
+    /**
+     * Load the common javascript runtime and the given resolver script. {@link
+     * ScriptResolver#onScriptEngineReady(ScriptHost)} is called with this {@link ScriptHost} once
+     * everything has been loaded.
+     *
+     * @param scriptPath the path to the resolver script inside of the assets folder
+     */
+    public void load(String scriptPath);
+
+    /**
+     * Call the resolver's init() function
+     */
+    public void callInit();
+
+    /**
+     * Get the resolver's settings
+     */
+    public void callSettings();
+
+    /**
+     * Get the resolver's UserConfig
+     */
+    public void callUserConfig();
+
+    /**
+     * Call the resolver's resolve or search function for the given {@link Query}
+     */
+    public void resolve(Query query);
+
+    /**
+     * Call the resolver's resolve or search function for all of the given {@link Query}s
+     */
+    public void resolve(ArrayList<Query> queries);
+
+    /**
+     * Let the javascript execute all calls, which are queued up in the {@link ScriptInterface}
+     */
+    public void dispatchCalls();
+
+    /**
+     * Free everything that has been allocated to run the script. This {@link ScriptHost} must not
+     * be used anymore afterwards.
+     */
+    public void release();
+}
@@ -2,22 +2,178 @@ package org.tomahawk.libtomahawk.resolver;
 
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.tomahawk.tomahawk_android.R;
+import org.tomahawk.libtomahawk.utils.TomahawkHttpClient;
 
 import android.util.Log;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * This class contains all methods that are being exposed to the javascript script inside a {@link
- * ScriptResolver} object.
+ * ScriptResolver} object. Calls from Java into the javascript are queued up in here as json
+ * objects, which are then fetched and executed by the dispatcher function in tomahawk_android.js.
  */
 public class ScriptInterface {
 
     private final static String TAG = ScriptInterface.class.getName();
 
+    public final static String CALL_INIT = "init";
+
+    public final static String CALL_SETTINGS = "settings";
+
+    public final static String CALL_USERCONFIG = "userConfig";
+
+    public final static String CALL_RESOLVE = "resolve";
+
+    public final static String CALL_SEARCH = "search";
+
+    public final static String CALL_HTTP_RESPONSE = "httpResponse";
+
     ScriptResolver mScriptResolver;
 
-    ScriptInterface(ScriptResolver scriptResolver) {
+    private ScriptHost mScriptHost;
+
+    // All calls which haven't been fetched by the javascript yet, as json object Strings
+    private ConcurrentLinkedQueue<String> mPendingCalls = new ConcurrentLinkedQueue<String>();
+
+    ScriptInterface(ScriptResolver scriptResolver, ScriptHost scriptHost) {
         mScriptResolver = scriptResolver;
+        mScriptHost = scriptHost;
+    }
+
+    /**
+     * Queue a call of the resolver function with the given name. Once the javascript has executed
+     * it, its result is handed over to callbackToJava together with the given id.
+     *
+     * @param method             one of CALL_INIT, CALL_SETTINGS and CALL_USERCONFIG
+     * @param id                 used to identify the callback
+     * @param shouldReturnResult whether or not the function returns a result
+     */
+    void queueCall(String method, int id, boolean shouldReturnResult) {
+        JSONObject call = new JSONObject();
+        try {
+            call.put("method", method);
+            call.put("id", id);
+            call.put("returnResult", shouldReturnResult);
+        } catch (JSONException e) {
+            Log.e(TAG, "queueCall: " + e.getClass() + ": " + e.getLocalizedMessage());
+        }
+        mPendingCalls.add(call.toString());
+    }
+
+    /**
+     * Queue a call of the resolver's resolve or search function for the given {@link Query}. The
+     * {@link Result}s are reported through addTrackResultsString.
+     */
+    void queueResolveCall(Query query) {
+        JSONObject call = new JSONObject();
+        try {
+            call.put("qid", query.getQid());
+            if (query.isFullTextQuery()) {
+                call.put("method", CALL_SEARCH);
+                call.put("searchString", query.getFullTextQuery());
+            } else {
+                call.put("method", CALL_RESOLVE);
+                call.put("artist", query.getArtistName());
+                call.put("album", query.getAlbumName());
+                call.put("track", query.getTrackName());
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "queueResolveCall: " + e.getClass() + ": " + e.getLocalizedMessage());
+        }
+        mPendingCalls.add(call.toString());
+    }
+
+    /**
+     * Make an http request in the background through the shared {@link TomahawkHttpClient}. The
+     * response is handed back to the javascript as a queued call, which contains the given
+     * request id. Called by the XMLHttpRequest implementation in tomahawk_android.js.
+     *
+     * @param requestId used by the javascript to identify the response
+     * @param headers   a json object {@link String} containing the request headers
+     * @param body      the request body, empty if there is none
+     */
+    public void httpRequest(final int requestId, String method, String url, String headers,
+            String body) {
+        TomahawkHttpClient.getInstance().enqueue(method, url, parseHeaders(headers), body,
+                new TomahawkHttpClient.Callback() {
+                    @Override
+                    public void onResponse(TomahawkHttpClient.Response response) {
+                        JSONObject call = responseToJson(response);
+                        try {
+                            call.put("method", CALL_HTTP_RESPONSE);
+                            call.put("requestId", requestId);
+                        } catch (JSONException e) {
+                            Log.e(TAG, "httpRequest: " + e.getClass() + ": " + e
+                                    .getLocalizedMessage());
+                        }
+                        mPendingCalls.add(call.toString());
+                        mScriptHost.dispatchCalls();
+                    }
+                });
+    }
+
+    /**
+     * Make an http request through the shared {@link TomahawkHttpClient} and wait for its
+     * response. Called by the XMLHttpRequest implementation in tomahawk_android.js.
+     *
+     * @param headers a json object {@link String} containing the request headers
+     * @param body    the request body, empty if there is none
+     * @return a json object {@link String} containing status, statusText and responseText
+     */
+    public String httpRequestSync(String method, String url, String headers, String body) {
+        return responseToJson(TomahawkHttpClient.getInstance()
+                .execute(method, url, parseHeaders(headers), body)).toString();
+    }
+
+    private Map<String, String> parseHeaders(String headers) {
+        Map<String, String> headerMap = new HashMap<String, String>();
+        if (headers != null && headers.length() > 0) {
+            try {
+                JSONObject headersObject = new JSONObject(headers);
+                Iterator<?> names = headersObject.keys();
+                while (names.hasNext()) {
+                    String name = (String) names.next();
+                    headerMap.put(name, headersObject.getString(name));
+                }
+            } catch (JSONException e) {
+                Log.e(TAG, "parseHeaders: " + e.getClass() + ": " + e.getLocalizedMessage());
+            }
+        }
+        return headerMap;
+    }
+
+    private JSONObject responseToJson(TomahawkHttpClient.Response response) {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("status", response.status);
+            json.put("statusText", response.statusText == null ? "" : response.statusText);
+            json.put("responseText", response.body == null ? "" : response.body);
+        } catch (JSONException e) {
+            Log.e(TAG, "responseToJson: " + e.getClass() + ": " + e.getLocalizedMessage());
+        }
+        return json;
+    }
+
+    /**
+     * Called by the dispatcher function in tomahawk_android.js to fetch all queued calls
+     *
+     * @return a json array {@link String} containing all calls, which have been queued since the
+     * last time this method has been called
+     */
+    public String takeCallsString() {
+        StringBuilder calls = new StringBuilder("[");
+        String call;
+        while ((call = mPendingCalls.poll()) != null) {
+            if (calls.length() > 1) {
+                calls.append(',');
+            }
+            calls.append(call);
+        }
+        return calls.append(']').toString();
     }
 
     /**
@@ -76,12 +232,7 @@ public class ScriptInterface {
      * @param in the JSONObject {@link String} containing the resolved {@link Result}s
      */
     public void addTrackResultsString(String in) {
-        Log.d(TAG, "addTrackResultsString: in='" + in + "'");
-        try {
-            JSONObject out = new JSONObject(in);
-            mScriptResolver.handleCallbackToJava(R.id.scriptresolver_add_track_results_string, out);
-        } catch (JSONException e) {
-            Log.e(TAG, "addTrackResultsString: " + e.getClass() + ": " + e.getLocalizedMessage());
-        }
+        Log.d(TAG, "addTrackResultsString: " + in.length() + " characters");
+        mScriptResolver.handleTrackResultsString(in);
     }
 }
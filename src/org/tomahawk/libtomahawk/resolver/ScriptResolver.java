@@ -17,56 +17,90 @@
  */
 package org.tomahawk.libtomahawk.resolver;
 
-import org.json.JSONArray;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
 import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.utils.NamedThreadFactory;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 
+import android.content.SharedPreferences;
 import android.graphics.drawable.Drawable;
 import android.os.Handler;
 import android.os.Looper;
-import android.os.Message;
+import android.preference.PreferenceManager;
 import android.util.Log;
-import android.webkit.WebSettings;
-import android.webkit.WebView;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This class represents a javascript resolver.
+ * This class represents a javascript resolver. Its script is only loaded once the first {@link
+ * Query} has to be resolved, and it is unloaded again after it has been idle for a while. Only a
+ * limited number of {@link Query}s is handed over to the script at the same time, all others are
+ * queued up. Single {@link Query}s are handed over before the {@link Query}s of bulk resolves.
  */
-public class ScriptResolver implements Resolver {
+public class ScriptResolver implements IconResolver {
 
     private final static String TAG = ScriptResolver.class.getName();
 
-    private final static String RESOLVER_LEGACY_CODE
-            = "var resolver = Tomahawk.resolver.instance ? Tomahawk.resolver.instance : TomahawkResolver;";
+    // Whether the javascript is run inside of a headless Rhino engine or inside of a WebView
+    private final static boolean USE_HEADLESS_SCRIPT_HOST = true;
+
+    // The time in milliseconds after which an idle ScriptResolver unloads its script
+    private final static long IDLE_TIMEOUT = 5 * 60 * 1000;
+
+    // The time in milliseconds a ScriptResolver is additionally given, while its script is loading
+    private final static int STARTUP_TIMEOUT = 15000;
+
+    // The default maximum number of Querys the script is resolving at the same time
+    private final static int DEFAULT_MAX_IN_FLIGHT_QUERIES = 4;
 
-    private final static String RESOLVER_LEGACY_CODE2
-            = "var resolver = Tomahawk.resolver.instance ? Tomahawk.resolver.instance : window;";
+    // The time in milliseconds after which a Query that hasn't been answered by the script doesn't
+    // count as in-flight anymore
+    private final static long IN_FLIGHT_TIMEOUT = 30000;
 
-    private final static String SCRIPT_INTERFACE_NAME = "Tomahawk";
+    // The timeout in milliseconds which is assumed, if the script doesn't define its own
+    private final static int FALLBACK_TIMEOUT = 10000;
 
-    //TEMPORARY WORKAROUND
-    private final static String BASEURL_OFFICIALFM = "http://api.official.fm";
+    // Prefix of the preference keys, under which the weight each script defined in its settings
+    // is remembered. The script is only loaded on demand, but its weight is needed right away.
+    private final static String PREF_WEIGHT_PREFIX
+            = "org.tomahawk.tomahawk_android.scriptresolver_weight_";
 
-    private final static String BASEURL_EXFM = "http://ex.fm";
+    private final static int CALLBACK_THREAD_COUNT = 2;
 
-    private final static String BASEURL_JAMENDO = "http://api.jamendo.com";
+    private final static int CALLBACK_QUEUE_CAPACITY = 32;
 
-    private final static String BASEURL_SOUNDCLOUD = "http://developer.echonest.com";
-    //TEMPORARY WORKAROUND END
+    // Handles the callbacks of all ScriptResolvers. If the queue is full, the javascript's thread
+    // has to handle the callback itself, which keeps bursty resolvers from flooding the pool.
+    private final static ThreadPoolExecutor sCallbackExecutor = new ThreadPoolExecutor(
+            CALLBACK_THREAD_COUNT, CALLBACK_THREAD_COUNT, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(CALLBACK_QUEUE_CAPACITY),
+            new NamedThreadFactory("ScriptResolverCallback"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
 
     private TomahawkApp mTomahawkApp;
 
     private int mId;
 
-    private WebView mScriptEngine;
+    private ScriptHost mScriptHost;
 
     private String mScriptFilePath;
 
@@ -82,9 +116,41 @@ public class ScriptResolver implements Resolver {
 
     private boolean mReady;
 
-    private boolean mStopped;
+    private int mMaxInFlightQueries = DEFAULT_MAX_IN_FLIGHT_QUERIES;
+
+    // Guards the script host, the queues and the in-flight Querys
+    private final Object mLock = new Object();
+
+    // Single Querys, which wait for the script to be loaded or for a free slot
+    private final ArrayDeque<Query> mQueuedQueries = new ArrayDeque<Query>();
+
+    // Querys of bulk resolves, which wait for the script to be loaded or for a free slot
+    private final ArrayDeque<Query> mQueuedBulkQueries = new ArrayDeque<Query>();
+
+    // qid -> the time the Query has been handed over to the script
+    private final HashMap<String, Long> mInFlightQueries = new HashMap<String, Long>();
+
+    private Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private Runnable mIdleShutdownRunnable = new Runnable() {
+        @Override
+        public void run() {
+            shutdownIfIdle();
+        }
+    };
+
+    private Runnable mDispatchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (mLock) {
+                dispatchQueuedQueries();
+            }
+        }
+    };
 
-    private Handler UiThreadHandler;
+    // The ids of all cancelled Querys, whose results haven't been reported by the javascript yet
+    private Set<String> mCancelledQids = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     /**
      * Construct a new {@link ScriptResolver}
@@ -96,122 +162,115 @@ public class ScriptResolver implements Resolver {
      */
     public ScriptResolver(int id, TomahawkApp tomahawkApp, String scriptPath) {
         mReady = false;
-        mStopped = true;
         mId = id;
         mTomahawkApp = tomahawkApp;
-        mScriptEngine = new WebView(mTomahawkApp);
-        WebSettings settings = mScriptEngine.getSettings();
-        settings.setJavaScriptEnabled(true);
-        settings.setDatabaseEnabled(true);
-        settings.setDomStorageEnabled(true);
-        mScriptEngine.setWebChromeClient(new TomahawkWebChromeClient());
-        mScriptEngine.setWebViewClient(new ScriptEngine(this));
-        final ScriptInterface scriptInterface = new ScriptInterface(this);
-        mScriptEngine.addJavascriptInterface(scriptInterface, SCRIPT_INTERFACE_NAME);
         String[] tokens = scriptPath.split("/");
         mName = tokens[tokens.length - 1];
-        mIcon = mTomahawkApp.getResources().getDrawable(R.drawable.ic_resolver_default);
         mScriptFilePath = scriptPath;
-
-        init();
+        mWeight = PreferenceManager.getDefaultSharedPreferences(tomahawkApp)
+                .getInt(PREF_WEIGHT_PREFIX + scriptPath, 0);
     }
 
     /**
-     * @return whether or not this {@link ScriptResolver} is currently resolving
+     * @return whether or not this {@link ScriptResolver} is currently resolving, meaning that
+     * there are {@link Query}s which are queued up or which the script hasn't answered yet
      */
     public boolean isResolving() {
-        return mReady && !mStopped;
+        synchronized (mLock) {
+            expireInFlightQueries();
+            return !mInFlightQueries.isEmpty() || !mQueuedQueries.isEmpty()
+                    || !mQueuedBulkQueries.isEmpty();
+        }
     }
 
     /**
-     * Reinitialize this {@link ScriptResolver}
+     * Set the maximum number of {@link Query}s the script is resolving at the same time
      */
-    public void reload() {
-        init();
+    public void setMaxInFlightQueries(int maxInFlightQueries) {
+        synchronized (mLock) {
+            mMaxInFlightQueries = Math.max(1, maxInFlightQueries);
+            dispatchQueuedQueries();
+        }
     }
 
     /**
-     * Initialize this {@link ScriptResolver}. Loads the .js script from the given path and sets the
-     * appropriate base URL.
+     * @return always false, because a {@link ScriptResolver} resolves against remote content
      */
-    private void init() {
-        String baseurl = "http://fake.bla.blu";
-        if (getScriptFilePath().contains("officialfm.js")) {
-            baseurl = BASEURL_OFFICIALFM;
-        } else if (getScriptFilePath().contains("exfm.js")) {
-            baseurl = BASEURL_EXFM;
-        } else if (getScriptFilePath().contains("jamendo-resolver.js")) {
-            baseurl = BASEURL_JAMENDO;
-        } else if (getScriptFilePath().contains("soundcloud.js")) {
-            baseurl = BASEURL_SOUNDCLOUD;
-        }
-
-        mScriptEngine.loadDataWithBaseURL(baseurl, "<!DOCTYPE html>" + "<html>" + "<body>"
-                + "<script src=\"file:///android_asset/js/tomahawk_android.js\" type=\"text/javascript\"></script>"
-                + "<script src=\"file:///android_asset/js/tomahawk.js        \" type=\"text/javascript\"></script>"
-                + "<script src=\"file:///android_asset/" + mScriptFilePath
-                + "\" type=\"text/javascript\"></script>" + "</body>" + "</html>", "text/html",
-                null, null);
+    public boolean isLocal() {
+        return false;
     }
 
     /**
-     * This method is being called, when the {@link ScriptEngine} has completely loaded the given
-     * .js script.
+     * Reinitialize this {@link ScriptResolver}, if its script has already been loaded
      */
-    public void onScriptEngineReady() {
-        resolverInit();
-        resolverUserConfig();
-        mReady = true;
+    public void reload() {
+        synchronized (mLock) {
+            if (mScriptHost != null) {
+                mReady = false;
+                // The script is being reset, so it won't answer the in-flight Querys anymore
+                mInFlightQueries.clear();
+                mScriptHost.load(mScriptFilePath);
+            }
+        }
     }
 
     /**
-     * This method calls the js function resolver.init().
+     * Load the .js script from the given path, if it hasn't been loaded yet. Must only be called
+     * on the main thread.
      */
-    private void resolverInit() {
-        UiThreadHandler = new Handler(Looper.getMainLooper()) {
-            @Override
-            public void handleMessage(Message inputMessage) {
-                mScriptEngine.loadUrl(
-                        "javascript:" + RESOLVER_LEGACY_CODE + makeJSFunctionCallbackJava(
-                                R.id.scriptresolver_resolver_init, "resolver.init()", false));
+    public void start() {
+        synchronized (mLock) {
+            if (mScriptHost == null) {
+                Log.d(TAG, "Starting " + mScriptFilePath);
+                if (USE_HEADLESS_SCRIPT_HOST) {
+                    mScriptHost = new RhinoScriptHost(mTomahawkApp.getAssets(), this);
+                } else {
+                    mScriptHost = new WebViewScriptHost(mTomahawkApp, this);
+                }
+                mScriptHost.load(mScriptFilePath);
             }
-        };
-        Message message = UiThreadHandler.obtainMessage();
-        message.sendToTarget();
+        }
+        mHandler.removeCallbacks(mIdleShutdownRunnable);
+        mHandler.postDelayed(mIdleShutdownRunnable, IDLE_TIMEOUT);
     }
 
     /**
-     * This method tries to get the {@link Resolver}'s settings.
+     * Unload the script, unless there still are {@link Query}s being resolved. Otherwise try
+     * again later.
      */
-    private void resolverSettings() {
-        UiThreadHandler = new Handler(Looper.getMainLooper()) {
-            @Override
-            public void handleMessage(Message inputMessage) {
-                mScriptEngine.loadUrl(
-                        "javascript:" + RESOLVER_LEGACY_CODE + makeJSFunctionCallbackJava(
-                                R.id.scriptresolver_resolver_settings,
-                                "resolver.settings ? resolver.settings : getSettings() ", true));
+    private void shutdownIfIdle() {
+        synchronized (mLock) {
+            if (mScriptHost == null) {
+                return;
             }
-        };
-        Message message = UiThreadHandler.obtainMessage();
-        message.sendToTarget();
+            if (!isResolving()) {
+                Log.d(TAG, "Shutting down idle " + mScriptFilePath);
+                mScriptHost.release();
+                mScriptHost = null;
+                mReady = false;
+                return;
+            }
+        }
+        mHandler.postDelayed(mIdleShutdownRunnable, IDLE_TIMEOUT);
     }
 
     /**
-     * This method tries to get the {@link Resolver}'s UserConfig.
+     * This method is being called, when the {@link ScriptHost} has completely loaded the given .js
+     * script. All {@link Query}s which have been waiting for the script are resolved now.
+     *
+     * @param scriptHost the {@link ScriptHost} which has loaded the script. If it has been
+     *                   released in the meantime, the call is ignored.
      */
-    private void resolverUserConfig() {
-        UiThreadHandler = new Handler(Looper.getMainLooper()) {
-            @Override
-            public void handleMessage(Message inputMessage) {
-                mScriptEngine.loadUrl(
-                        "javascript:" + RESOLVER_LEGACY_CODE + makeJSFunctionCallbackJava(
-                                R.id.scriptresolver_resolver_userconfig, "resolver.getUserConfig()",
-                                true));
+    public void onScriptEngineReady(ScriptHost scriptHost) {
+        synchronized (mLock) {
+            if (mScriptHost == null || mScriptHost != scriptHost) {
+                return;
             }
-        };
-        Message message = UiThreadHandler.obtainMessage();
-        message.sendToTarget();
+            mScriptHost.callInit();
+            mScriptHost.callUserConfig();
+            mReady = true;
+            dispatchQueuedQueries();
+        }
     }
 
     /**
@@ -220,7 +279,7 @@ public class ScriptResolver implements Resolver {
      * that this callback will be handled here.
      *
      * @param id  used to identify which function did the callback
-     * @param obj the {@link JSONObject} containing the {@link Result} information. Can be null
+     * @param obj the {@link JSONObject} containing the callback's result. Can be null
      */
     public void handleCallbackToJava(final int id, final JSONObject obj) {
         Runnable r = new Runnable() {
@@ -236,6 +295,10 @@ public class ScriptResolver implements Resolver {
                     if (id == R.id.scriptresolver_resolver_settings && obj != null) {
                         mName = obj.getString("name");
                         mWeight = obj.getInt("weight");
+                        SharedPreferences.Editor editor = PreferenceManager
+                                .getDefaultSharedPreferences(mTomahawkApp).edit();
+                        editor.putInt(PREF_WEIGHT_PREFIX + mScriptFilePath, mWeight);
+                        editor.commit();
                         mTimeout = obj.getInt("timeout") * 1000;
                         String[] tokens = getScriptFilePath().split("/");
                         String basepath = "";
@@ -248,12 +311,11 @@ public class ScriptResolver implements Resolver {
                                 null);
                     } else if (id == R.id.scriptresolver_resolver_userconfig) {
                     } else if (id == R.id.scriptresolver_resolver_init) {
-                        resolverSettings();
-                    } else if (id == R.id.scriptresolver_add_track_results_string && obj != null) {
-                        String qid = obj.get("qid").toString();
-                        JSONArray resultList = obj.getJSONArray("results");
-                        mTomahawkApp.getPipeLine().reportResults(qid, parseResultList(resultList));
-                        mStopped = true;
+                        synchronized (mLock) {
+                            if (mScriptHost != null) {
+                                mScriptHost.callSettings();
+                            }
+                        }
                     }
                 } catch (JSONException e) {
                     Log.e(TAG, "handleCallbackToJava: " + e.getClass() + ": " + e
@@ -264,117 +326,234 @@ public class ScriptResolver implements Resolver {
                 }
             }
         };
-        Thread t = new Thread(r);
-        t.start();
+        sCallbackExecutor.execute(r);
     }
 
     /**
-     * Invoke the javascript to resolve the given {@link Query}.
+     * Called when the javascript has reported the {@link Result}s for a {@link Query}. They are
+     * parsed and reported to the {@link PipeLine} in the background.
      *
-     * @param query the {@link Query} which should be resolved
+     * @param resultsString the json {@link String} containing the {@link Query}'s id and its
+     *                      {@link Result}s
      */
+    public void handleTrackResultsString(final String resultsString) {
+        sCallbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                JsonReader reader = new JsonReader(new StringReader(resultsString));
+                try {
+                    String qid = null;
+                    ArrayList<Result> results = new ArrayList<Result>();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (name.equals("qid") && reader.peek() != JsonToken.NULL) {
+                            qid = reader.nextString();
+                        } else if (name.equals("results")
+                                && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                Result result = parseResult(reader);
+                                if (result != null) {
+                                    results.add(result);
+                                }
+                            }
+                            reader.endArray();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    if (qid != null) {
+                        onQueryAnswered(qid);
+                        if (!mCancelledQids.remove(qid)) {
+                            mTomahawkApp.getPipeLine().reportResults(ScriptResolver.this, qid,
+                                    results);
+                        }
+                    }
+                } catch (IOException e) {
+                    Log.e(TAG, "handleTrackResultsString: " + e.getClass() + ": " + e
+                            .getLocalizedMessage());
+                } catch (IllegalStateException e) {
+                    Log.e(TAG, "handleTrackResultsString: " + e.getClass() + ": " + e
+                            .getLocalizedMessage());
+                }
+            }
+        });
+    }
 
+    /**
+     * Invoke the javascript to resolve the given {@link Query}. It is handed over to the script
+     * before all {@link Query}s of bulk resolves.
+     *
+     * @param query the {@link Query} which should be resolved
+     */
     public void resolve(Query query) {
-        mStopped = false;
-        if (!query.isFullTextQuery()) {
-            mScriptEngine.loadUrl(
-                    "javascript:" + RESOLVER_LEGACY_CODE2 + makeJSFunctionCallbackJava(
-                            R.id.scriptresolver_resolve,
-                            "resolver.resolve( '" + query.getQid() + "', '" + query.getArtistName()
-                                    + "', '" + query.getAlbumName() + "', '" + query.getTrackName()
-                                    + "' )", false));
-        } else {
-            mScriptEngine.loadUrl("javascript:" + RESOLVER_LEGACY_CODE + makeJSFunctionCallbackJava(
-                    R.id.scriptresolver_resolve,
-                    "(Tomahawk.resolver.instance !== undefined) ?resolver.search( '" + query
-                            .getQid() + "', '" + query.getFullTextQuery() + "' ):resolve( '" + query
-                            .getQid() + "', '', '', '" + query.getFullTextQuery() + "' )", false));
+        start();
+        synchronized (mLock) {
+            mQueuedQueries.add(query);
+            dispatchQueuedQueries();
         }
     }
 
     /**
-     * Parses the given {@link JSONArray} into a {@link ArrayList} of {@link Result}s.
+     * Invoke the javascript to resolve all of the given {@link Query}s. They are handed over to
+     * the script in the given order, but never more than the maximum number of in-flight {@link
+     * Query}s at once. If the script hasn't been loaded yet, it is loaded now and the {@link
+     * Query}s have to wait until it is ready.
      *
-     * @param resList {@link JSONArray} containing the raw result information
-     * @return a {@link ArrayList} of {@link Result}s containing the parsed data
+     * @param queries the {@link Query}s which should be resolved
      */
-    private ArrayList<Result> parseResultList(final JSONArray resList) {
-        ArrayList<Result> resultList = new ArrayList<Result>();
-        for (int i = 0; i < resList.length(); i++) {
-            try {
-                JSONObject obj = resList.getJSONObject(i);
-                Result result = new Result();
-                Artist artist = new Artist(TomahawkApp.getUniqueId());
-                Album album = new Album(TomahawkApp.getUniqueId());
-                Track track = new Track(TomahawkApp.getUniqueId());
-                if (obj.has("url")) {
-                    track.setPath(obj.get("url").toString());
-                    if (obj.has("artist")) {
-                        artist.setName(obj.get("artist").toString());
-                        track.setArtist(artist);
-                    }
-                    if (obj.has("album")) {
-                        album.setName(obj.get("album").toString());
-                        track.setAlbum(album);
-                    }
-                    if (obj.has("track")) {
-                        track.setName(obj.get("track").toString());
-                    }
-                    if (obj.has("albumpos")) {
-                        track.setTrackNumber(Integer.valueOf(obj.get("albumpos").toString()));
-                    }
-                    if (obj.has("bitrate")) {
-                        track.setBitrate(Integer.valueOf(obj.get("bitrate").toString()));
-                    }
-                    if (obj.has("size")) {
-                        track.setSize(Integer.valueOf(obj.get("size").toString()));
-                    }
-                    if (obj.has("purchaseUrl")) {
-                        track.setPurchaseUrl(obj.get("purchaseUrl").toString());
-                    }
-                    if (obj.has("linkUrl")) {
-                        track.setLinkUrl(obj.get("linkUrl").toString());
-                    }
-                    if (obj.has("score")) {
-                        result.setTrackScore(Float.valueOf(obj.get("score").toString()));
-                    }
-                    if (obj.has("discnumber")) {
-                        track.setTrackNumber(Integer.valueOf(obj.get("discnumber").toString()));
-                    }
-                    //                    if (obj.has("year") && obj.get("year") != null)
-                    //                        track.setYear(Integer.valueOf(obj.get("year").toString()));
-                    if (obj.has("duration")) {
-                        track.setDuration(
-                                Math.round(Float.valueOf(obj.get("duration").toString()) * 1000));
-                    }
-                    track.setResolver(this);
-                    result.setResolver(this);
-                    result.setArtist(artist);
-                    result.setAlbum(album);
-                    result.setTrack(track);
-                    resultList.add(result);
-                }
-            } catch (JSONException e) {
-                Log.e(TAG, "parseResultList: " + e.getClass() + ": " + e.getLocalizedMessage());
+    public void resolve(ArrayList<Query> queries) {
+        start();
+        synchronized (mLock) {
+            mQueuedBulkQueries.addAll(queries);
+            dispatchQueuedQueries();
+        }
+    }
+
+    /**
+     * Drop the given {@link Query}, if it is still queued up. Otherwise the javascript can't be
+     * interrupted, so we only make sure that the {@link Result}s of the given {@link Query} are
+     * dropped without being parsed.
+     *
+     * @param query the {@link Query} which should not be resolved anymore
+     */
+    public void cancel(Query query) {
+        synchronized (mLock) {
+            if (mQueuedQueries.remove(query) || mQueuedBulkQueries.remove(query)
+                    || !mInFlightQueries.containsKey(query.getQid())) {
+                return;
+            }
+        }
+        mCancelledQids.add(query.getQid());
+    }
+
+    /**
+     * Hand over as many queued {@link Query}s to the script as there are free slots. Must only be
+     * called while holding mLock.
+     */
+    private void dispatchQueuedQueries() {
+        if (mScriptHost == null || !mReady) {
+            return;
+        }
+        expireInFlightQueries();
+        ArrayList<Query> queries = new ArrayList<Query>();
+        long now = System.currentTimeMillis();
+        while (mInFlightQueries.size() < mMaxInFlightQueries) {
+            Query query = mQueuedQueries.poll();
+            if (query == null) {
+                query = mQueuedBulkQueries.poll();
+            }
+            if (query == null) {
+                break;
+            }
+            mInFlightQueries.put(query.getQid(), now);
+            queries.add(query);
+        }
+        if (queries.size() == 1) {
+            mScriptHost.resolve(queries.get(0));
+        } else if (queries.size() > 1) {
+            mScriptHost.resolve(queries);
+        }
+        if (!mQueuedQueries.isEmpty() || !mQueuedBulkQueries.isEmpty()) {
+            // Make sure the queue keeps moving, even if the script never answers
+            mHandler.removeCallbacks(mDispatchRunnable);
+            mHandler.postDelayed(mDispatchRunnable, IN_FLIGHT_TIMEOUT);
+        }
+    }
+
+    /**
+     * Called once the script has answered the {@link Query} with the given id. Frees its slot for
+     * the next queued {@link Query}.
+     */
+    private void onQueryAnswered(String qid) {
+        synchronized (mLock) {
+            if (mInFlightQueries.remove(qid) != null) {
+                dispatchQueuedQueries();
+            }
+        }
+    }
+
+    /**
+     * Stop counting those {@link Query}s as in-flight, which the script hasn't answered within
+     * IN_FLIGHT_TIMEOUT. Must only be called while holding mLock.
+     */
+    private void expireInFlightQueries() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> iterator = mInFlightQueries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (now - entry.getValue() > IN_FLIGHT_TIMEOUT) {
+                Log.d(TAG, mScriptFilePath + " never answered query '" + entry.getKey() + "'");
+                mCancelledQids.remove(entry.getKey());
+                iterator.remove();
             }
         }
-        return resultList;
     }
 
     /**
-     * Wraps the given js call into the necessary functions to make sure, that the javascript
-     * function will callback the exposed java method callbackToJava in the {@link ScriptInterface}
+     * Reads the next json object from the given {@link JsonReader} and builds a {@link Result}
+     * directly from it. Values which are neither strings nor numbers are skipped.
      *
-     * @param id                 used to later identify the callback
-     * @param string             the {@link String} which should be surrounded. Usually a simple js
-     *                           function call.
-     * @param shouldReturnResult whether or not this js function call will return with a {@link
-     *                           JSONObject} as a result
-     * @return the computed {@link String}
+     * @return the parsed {@link Result}, or null if the json object doesn't contain an url
      */
-    private String makeJSFunctionCallbackJava(int id, String string, boolean shouldReturnResult) {
-        return SCRIPT_INTERFACE_NAME + ".callbackToJava(" + id + ",JSON.stringify(" + string + "),"
-                + shouldReturnResult + ");";
+    private Result parseResult(JsonReader reader) throws IOException {
+        Result result = new Result();
+        Artist artist = new Artist(TomahawkApp.getUniqueId());
+        Album album = new Album(TomahawkApp.getUniqueId());
+        Track track = new Track(TomahawkApp.getUniqueId());
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonToken token = reader.peek();
+            if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+                reader.skipValue();
+                continue;
+            }
+            String value = reader.nextString();
+            try {
+                if (name.equals("url")) {
+                    track.setPath(value);
+                } else if (name.equals("artist")) {
+                    artist.setName(value);
+                    track.setArtist(artist);
+                } else if (name.equals("album")) {
+                    album.setName(value);
+                    track.setAlbum(album);
+                } else if (name.equals("track")) {
+                    track.setName(value);
+                } else if (name.equals("albumpos")) {
+                    track.setTrackNumber(Integer.valueOf(value));
+                } else if (name.equals("bitrate")) {
+                    track.setBitrate(Integer.valueOf(value));
+                } else if (name.equals("size")) {
+                    track.setSize(Integer.valueOf(value));
+                } else if (name.equals("purchaseUrl")) {
+                    track.setPurchaseUrl(value);
+                } else if (name.equals("linkUrl")) {
+                    track.setLinkUrl(value);
+                } else if (name.equals("score")) {
+                    result.setTrackScore(Float.valueOf(value));
+                } else if (name.equals("discnumber")) {
+                    track.setTrackNumber(Integer.valueOf(value));
+                } else if (name.equals("duration")) {
+                    track.setDuration(Math.round(Float.valueOf(value) * 1000));
+                }
+            } catch (NumberFormatException e) {
+                Log.e(TAG, "parseResult: " + e.getClass() + ": " + e.getLocalizedMessage());
+            }
+        }
+        reader.endObject();
+        if (track.getPath() == null) {
+            return null;
+        }
+        track.setResolver(this);
+        result.setResolver(this);
+        result.setArtist(artist);
+        result.setAlbum(album);
+        result.setTrack(track);
+        return result;
     }
 
     /**
@@ -401,17 +580,40 @@ public class ScriptResolver implements Resolver {
 
     /**
      * @return the {@link Drawable} which has been created by loading the image the js function
-     * attribute "icon" pointed at
+     * attribute "icon" pointed at, or the default icon if the script hasn't been loaded yet
      */
     public Drawable getIcon() {
+        if (mIcon == null) {
+            mIcon = mTomahawkApp.getResources().getDrawable(R.drawable.ic_resolver_default);
+        }
         return mIcon;
     }
 
     /**
-     * @return this {@link ScriptResolver}'s weight
+     * @return this {@link ScriptResolver}'s weight. Until its script has been loaded, this is the
+     * weight the script has defined the last time it was loaded, or 0 if it never was.
      */
     public int getWeight() {
         return mWeight;
     }
 
+    /**
+     * @return this {@link ScriptResolver}'s timeout in milliseconds, as defined in its settings.
+     * Additional time is given while the script is still loading and for every round of queued up
+     * {@link Query}s, which have to wait for a free slot.
+     */
+    public int getTimeout() {
+        int timeout = mTimeout > 0 ? mTimeout : FALLBACK_TIMEOUT;
+        int additionalTime = 0;
+        if (!mReady) {
+            additionalTime += STARTUP_TIMEOUT;
+        }
+        synchronized (mLock) {
+            int queuedCount = mQueuedQueries.size() + mQueuedBulkQueries.size();
+            int rounds = (queuedCount + mMaxInFlightQueries - 1) / mMaxInFlightQueries;
+            additionalTime += rounds * timeout;
+        }
+        return additionalTime == 0 ? mTimeout : timeout + additionalTime;
+    }
+
 }
@@ -0,0 +1,161 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.tomahawk.tomahawk_android.R;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link ScriptHost}, which runs the javascript inside of its own {@link WebView}. Every call is
+ * queued up in the {@link ScriptInterface}, and the {@link WebView} is then told to execute all
+ * queued calls on the UI thread.
+ */
+public class WebViewScriptHost implements ScriptHost {
+
+    private final static String SCRIPT_INTERFACE_NAME = "Tomahawk";
+
+    private final static String ASSET_BASE_URL = "file:///android_asset/";
+
+    private final static String DISPATCH_CALLS_URL = "javascript:Tomahawk.dispatchCalls();";
+
+    private WebView mScriptEngine;
+
+    private ScriptInterface mScriptInterface;
+
+    private Handler mUiThreadHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Construct a new {@link WebViewScriptHost}
+     *
+     * @param context        the {@link Context} needed to create the {@link WebView}
+     * @param scriptResolver the {@link ScriptResolver} this {@link WebViewScriptHost} runs the
+     *                       javascript of
+     */
+    public WebViewScriptHost(Context context, ScriptResolver scriptResolver) {
+        mScriptEngine = new WebView(context);
+        WebSettings settings = mScriptEngine.getSettings();
+        settings.setJavaScriptEnabled(true);
+        settings.setDatabaseEnabled(true);
+        settings.setDomStorageEnabled(true);
+        mScriptEngine.setWebChromeClient(new TomahawkWebChromeClient());
+        mScriptEngine.setWebViewClient(new ScriptEngine(scriptResolver, this));
+        mScriptInterface = new ScriptInterface(scriptResolver, this);
+        mScriptEngine.addJavascriptInterface(mScriptInterface, SCRIPT_INTERFACE_NAME);
+    }
+
+    /**
+     * Loads the .js script from the given path. All http requests are made through the {@link
+     * ScriptInterface}, so the page's origin doesn't matter.
+     */
+    @Override
+    public void load(String scriptPath) {
+        mScriptEngine.loadDataWithBaseURL(ASSET_BASE_URL, "<!DOCTYPE html><html><body>"
+                + "<script src=\"js/tomahawk_android.js\" type=\"text/javascript\"></script>"
+                + "<script src=\"js/tomahawk.js\" type=\"text/javascript\"></script>"
+                + "<script src=\"" + scriptPath + "\" type=\"text/javascript\"></script>"
+                + "</body></html>", "text/html", null, null);
+    }
+
+    /**
+     * This method calls the js function resolver.init().
+     */
+    @Override
+    public void callInit() {
+        mScriptInterface.queueCall(ScriptInterface.CALL_INIT, R.id.scriptresolver_resolver_init,
+                false);
+        dispatchCalls();
+    }
+
+    /**
+     * This method tries to get the {@link Resolver}'s settings.
+     */
+    @Override
+    public void callSettings() {
+        mScriptInterface.queueCall(ScriptInterface.CALL_SETTINGS,
+                R.id.scriptresolver_resolver_settings, true);
+        dispatchCalls();
+    }
+
+    /**
+     * This method tries to get the {@link Resolver}'s UserConfig.
+     */
+    @Override
+    public void callUserConfig() {
+        mScriptInterface.queueCall(ScriptInterface.CALL_USERCONFIG,
+                R.id.scriptresolver_resolver_userconfig, true);
+        dispatchCalls();
+    }
+
+    /**
+     * Invoke the javascript to resolve the given {@link Query}.
+     *
+     * @param query the {@link Query} which should be resolved
+     */
+    @Override
+    public void resolve(Query query) {
+        mScriptInterface.queueResolveCall(query);
+        dispatchCalls();
+    }
+
+    /**
+     * Invoke the javascript to resolve all of the given {@link Query}s. All resolve calls are
+     * being executed by the {@link WebView} within one single javascript call.
+     *
+     * @param queries the {@link Query}s which should be resolved
+     */
+    @Override
+    public void resolve(ArrayList<Query> queries) {
+        for (Query query : queries) {
+            mScriptInterface.queueResolveCall(query);
+        }
+        dispatchCalls();
+    }
+
+    /**
+     * Destroy the {@link WebView}
+     */
+    @Override
+    public void release() {
+        mUiThreadHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mScriptEngine.destroy();
+            }
+        });
+    }
+
+    /**
+     * Let the javascript execute all calls, which are queued up in the {@link ScriptInterface}
+     */
+    @Override
+    public void dispatchCalls() {
+        mUiThreadHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mScriptEngine.loadUrl(DISPATCH_CALLS_URL);
+            }
+        });
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.tomahawk.libtomahawk.resolver.spotify;
 
+import org.tomahawk.libtomahawk.resolver.IconResolver;
 import org.tomahawk.libtomahawk.resolver.Query;
 import org.tomahawk.libtomahawk.resolver.Resolver;
 import org.tomahawk.libtomahawk.resolver.Result;
@@ -26,12 +27,15 @@ import org.tomahawk.tomahawk_android.TomahawkApp;
 import android.graphics.drawable.Drawable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link Resolver} which resolves {@link org.tomahawk.libtomahawk.collection.Track}s via
  * libspotify
  */
-public class SpotifyResolver implements Resolver {
+public class SpotifyResolver implements IconResolver {
 
     private final static String TAG = SpotifyResolver.class.getName();
 
@@ -49,6 +53,10 @@ public class SpotifyResolver implements Resolver {
 
     private ArrayList<Result> mResults = new ArrayList<Result>();
 
+    // The ids of all cancelled Querys, which libspotify hasn't finished searching for yet
+    private Set<String> mCancelledQids = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     /**
      * Construct a new {@link SpotifyResolver}
      *
@@ -59,7 +67,6 @@ public class SpotifyResolver implements Resolver {
     public SpotifyResolver(int id, TomahawkApp tomahawkApp) {
         mTomahawkApp = tomahawkApp;
         mId = id;
-        mIcon = mTomahawkApp.getResources().getDrawable(R.drawable.spotify_icon);
         mWeight = 100;
         mReady = false;
         mStopped = true;
@@ -74,10 +81,21 @@ public class SpotifyResolver implements Resolver {
     }
 
     /**
-     * @return this {@link Resolver}'s icon
+     * @return always false, because Spotify's catalogue is remote
+     */
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * @return this {@link Resolver}'s icon. It is loaded on first use.
      */
     @Override
     public Drawable getIcon() {
+        if (mIcon == null) {
+            mIcon = mTomahawkApp.getResources().getDrawable(R.drawable.spotify_icon);
+        }
         return mIcon;
     }
 
@@ -96,6 +114,26 @@ public class SpotifyResolver implements Resolver {
         }
     }
 
+    /**
+     * Resolve all of the given {@link Query}s. libspotify doesn't offer a batch search, so every
+     * {@link Query} is handed over to libspotify separately.
+     */
+    @Override
+    public void resolve(ArrayList<Query> queries) {
+        for (Query query : queries) {
+            resolve(query);
+        }
+    }
+
+    /**
+     * libspotify doesn't offer a way to abort a search, so we only make sure that the {@link
+     * Result}s of the given {@link Query} aren't reported
+     */
+    @Override
+    public void cancel(Query query) {
+        mCancelledQids.add(query.getQid());
+    }
+
     /**
      * @return this {@link Resolver}'s id
      */
@@ -112,6 +150,15 @@ public class SpotifyResolver implements Resolver {
         return mWeight;
     }
 
+    /**
+     * @return 0, so that the {@link org.tomahawk.libtomahawk.resolver.PipeLine}'s default timeout
+     * is being used
+     */
+    @Override
+    public int getTimeout() {
+        return 0;
+    }
+
     /**
      * Add the given {@link Result} to our {@link ArrayList} of {@link Result}s
      */
@@ -125,8 +172,11 @@ public class SpotifyResolver implements Resolver {
      */
     public void onResolved(String qid) {
         mStopped = true;
+        if (mCancelledQids.remove(qid)) {
+            return;
+        }
         // report our results to the pipeline
-        mTomahawkApp.getPipeLine().reportResults(qid, mResults);
+        mTomahawkApp.getPipeLine().reportResults(this, qid, mResults);
     }
 
     /**
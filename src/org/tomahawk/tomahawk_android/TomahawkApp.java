@@ -24,12 +24,17 @@ import org.tomahawk.libtomahawk.collection.Collection;
 import org.tomahawk.libtomahawk.collection.Source;
 import org.tomahawk.libtomahawk.collection.SourceList;
 import org.tomahawk.libtomahawk.collection.UserCollection;
+import org.tomahawk.libtomahawk.database.ResolutionsDataSource;
+import org.tomahawk.libtomahawk.database.TomahawkSQLiteHelper;
 import org.tomahawk.libtomahawk.database.UserPlaylistsDataSource;
 import org.tomahawk.libtomahawk.hatchet.InfoSystem;
 import org.tomahawk.libtomahawk.resolver.DataBaseResolver;
 import org.tomahawk.libtomahawk.resolver.PipeLine;
 import org.tomahawk.libtomahawk.resolver.ScriptResolver;
 import org.tomahawk.libtomahawk.resolver.spotify.SpotifyResolver;
+import org.tomahawk.libtomahawk.utils.IdGenerator;
+import org.tomahawk.libtomahawk.utils.Platform;
+import org.tomahawk.tomahawk_android.utils.AndroidPlatform;
 import org.tomahawk.tomahawk_android.utils.TomahawkExceptionReporter;
 
 import android.accounts.AccountManager;
@@ -40,6 +45,8 @@ import android.content.Intent;
 import android.content.IntentFilter;
 import android.util.Log;
 
+import java.io.File;
+
 /**
  * This class contains represents the Application core.
  */
@@ -66,6 +73,8 @@ public class TomahawkApp extends Application {
 
     public static final int RESOLVER_ID_SPOTIFY = 200;
 
+    private static final long HTTP_CACHE_SIZE = 10 * 1024 * 1024;
+
     private static IntentFilter sCollectionUpdateIntentFilter = new IntentFilter(
             Collection.COLLECTION_UPDATED);
 
@@ -81,9 +90,9 @@ public class TomahawkApp extends Application {
 
     private InfoSystem mInfoSystem;
 
-    private UserPlaylistsDataSource mUserPlaylistsDataSource;
+    private TomahawkSQLiteHelper mDbHelper;
 
-    private static long mIdCounter = 10000000;
+    private UserPlaylistsDataSource mUserPlaylistsDataSource;
 
     /**
      * Handles incoming {@link Collection} updated broadcasts.
@@ -110,15 +119,18 @@ public class TomahawkApp extends Application {
         TomahawkExceptionReporter.init(this);
         super.onCreate();
         sApplicationContext = getApplicationContext();
+        Platform.setInstance(new AndroidPlatform());
+        installHttpCache();
 
         mSourceList = new SourceList();
-        mPipeLine = new PipeLine(this);
+        mPipeLine = new PipeLine();
         mInfoSystem = new InfoSystem(this);
         if (mCollectionUpdatedReceiver == null) {
             mCollectionUpdatedReceiver = new CollectionUpdateReceiver();
             registerReceiver(mCollectionUpdatedReceiver, sCollectionUpdateIntentFilter);
         }
         mPipeLine.addResolver(new DataBaseResolver(RESOLVER_ID_USERCOLLECTION, this));
+        // ScriptResolvers only load their script once they are asked to resolve the first Query
         ScriptResolver scriptResolver = new ScriptResolver(RESOLVER_ID_JAMENDO, this,
                 "js/jamendo/jamendo-resolver.js");
         mPipeLine.addResolver(scriptResolver);
@@ -133,14 +145,40 @@ public class TomahawkApp extends Application {
         SpotifyResolver spotifyResolver = new SpotifyResolver(RESOLVER_ID_SPOTIFY, this);
         mPipeLine.addResolver(spotifyResolver);
 
+        // Every data source shares this helper, so that there is only one connection to our
+        // database
+        mDbHelper = new TomahawkSQLiteHelper(this);
+
         // Initialize UserPlaylistsDataSource, which makes it possible to retrieve persisted
         // UserPlaylists
-        mUserPlaylistsDataSource = new UserPlaylistsDataSource(this, mPipeLine);
+        mUserPlaylistsDataSource = new UserPlaylistsDataSource(mDbHelper, mPipeLine);
         mUserPlaylistsDataSource.open();
 
+        // Initialize ResolutionsDataSource, which makes it possible to skip resolving Tracks that
+        // have already been resolved before
+        ResolutionsDataSource resolutionsDataSource =
+                new ResolutionsDataSource(mDbHelper, mPipeLine);
+        resolutionsDataSource.open();
+        mPipeLine.setResolutionStore(resolutionsDataSource);
+
         initialize();
     }
 
+    /**
+     * Install a response cache, which is used by every HttpURLConnection. HttpResponseCache is only
+     * available since API level 13, so we have to go through reflection.
+     */
+    private void installHttpCache() {
+        try {
+            File httpCacheDir = new File(getCacheDir(), "http");
+            Class.forName("android.net.http.HttpResponseCache")
+                    .getMethod("install", File.class, long.class)
+                    .invoke(null, httpCacheDir, HTTP_CACHE_SIZE);
+        } catch (Exception e) {
+            Log.d(TAG, "installHttpCache: HttpResponseCache is not available");
+        }
+    }
+
     /**
      * Called when a Collection has been updated.
      */
@@ -201,10 +239,10 @@ public class TomahawkApp extends Application {
     }
 
     public static long getUniqueId() {
-        return mIdCounter++;
+        return IdGenerator.getUniqueId();
     }
 
     public static String getUniqueStringId() {
-        return String.valueOf(mIdCounter++);
+        return IdGenerator.getUniqueStringId();
     }
 }
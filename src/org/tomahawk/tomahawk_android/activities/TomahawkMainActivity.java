@@ -20,6 +20,7 @@ package org.tomahawk.tomahawk_android.activities;
 
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.BitmapItem;
 import org.tomahawk.libtomahawk.collection.Collection;
 import org.tomahawk.libtomahawk.collection.CollectionLoader;
 import org.tomahawk.libtomahawk.collection.SourceList;
@@ -28,6 +29,7 @@ import org.tomahawk.libtomahawk.collection.UserCollection;
 import org.tomahawk.libtomahawk.collection.UserPlaylist;
 import org.tomahawk.libtomahawk.hatchet.InfoSystem;
 import org.tomahawk.libtomahawk.resolver.PipeLine;
+import org.tomahawk.libtomahawk.utils.EventBus;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 import org.tomahawk.tomahawk_android.adapters.TomahawkMenuAdapter;
@@ -190,14 +192,22 @@ public class TomahawkMainActivity extends ActionBarActivity
             if (Collection.COLLECTION_UPDATED.equals(intent.getAction())) {
                 onCollectionUpdated();
             }
-            if (PlaybackService.BROADCAST_NEWTRACK.equals(intent.getAction())) {
-                if (mPlaybackService != null) {
-                    setNowPlayingInfo(mPlaybackService.getCurrentTrack());
-                }
-            }
         }
     }
 
+    /**
+     * Handles incoming {@link PlaybackService} events.
+     */
+    private EventBus.Subscriber mPlaybackServiceSubscriber = new EventBus.Subscriber() {
+
+        @Override
+        public void onEvent(String topic, String key) {
+            if (mPlaybackService != null) {
+                setNowPlayingInfo(mPlaybackService.getCurrentTrack());
+            }
+        }
+    };
+
     /**
      * Used to handle clicks on one of the breadcrumb items
      */
@@ -410,8 +420,8 @@ public class TomahawkMainActivity extends ActionBarActivity
         // Register intents that the BroadcastReceiver should listen to
         IntentFilter intentFilter = new IntentFilter(Collection.COLLECTION_UPDATED);
         registerReceiver(mTomahawkMainReceiver, intentFilter);
-        intentFilter = new IntentFilter(PlaybackService.BROADCAST_NEWTRACK);
-        registerReceiver(mTomahawkMainReceiver, intentFilter);
+        EventBus.getInstance().subscribe(PlaybackService.BROADCAST_NEWTRACK, EventBus.THREAD_MAIN,
+                mPlaybackServiceSubscriber);
 
         mNowPlayingFrame = findViewById(R.id.now_playing_frame);
         mNowPlayingFrame.setOnClickListener(new View.OnClickListener() {
@@ -437,6 +447,7 @@ public class TomahawkMainActivity extends ActionBarActivity
             unregisterReceiver(mTomahawkMainReceiver);
             mTomahawkMainReceiver = null;
         }
+        EventBus.getInstance().unsubscribe(mPlaybackServiceSubscriber);
     }
 
     @Override
@@ -581,7 +592,7 @@ public class TomahawkMainActivity extends ActionBarActivity
                 if (nowPlayingInfoAlbumArt != null && nowPlayingInfoArtist != null
                         && nowPlayingInfoTitle != null) {
                     if (track.getAlbum() != null) {
-                        track.getAlbum().loadBitmap(this, nowPlayingInfoAlbumArt);
+                        BitmapItem.loadBitmap(this, track.getAlbum(), nowPlayingInfoAlbumArt);
                     } else {
                         nowPlayingInfoAlbumArt
                                 .setImageResource(R.drawable.no_album_art_placeholder);
@@ -17,6 +17,7 @@
  */
 package org.tomahawk.tomahawk_android.adapters;
 
+import org.tomahawk.libtomahawk.collection.BitmapItem;
 import org.tomahawk.libtomahawk.collection.Playlist;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.services.PlaybackService;
@@ -81,12 +82,13 @@ public class AlbumArtSwipeAdapter extends PagerAdapter implements ViewPager.OnPa
             if (mPlaylist.isRepeating()
                     && mPlaylist.peekTrackAtPos((position) % mPlaylist.getCount()).getAlbum()
                     != null) {
-                mPlaylist.peekTrackAtPos((position) % mPlaylist.getCount()).getAlbum()
-                        .loadBitmap(mContext, albumArtImageView);
+                BitmapItem.loadBitmap(mContext,
+                        mPlaylist.peekTrackAtPos((position) % mPlaylist.getCount()).getAlbum(),
+                        albumArtImageView);
             } else if (!mPlaylist.isRepeating()
                     && mPlaylist.peekTrackAtPos(position).getAlbum() != null) {
-                mPlaylist.peekTrackAtPos(position).getAlbum()
-                        .loadBitmap(mContext, albumArtImageView);
+                BitmapItem.loadBitmap(mContext, mPlaylist.peekTrackAtPos(position).getAlbum(),
+                        albumArtImageView);
             } else {
                 albumArtImageView.setImageResource(R.drawable.no_album_art_placeholder);
             }
@@ -19,6 +19,8 @@ package org.tomahawk.tomahawk_android.adapters;
 
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.BitmapItem;
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.tomahawk_android.R;
 
 import android.app.Activity;
@@ -93,7 +95,7 @@ public class TomahawkGridAdapter extends TomahawkBaseAdapter {
                 viewHolder.textFirstLine.setText(((TomahawkListItem) item).getName());
                 viewHolder.textSecondLine.setText(((TomahawkListItem) item).getArtist().getName());
                 if (item instanceof Album) {
-                    ((Album) item).loadBitmap(mActivity, viewHolder.imageViewLeft);
+                    BitmapItem.loadBitmap(mActivity, (Album) item, viewHolder.imageViewLeft);
                 } else if (item instanceof Artist) {
                     //                    ((Artist) item).loadBitmap(mContext, viewHolder.imageViewLeft);
                 }
@@ -19,8 +19,11 @@ package org.tomahawk.tomahawk_android.adapters;
 
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.BitmapItem;
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.libtomahawk.collection.Track;
 import org.tomahawk.libtomahawk.collection.UserPlaylist;
+import org.tomahawk.libtomahawk.resolver.IconResolver;
 import org.tomahawk.libtomahawk.utils.TomahawkUtils;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.views.TomahawkStickyListHeadersListView;
@@ -58,7 +61,7 @@ public class TomahawkListAdapter extends TomahawkBaseAdapter implements StickyLi
 
     private boolean mShowContentHeader = false;
 
-    private TomahawkBaseAdapter.TomahawkListItem mContentHeaderTomahawkListItem;
+    private TomahawkListItem mContentHeaderTomahawkListItem;
 
     private boolean mShowHighlightingAndPlaystate = false;
 
@@ -124,13 +127,13 @@ public class TomahawkListAdapter extends TomahawkBaseAdapter implements StickyLi
      */
     public void setShowContentHeader(boolean showContentHeader,
             TomahawkStickyListHeadersListView list,
-            TomahawkBaseAdapter.TomahawkListItem contentHeaderTomahawkListItem) {
+            TomahawkListItem contentHeaderTomahawkListItem) {
         mContentHeaderTomahawkListItem = contentHeaderTomahawkListItem;
         mShowContentHeader = showContentHeader;
         View contentHeaderView = mLayoutInflater.inflate(R.layout.content_header, null);
         if (contentHeaderView != null && list.getHeaderViewsCount() == 0) {
             if (mContentHeaderTomahawkListItem instanceof Album) {
-                ((Album) mContentHeaderTomahawkListItem).loadBitmap(mActivity,
+                BitmapItem.loadBitmap(mActivity, (Album) mContentHeaderTomahawkListItem,
                         (ImageView) contentHeaderView.findViewById(R.id.content_header_image));
             } else if (mContentHeaderTomahawkListItem instanceof Artist) {
                 //((Artist) mContentHeaderTomahawkListItem).loadBitmap(mContext, (ImageView) contentHeaderView.findViewById(R.id.content_header_image));
@@ -288,7 +291,7 @@ public class TomahawkListAdapter extends TomahawkBaseAdapter implements StickyLi
                         viewHolder.textSecondLine.setText(((Album) item).getArtist().getName());
                     }
                     viewHolder.imageViewLeft.setVisibility(ImageView.VISIBLE);
-                    ((Album) item).loadBitmap(mActivity, viewHolder.imageViewLeft);
+                    BitmapItem.loadBitmap(mActivity, (Album) item, viewHolder.imageViewLeft);
                 }
             } else if (viewHolder.viewType
                     == R.id.tomahawklistadapter_viewtype_doublelineplaystateimagelistitem) {
@@ -333,12 +336,11 @@ public class TomahawkListAdapter extends TomahawkBaseAdapter implements StickyLi
                     if (mShowResolvedBy && ((Track) item).isResolved()) {
                         viewHolder.imageViewRight.setVisibility(ImageView.VISIBLE);
                         Drawable resolverIcon = null;
-                        if (((Track) item).getResolver() != null) {
-                            resolverIcon = ((Track) item).getResolver().getIcon();
+                        if (((Track) item).getResolver() instanceof IconResolver) {
+                            resolverIcon = ((IconResolver) ((Track) item).getResolver()).getIcon();
                         }
                         if (resolverIcon != null) {
-                            viewHolder.imageViewRight
-                                    .setImageDrawable(((Track) item).getResolver().getIcon());
+                            viewHolder.imageViewRight.setImageDrawable(resolverIcon);
                         } else {
                             viewHolder.imageViewRight
                                     .setImageResource(R.drawable.ic_resolver_default);
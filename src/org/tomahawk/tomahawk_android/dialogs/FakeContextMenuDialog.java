@@ -17,9 +17,9 @@
  */
 package org.tomahawk.tomahawk_android.dialogs;
 
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkContextMenuAdapter;
 import org.tomahawk.tomahawk_android.utils.FakeContextMenu;
 
@@ -43,7 +43,7 @@ public class FakeContextMenuDialog extends DialogFragment {
 
     private String[] mMenuItemTitles;
 
-    private TomahawkBaseAdapter.TomahawkListItem mTomahawkListItem;
+    private TomahawkListItem mTomahawkListItem;
 
     private FakeContextMenu mFakeContextMenu;
 
@@ -74,13 +74,13 @@ public class FakeContextMenuDialog extends DialogFragment {
      * Construct a {@link FakeContextMenuDialog}
      *
      * @param menuItemTitles   array of {@link String} containing all menu entry texts
-     * @param tomahawkListItem the {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}
+     * @param tomahawkListItem the {@link org.tomahawk.libtomahawk.collection.TomahawkListItem}
      *                         this {@link FakeContextMenuDialog} is associated with
      * @param fakeContextMenu  reference to the {@link FakeContextMenu}, so that we can access its
      *                         implementation of onFakeContextItemSelected(...)
      */
     public FakeContextMenuDialog(String[] menuItemTitles,
-            TomahawkBaseAdapter.TomahawkListItem tomahawkListItem,
+            TomahawkListItem tomahawkListItem,
             FakeContextMenu fakeContextMenu) {
         setRetainInstance(true);
         mMenuItemTitles = menuItemTitles;
@@ -20,20 +20,18 @@ package org.tomahawk.tomahawk_android.fragments;
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
 import org.tomahawk.libtomahawk.collection.Collection;
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.libtomahawk.collection.UserCollection;
 import org.tomahawk.libtomahawk.hatchet.AlbumsInfo;
 import org.tomahawk.libtomahawk.hatchet.ArtistInfo;
 import org.tomahawk.libtomahawk.hatchet.InfoRequestData;
 import org.tomahawk.libtomahawk.hatchet.InfoSystem;
+import org.tomahawk.libtomahawk.utils.EventBus;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkGridAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkListAdapter;
 
-import android.content.BroadcastReceiver;
-import android.content.Context;
-import android.content.Intent;
-import android.content.IntentFilter;
 import android.os.Bundle;
 import android.support.v4.content.Loader;
 import android.view.View;
@@ -49,48 +47,44 @@ import java.util.List;
  */
 public class AlbumsFragment extends TomahawkFragment implements OnItemClickListener {
 
-    private AlbumFragmentReceiver mAlbumFragmentReceiver;
-
     /**
-     * Handles incoming broadcasts.
+     * Handles incoming {@link InfoSystem} events.
      */
-    private class AlbumFragmentReceiver extends BroadcastReceiver {
+    private EventBus.Subscriber mInfoSystemSubscriber = new EventBus.Subscriber() {
 
         @Override
-        public void onReceive(Context context, Intent intent) {
-            if (InfoSystem.INFOSYSTEM_RESULTSREPORTED.equals(intent.getAction())) {
-                String requestId = intent
-                        .getStringExtra(InfoSystem.INFOSYSTEM_RESULTSREPORTED_REQUESTID);
-
-                if (mCurrentRequestIds.contains(requestId)) {
-                    mCurrentRequestIds.remove(requestId);
-                    InfoRequestData infoRequestData = mInfoSystem.getInfoRequestById(requestId);
-                    if (infoRequestData.getType()
-                            == InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTALBUMS) {
-                        if (mArtist == null) {
-                            mArtist = new Artist(TomahawkApp.getUniqueId());
-                        }
-                        ArrayList<Album> albums = InfoRequestData.albumInfoListToAlbumList(
-                                ((AlbumsInfo) infoRequestData.mResult).getAlbums());
-                        mArtist.clearAlbums();
-                        for (Album album : albums) {
-                            mArtist.addAlbum(album);
-                        }
-                        updateAdapter();
-                    } else if (infoRequestData.getType()
-                            == InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTINFO) {
-                        if (mArtist == null) {
-                            mArtist = new Artist(TomahawkApp.getUniqueId());
-                        }
-                        mArtist = InfoRequestData
-                                .artistInfoToArtist((ArtistInfo) infoRequestData.mResult,
-                                        mArtist);
-                        updateAdapter();
+        public void onEvent(String topic, String key) {
+            if (mCurrentRequestIds.contains(key)) {
+                mCurrentRequestIds.remove(key);
+                InfoRequestData infoRequestData = mInfoSystem.takeInfoRequestById(key);
+                if (infoRequestData == null) {
+                    return;
+                }
+                if (infoRequestData.getType()
+                        == InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTALBUMS) {
+                    if (mArtist == null) {
+                        mArtist = new Artist(TomahawkApp.getUniqueId());
+                    }
+                    ArrayList<Album> albums = InfoRequestData.albumInfoListToAlbumList(
+                            ((AlbumsInfo) infoRequestData.mResult).getAlbums());
+                    mArtist.clearAlbums();
+                    for (Album album : albums) {
+                        mArtist.addAlbum(album);
                     }
+                    updateAdapter();
+                } else if (infoRequestData.getType()
+                        == InfoRequestData.INFOREQUESTDATA_TYPE_ARTISTINFO) {
+                    if (mArtist == null) {
+                        mArtist = new Artist(TomahawkApp.getUniqueId());
+                    }
+                    mArtist = InfoRequestData
+                            .artistInfoToArtist((ArtistInfo) infoRequestData.mResult,
+                                    mArtist);
+                    updateAdapter();
                 }
             }
         }
-    }
+    };
 
     /**
      * Pulls all the necessary information from the {@link Bundle}s that are being sent, when this
@@ -122,32 +116,24 @@ public class AlbumsFragment extends TomahawkFragment implements OnItemClickListe
     }
 
     /**
-     * Initialize and register {@link AlbumFragmentReceiver}
+     * Subscribe to {@link InfoSystem} events
      */
     @Override
     public void onResume() {
         super.onResume();
 
-        if (mAlbumFragmentReceiver == null) {
-            mAlbumFragmentReceiver = new AlbumFragmentReceiver();
-            IntentFilter intentFilter = new IntentFilter(Collection.COLLECTION_UPDATED);
-            getActivity().registerReceiver(mAlbumFragmentReceiver, intentFilter);
-            intentFilter = new IntentFilter(InfoSystem.INFOSYSTEM_RESULTSREPORTED);
-            getActivity().registerReceiver(mAlbumFragmentReceiver, intentFilter);
-        }
+        EventBus.getInstance().subscribe(InfoSystem.INFOSYSTEM_RESULTSREPORTED,
+                EventBus.THREAD_MAIN, mInfoSystemSubscriber);
     }
 
     /**
-     * Unregister {@link AlbumFragmentReceiver} and delete reference
+     * Unsubscribe from {@link InfoSystem} events
      */
     @Override
     public void onPause() {
         super.onPause();
 
-        if (mAlbumFragmentReceiver != null) {
-            getActivity().unregisterReceiver(mAlbumFragmentReceiver);
-            mAlbumFragmentReceiver = null;
-        }
+        EventBus.getInstance().unsubscribe(mInfoSystemSubscriber);
     }
 
     /**
@@ -191,12 +177,10 @@ public class AlbumsFragment extends TomahawkFragment implements OnItemClickListe
      * Update this {@link TomahawkFragment}'s {@link TomahawkBaseAdapter} content
      */
     private void updateAdapter() {
-        List<TomahawkBaseAdapter.TomahawkListItem> albums
-                = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
+        List<TomahawkListItem> albums = new ArrayList<TomahawkListItem>();
         if (mArtist != null) {
             albums.addAll(mArtist.getAlbums());
-            List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                    = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+            List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
             listArray.add(albums);
             if (getListAdapter() == null) {
                 TomahawkListAdapter tomahawkListAdapter = new TomahawkListAdapter(
@@ -211,8 +195,7 @@ public class AlbumsFragment extends TomahawkFragment implements OnItemClickListe
             getListView().setOnItemClickListener(this);
         } else {
             albums.addAll(mTomahawkMainActivity.getUserCollection().getAlbums());
-            List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                    = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+            List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
             listArray.add(albums);
             if (getGridAdapter() == null) {
                 TomahawkGridAdapter tomahawkGridAdapter = new TomahawkGridAdapter(getActivity(),
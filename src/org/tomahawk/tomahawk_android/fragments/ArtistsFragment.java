@@ -19,8 +19,8 @@ package org.tomahawk.tomahawk_android.fragments;
 
 import org.tomahawk.libtomahawk.collection.Artist;
 import org.tomahawk.libtomahawk.collection.Collection;
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkListAdapter;
 
 import android.os.Bundle;
@@ -74,10 +74,8 @@ public class ArtistsFragment extends TomahawkFragment implements OnItemClickList
     public void onLoadFinished(Loader<Collection> loader, Collection coll) {
         super.onLoadFinished(loader, coll);
 
-        List<TomahawkBaseAdapter.TomahawkListItem> artists
-                = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>(coll.getArtists());
-        List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+        List<TomahawkListItem> artists = new ArrayList<TomahawkListItem>(coll.getArtists());
+        List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
         listArray.add(artists);
         setListAdapter(new TomahawkListAdapter(getActivity(), listArray));
 
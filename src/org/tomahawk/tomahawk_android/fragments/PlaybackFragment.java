@@ -19,11 +19,12 @@
  */
 package org.tomahawk.tomahawk_android.fragments;
 
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.utils.EventBus;
 import org.tomahawk.libtomahawk.utils.TomahawkUtils;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkListAdapter;
 import org.tomahawk.tomahawk_android.dialogs.CreateUserPlaylistDialog;
 import org.tomahawk.tomahawk_android.services.PlaybackService;
@@ -98,27 +99,37 @@ public class PlaybackFragment extends TomahawkFragment
             if (TomahawkMainActivity.PLAYBACKSERVICE_READY.equals(intent.getAction())) {
                 onPlaybackServiceReady();
             }
-            if (PlaybackService.BROADCAST_NEWTRACK.equals(intent.getAction())) {
+        }
+    }
+
+    /**
+     * Handles incoming {@link PlaybackService} events.
+     */
+    private EventBus.Subscriber mPlaybackServiceSubscriber = new EventBus.Subscriber() {
+
+        @Override
+        public void onEvent(String topic, String key) {
+            if (PlaybackService.BROADCAST_NEWTRACK.equals(topic)) {
                 if (mPlaybackControlsFragment != null) {
                     mPlaybackControlsFragment.onTrackChanged();
                 }
                 onTrackChanged();
                 mTomahawkMainActivity.startLoadingAnimation();
             }
-            if (PlaybackService.BROADCAST_PLAYLISTCHANGED.equals(intent.getAction())) {
+            if (PlaybackService.BROADCAST_PLAYLISTCHANGED.equals(topic)) {
                 if (mPlaybackControlsFragment != null) {
                     mPlaybackControlsFragment.onPlaylistChanged();
                 }
                 onPlaylistChanged();
             }
-            if (PlaybackService.BROADCAST_PLAYSTATECHANGED.equals(intent.getAction())) {
+            if (PlaybackService.BROADCAST_PLAYSTATECHANGED.equals(topic)) {
                 if (mPlaybackControlsFragment != null) {
                     mPlaybackControlsFragment.onPlaystateChanged();
                 }
                 onPlaystateChanged();
             }
         }
-    }
+    };
 
     @Override
     public void onViewCreated(View view, Bundle savedInstanceState) {
@@ -138,14 +149,15 @@ public class PlaybackFragment extends TomahawkFragment
             mPlaybackFragmentBroadcastReceiver = new PlaybackFragmentBroadcastReceiver();
         }
         // Register intents that mPlaybackFragmentBroadcastReceiver should listen to
-        IntentFilter intentFilter = new IntentFilter(PlaybackService.BROADCAST_NEWTRACK);
-        mTomahawkMainActivity.registerReceiver(mPlaybackFragmentBroadcastReceiver, intentFilter);
-        intentFilter = new IntentFilter(PlaybackService.BROADCAST_PLAYLISTCHANGED);
-        mTomahawkMainActivity.registerReceiver(mPlaybackFragmentBroadcastReceiver, intentFilter);
-        intentFilter = new IntentFilter(PlaybackService.BROADCAST_PLAYSTATECHANGED);
-        mTomahawkMainActivity.registerReceiver(mPlaybackFragmentBroadcastReceiver, intentFilter);
-        intentFilter = new IntentFilter(TomahawkMainActivity.PLAYBACKSERVICE_READY);
+        IntentFilter intentFilter = new IntentFilter(TomahawkMainActivity.PLAYBACKSERVICE_READY);
         mTomahawkMainActivity.registerReceiver(mPlaybackFragmentBroadcastReceiver, intentFilter);
+        // Subscribe to the PlaybackService's events
+        EventBus.getInstance().subscribe(PlaybackService.BROADCAST_NEWTRACK, EventBus.THREAD_MAIN,
+                mPlaybackServiceSubscriber);
+        EventBus.getInstance().subscribe(PlaybackService.BROADCAST_PLAYLISTCHANGED,
+                EventBus.THREAD_MAIN, mPlaybackServiceSubscriber);
+        EventBus.getInstance().subscribe(PlaybackService.BROADCAST_PLAYSTATECHANGED,
+                EventBus.THREAD_MAIN, mPlaybackServiceSubscriber);
     }
 
     @Override
@@ -156,6 +168,7 @@ public class PlaybackFragment extends TomahawkFragment
             mTomahawkMainActivity.unregisterReceiver(mPlaybackFragmentBroadcastReceiver);
             mPlaybackFragmentBroadcastReceiver = null;
         }
+        EventBus.getInstance().unsubscribe(mPlaybackServiceSubscriber);
     }
 
     @Override
@@ -276,11 +289,9 @@ public class PlaybackFragment extends TomahawkFragment
     private void initAdapter() {
         PlaybackService playbackService = mTomahawkMainActivity.getPlaybackService();
         if (playbackService != null && playbackService.getCurrentPlaylist() != null) {
-            List<TomahawkBaseAdapter.TomahawkListItem> tracks
-                    = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
+            List<TomahawkListItem> tracks = new ArrayList<TomahawkListItem>();
             tracks.addAll(playbackService.getCurrentPlaylist().getTracks());
-            List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                    = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+            List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
             listArray.add(tracks);
             TomahawkListAdapter tomahawkListAdapter = new TomahawkListAdapter(mTomahawkMainActivity,
                     listArray);
@@ -361,8 +372,7 @@ public class PlaybackFragment extends TomahawkFragment
         if (tomahawkListAdapter != null && playbackService != null
                 && playbackService.getCurrentPlaylist() != null
                 && playbackService.getCurrentPlaylist().getCount() > 0) {
-            ArrayList<TomahawkBaseAdapter.TomahawkListItem> tracks
-                    = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
+            ArrayList<TomahawkListItem> tracks = new ArrayList<TomahawkListItem>();
             tracks.addAll(playbackService.getCurrentPlaylist().getTracks());
             tomahawkListAdapter.setListWithIndex(0, tracks);
             tomahawkListAdapter.setHighlightedItem(
@@ -20,27 +20,28 @@ package org.tomahawk.tomahawk_android.fragments;
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
 import org.tomahawk.libtomahawk.collection.Collection;
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.libtomahawk.collection.Track;
 import org.tomahawk.libtomahawk.collection.UserCollection;
 import org.tomahawk.libtomahawk.collection.UserPlaylist;
 import org.tomahawk.libtomahawk.resolver.PipeLine;
 import org.tomahawk.libtomahawk.resolver.Query;
+import org.tomahawk.libtomahawk.utils.EventBus;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkListAdapter;
 import org.tomahawk.tomahawk_android.services.PlaybackService;
 
-import android.content.BroadcastReceiver;
 import android.content.Context;
-import android.content.Intent;
-import android.content.IntentFilter;
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Handler;
 import android.preference.PreferenceManager;
 import android.support.v4.content.Loader;
+import android.text.Editable;
 import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.view.KeyEvent;
 import android.view.View;
 import android.view.inputmethod.EditorInfo;
@@ -67,6 +68,9 @@ public class SearchableFragment extends TomahawkFragment
     public static final String SEARCHABLEFRAGMENT_QUERY_STRING
             = "org.tomahawk.tomahawk_android.SEARCHABLEFRAGMENT_QUERY_ID";
 
+    // The time in milliseconds we wait after the last keystroke, before we start resolving
+    private static final long SEARCH_DEBOUNCE_DELAY = 300;
+
     private SearchableFragment mSearchableFragment = this;
 
     private ArrayList<Track> mCurrentShownTracks;
@@ -77,28 +81,66 @@ public class SearchableFragment extends TomahawkFragment
 
     private String mCurrentQueryString;
 
-    private SearchableBroadcastReceiver mSearchableBroadcastReceiver;
+    // The id of the Query whose results are currently being shown
+    private String mCurrentQueryId;
+
+    private Handler mHandler = new Handler();
 
     private UserCollection mCollection;
 
     private EditText mSearchEditText = null;
 
     /**
-     * Handles incoming broadcasts.
+     * Handles incoming {@link PipeLine} events.
      */
-    private class SearchableBroadcastReceiver extends BroadcastReceiver {
+    private EventBus.Subscriber mPipeLineSubscriber = new EventBus.Subscriber() {
 
         @Override
-        public void onReceive(Context context, Intent intent) {
-            if (PipeLine.PIPELINE_RESULTSREPORTED_FULLTEXTQUERY.equals(intent.getAction())) {
-                String queryId = intent.getStringExtra(PipeLine.PIPELINE_RESULTSREPORTED_QID);
+        public void onEvent(String topic, String key) {
+            if (key != null && key.equals(mCurrentQueryId)) {
                 mTomahawkMainActivity.getContentViewer()
-                        .getBackStackAtPosition(mCorrespondingHubId)
-                        .get(0).queryString = mCurrentQueryString;
-                showQueryResults(queryId);
+                        .getBackStackAtPosition(mCorrespondingHubId).get(0).queryString
+                        = mCurrentQueryString;
+                showQueryResults(key);
             }
         }
-    }
+    };
+
+    /**
+     * Resolves the text inside the search {@link EditText}, once the user has stopped typing
+     */
+    private Runnable mDebouncedSearchRunnable = new Runnable() {
+
+        @Override
+        public void run() {
+            if (mSearchEditText != null) {
+                String searchText = mSearchEditText.getText().toString();
+                if (!TextUtils.isEmpty(searchText) && !searchText.equals(mCurrentQueryString)) {
+                    resolveFullTextQuery(searchText);
+                }
+            }
+        }
+    };
+
+    /**
+     * Restarts the debounce delay with every keystroke
+     */
+    private TextWatcher mSearchTextWatcher = new TextWatcher() {
+
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        }
+
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+        }
+
+        @Override
+        public void afterTextChanged(Editable s) {
+            mHandler.removeCallbacks(mDebouncedSearchRunnable);
+            mHandler.postDelayed(mDebouncedSearchRunnable, SEARCH_DEBOUNCE_DELAY);
+        }
+    };
 
     /**
      * Restore the {@link String} inside the search {@link TextView}. Either through the
@@ -136,13 +178,9 @@ public class SearchableFragment extends TomahawkFragment
                 .findViewById(R.id.search_onlinesources_checkbox);
         onlineSourcesCheckBox.setOnCheckedChangeListener(this);
 
-        // Initialized and register this Fragment's BroadcastReceiver object
-        if (mSearchableBroadcastReceiver == null) {
-            mSearchableBroadcastReceiver = new SearchableBroadcastReceiver();
-            IntentFilter intentFilter = new IntentFilter(
-                    PipeLine.PIPELINE_RESULTSREPORTED_FULLTEXTQUERY);
-            mTomahawkMainActivity.registerReceiver(mSearchableBroadcastReceiver, intentFilter);
-        }
+        // Subscribe to the PipeLine's fulltext query results
+        EventBus.getInstance().subscribe(PipeLine.PIPELINE_RESULTSREPORTED_FULLTEXTQUERY,
+                EventBus.THREAD_MAIN, mPipeLineSubscriber);
 
         // If we have restored a CurrentQueryString, start searching, so that we show the proper
         // results again
@@ -162,10 +200,13 @@ public class SearchableFragment extends TomahawkFragment
                 .getSystemService(Context.INPUT_METHOD_SERVICE);
         imm.hideSoftInputFromWindow(mSearchEditText.getWindowToken(), 0);
 
-        // Unregister the Receiver and null the reference
-        if (mSearchableBroadcastReceiver != null) {
-            mTomahawkMainActivity.unregisterReceiver(mSearchableBroadcastReceiver);
-            mSearchableBroadcastReceiver = null;
+        // Unsubscribe from the PipeLine's events
+        EventBus.getInstance().unsubscribe(mPipeLineSubscriber);
+
+        // Don't resolve anything the user has typed before leaving
+        mHandler.removeCallbacks(mDebouncedSearchRunnable);
+        if (mSearchEditText != null) {
+            mSearchEditText.removeTextChangedListener(mSearchTextWatcher);
         }
     }
 
@@ -250,6 +291,7 @@ public class SearchableFragment extends TomahawkFragment
             InputMethodManager imm = (InputMethodManager) mTomahawkMainActivity
                     .getSystemService(Context.INPUT_METHOD_SERVICE);
             imm.hideSoftInputFromWindow(mSearchEditText.getWindowToken(), 0);
+            mHandler.removeCallbacks(mDebouncedSearchRunnable);
             String searchText = textView.getText().toString();
             if (searchText != null && !TextUtils.isEmpty(searchText)) {
                 addToAutoCompleteArray(searchText);
@@ -267,21 +309,20 @@ public class SearchableFragment extends TomahawkFragment
      */
     public void showQueryResults(String qid) {
         Query query = mPipeline.getQuery(qid);
+        if (query == null) {
+            return;
+        }
         mCurrentQueryString = query.getFullTextQuery();
-        List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
-        ArrayList<TomahawkBaseAdapter.TomahawkListItem> trackResultList
-                = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
+        List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
+        ArrayList<TomahawkListItem> trackResultList = new ArrayList<TomahawkListItem>();
         mCurrentShownTracks = query.getTrackResults();
         trackResultList.addAll(mCurrentShownTracks);
         listArray.add(trackResultList);
-        ArrayList<TomahawkBaseAdapter.TomahawkListItem> artistResultList
-                = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
+        ArrayList<TomahawkListItem> artistResultList = new ArrayList<TomahawkListItem>();
         mCurrentShownArtists = query.getArtistResults();
         artistResultList.addAll(mCurrentShownArtists);
         listArray.add(artistResultList);
-        ArrayList<TomahawkBaseAdapter.TomahawkListItem> albumResultList
-                = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
+        ArrayList<TomahawkListItem> albumResultList = new ArrayList<TomahawkListItem>();
         mCurrentShownAlbums = query.getAlbumResults();
         albumResultList.addAll(mCurrentShownAlbums);
         listArray.add(albumResultList);
@@ -316,8 +357,12 @@ public class SearchableFragment extends TomahawkFragment
      * @param searchText the EditText object which the listener is connected to
      */
     public void setSearchText(EditText searchText) {
+        if (mSearchEditText != null) {
+            mSearchEditText.removeTextChangedListener(mSearchTextWatcher);
+        }
         mSearchEditText = searchText;
         if (mSearchEditText != null) {
+            mSearchEditText.addTextChangedListener(mSearchTextWatcher);
             mSearchEditText.setOnEditorActionListener(this);
             mSearchEditText.setImeActionLabel("Go", KeyEvent.KEYCODE_ENTER);
             mSearchEditText.setImeOptions(EditorInfo.IME_FLAG_NO_EXTRACT_UI);
@@ -325,7 +370,8 @@ public class SearchableFragment extends TomahawkFragment
     }
 
     /**
-     * Invoke the resolving process with the given fullTextQuery {@link String}
+     * Invoke the resolving process with the given fullTextQuery {@link String}. The previous
+     * {@link Query} of this search session is superseded by the new one, so it is cancelled.
      */
     public void resolveFullTextQuery(String fullTextQuery) {
         mTomahawkMainActivity.getContentViewer().backToRoot(mCorrespondingHubId, false);
@@ -333,6 +379,11 @@ public class SearchableFragment extends TomahawkFragment
         CheckBox onlineSourcesCheckBox = (CheckBox) mTomahawkMainActivity
                 .findViewById(R.id.search_onlinesources_checkbox);
         String queryId = mPipeline.resolve(fullTextQuery, !onlineSourcesCheckBox.isChecked());
+        if (mCurrentQueryId != null && !mCurrentQueryId.equals(queryId)) {
+            mPipeline.cancel(mCurrentQueryId);
+            mCorrespondingQueryIds.remove(mCurrentQueryId);
+        }
+        mCurrentQueryId = queryId;
         if (queryId != null) {
             mCorrespondingQueryIds.put(queryId, new Track(TomahawkApp.getUniqueId()));
             mTomahawkMainActivity.startLoadingAnimation();
@@ -22,6 +22,7 @@ import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Artist;
 import org.tomahawk.libtomahawk.collection.Collection;
 import org.tomahawk.libtomahawk.collection.CollectionLoader;
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.libtomahawk.collection.Track;
 import org.tomahawk.libtomahawk.collection.UserCollection;
 import org.tomahawk.libtomahawk.collection.UserPlaylist;
@@ -31,7 +32,6 @@ import org.tomahawk.libtomahawk.resolver.PipeLine;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkListAdapter;
 import org.tomahawk.tomahawk_android.dialogs.ChooseUserPlaylistDialog;
 import org.tomahawk.tomahawk_android.dialogs.FakeContextMenuDialog;
@@ -58,7 +58,7 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * The base class for {@link AlbumsFragment}, {@link TracksFragment}, {@link ArtistsFragment},
  * {@link UserPlaylistsFragment} and {@link SearchableFragment}. Provides all sorts of functionality
- * to those classes, related to displaying {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}s
+ * to those classes, related to displaying {@link org.tomahawk.libtomahawk.collection.TomahawkListItem}s
  * in whichever needed way.
  */
 public class TomahawkFragment extends TomahawkListFragment
@@ -203,10 +203,10 @@ public class TomahawkFragment extends TomahawkListFragment
     @Override
     public boolean onItemLongClick(AdapterView<?> parent, View view, int position, long id) {
         String[] menuItemTitles;
-        TomahawkBaseAdapter.TomahawkListItem tomahawkListItem;
+        TomahawkListItem tomahawkListItem;
         position -= getListView().getHeaderViewsCount();
         if (position >= 0) {
-            tomahawkListItem = ((TomahawkBaseAdapter.TomahawkListItem) getListAdapter()
+            tomahawkListItem = ((TomahawkListItem) getListAdapter()
                     .getItem(position));
         } else {
             tomahawkListItem = ((TomahawkListAdapter) getListAdapter())
@@ -238,7 +238,7 @@ public class TomahawkFragment extends TomahawkListFragment
      */
     @Override
     public void onFakeContextItemSelected(TomahawkMainActivity tomahawkMainActivity,
-            String menuItemTitle, TomahawkBaseAdapter.TomahawkListItem tomahawkListItem) {
+            String menuItemTitle, TomahawkListItem tomahawkListItem) {
         UserCollection userCollection = tomahawkMainActivity.getUserCollection();
         ArrayList<Track> tracks = new ArrayList<Track>();
         PlaybackService playbackService = tomahawkMainActivity.getPlaybackService();
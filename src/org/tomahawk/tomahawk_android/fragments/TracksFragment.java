@@ -19,22 +19,21 @@ package org.tomahawk.tomahawk_android.fragments;
 
 import org.tomahawk.libtomahawk.collection.Album;
 import org.tomahawk.libtomahawk.collection.Collection;
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.libtomahawk.collection.Track;
 import org.tomahawk.libtomahawk.collection.UserCollection;
 import org.tomahawk.libtomahawk.collection.UserPlaylist;
 import org.tomahawk.libtomahawk.database.UserPlaylistsDataSource;
-import org.tomahawk.libtomahawk.hatchet.InfoSystem;
 import org.tomahawk.libtomahawk.resolver.PipeLine;
 import org.tomahawk.libtomahawk.resolver.Query;
+import org.tomahawk.libtomahawk.resolver.QueryBatch;
+import org.tomahawk.libtomahawk.utils.EventBus;
+import org.tomahawk.tomahawk_android.TomahawkApp;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
 import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
 import org.tomahawk.tomahawk_android.adapters.TomahawkListAdapter;
 import org.tomahawk.tomahawk_android.services.PlaybackService;
 
-import android.content.BroadcastReceiver;
-import android.content.Context;
-import android.content.Intent;
-import android.content.IntentFilter;
 import android.os.Bundle;
 import android.support.v4.content.Loader;
 import android.view.View;
@@ -52,36 +51,32 @@ public class TracksFragment extends TomahawkFragment implements OnItemClickListe
 
     boolean mShouldShowLoadingAnimation = false;
 
-    private TracksFragmentReceiver mTracksFragmentReceiver;
+    private String mCurrentBatchId;
 
     /**
-     * Handles incoming broadcasts.
+     * Handles incoming {@link PipeLine} events.
      */
-    private class TracksFragmentReceiver extends BroadcastReceiver {
+    private EventBus.Subscriber mPipeLineSubscriber = new EventBus.Subscriber() {
 
         @Override
-        public void onReceive(Context context, Intent intent) {
-            if (PipeLine.PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY.equals(intent.getAction())) {
-                String queryId = intent.getStringExtra(PipeLine.PIPELINE_RESULTSREPORTED_QID);
-                if (mCorrespondingQueryIds.containsKey(queryId)) {
-                    ArrayList<Track> tracks = mPipeline.getQuery(queryId).getTrackResults();
-                    if (tracks != null && tracks.size() > 0) {
-                        Track track = mCorrespondingQueryIds.get(queryId);
-                        if (track.getScore() < tracks.get(0).getScore()) {
-                            Query.trackResultToTrack(tracks.get(0), track);
-                            updateAdapter();
-                        }
-                    }
+        public void onEvent(String topic, String key) {
+            if (PipeLine.PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY.equals(topic)) {
+                if (mCorrespondingQueryIds.containsKey(key) && updateTrack(key)) {
+                    updateAdapter();
                 }
-                if (InfoSystem.INFOSYSTEM_RESULTSREPORTED.equals(intent.getAction())) {
-                    String requestId = intent
-                            .getStringExtra(InfoSystem.INFOSYSTEM_RESULTSREPORTED_REQUESTID);
-                    if (mCurrentRequestIds.contains(requestId)) {
+            } else if (PipeLine.PIPELINE_RESULTSREPORTED_BATCH.equals(topic)) {
+                if (key != null && key.equals(mCurrentBatchId)) {
+                    boolean tracksChanged = false;
+                    for (String queryId : mCorrespondingQueryIds.keySet()) {
+                        tracksChanged |= updateTrack(queryId);
+                    }
+                    if (tracksChanged) {
+                        updateAdapter();
                     }
                 }
             }
         }
-    }
+    };
 
     /**
      * Pulls all the necessary information from the {@link Bundle}s that are being sent, when this
@@ -115,39 +110,50 @@ public class TracksFragment extends TomahawkFragment implements OnItemClickListe
     }
 
     /**
-     * Initialize and register {@link org.tomahawk.tomahawk_android.fragments.TracksFragment.TracksFragmentReceiver}
+     * Subscribe to {@link PipeLine} events
      */
     @Override
     public void onResume() {
         super.onResume();
 
-        if (mTracksFragmentReceiver == null) {
-            mTracksFragmentReceiver = new TracksFragmentReceiver();
-            IntentFilter intentFilter = new IntentFilter(Collection.COLLECTION_UPDATED);
-            getActivity().registerReceiver(mTracksFragmentReceiver, intentFilter);
-            intentFilter = new IntentFilter(InfoSystem.INFOSYSTEM_RESULTSREPORTED);
-            getActivity().registerReceiver(mTracksFragmentReceiver, intentFilter);
-            intentFilter = new IntentFilter(
-                    PipeLine.PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY);
-            getActivity().registerReceiver(mTracksFragmentReceiver, intentFilter);
-        }
+        EventBus.getInstance().subscribe(PipeLine.PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY,
+                EventBus.THREAD_MAIN, mPipeLineSubscriber);
+        EventBus.getInstance().subscribe(PipeLine.PIPELINE_RESULTSREPORTED_BATCH,
+                EventBus.THREAD_MAIN, mPipeLineSubscriber);
         if (mShouldShowLoadingAnimation) {
             mTomahawkMainActivity.startLoadingAnimation();
         }
     }
 
     /**
-     * Unregister {@link org.tomahawk.tomahawk_android.fragments.TracksFragment.TracksFragmentReceiver}
-     * and delete reference
+     * Unsubscribe from {@link PipeLine} events
      */
     @Override
     public void onPause() {
         super.onPause();
 
-        if (mTracksFragmentReceiver != null) {
-            getActivity().unregisterReceiver(mTracksFragmentReceiver);
-            mTracksFragmentReceiver = null;
+        EventBus.getInstance().unsubscribe(mPipeLineSubscriber);
+    }
+
+    /**
+     * Update the {@link Track} corresponding to the {@link Query} with the given id with the
+     * {@link Query}'s best {@link Track} result, if that one has a higher score
+     *
+     * @return whether or not the {@link Track} has been updated
+     */
+    private boolean updateTrack(String queryId) {
+        Query query = mPipeline.getQuery(queryId);
+        if (query != null) {
+            ArrayList<Track> tracks = query.getTrackResults();
+            if (tracks != null && tracks.size() > 0) {
+                Track track = mCorrespondingQueryIds.get(queryId);
+                if (track.getScore() < tracks.get(0).getScore()) {
+                    Query.trackResultToTrack(tracks.get(0), track);
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     /**
@@ -203,14 +209,12 @@ public class TracksFragment extends TomahawkFragment implements OnItemClickListe
      * Update this {@link TomahawkFragment}'s {@link TomahawkBaseAdapter} content
      */
     public void updateAdapter() {
-        List<TomahawkBaseAdapter.TomahawkListItem> items
-                = new ArrayList<TomahawkBaseAdapter.TomahawkListItem>();
+        List<TomahawkListItem> items = new ArrayList<TomahawkListItem>();
         TomahawkListAdapter tomahawkListAdapter;
         Collection coll = mTomahawkMainActivity.getUserCollection();
         if (mAlbum != null) {
             items.addAll(mAlbum.getTracks());
-            List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                    = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+            List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
             listArray.add(items);
             if (getListAdapter() == null) {
                 tomahawkListAdapter = new TomahawkListAdapter(mTomahawkMainActivity, listArray);
@@ -223,8 +227,7 @@ public class TracksFragment extends TomahawkFragment implements OnItemClickListe
             }
         } else if (mArtist != null) {
             items.addAll(mArtist.getTracks());
-            List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                    = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+            List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
             listArray.add(items);
             if (getListAdapter() == null) {
                 tomahawkListAdapter = new TomahawkListAdapter(mTomahawkMainActivity, listArray);
@@ -237,8 +240,7 @@ public class TracksFragment extends TomahawkFragment implements OnItemClickListe
             }
         } else if (mUserPlaylist != null) {
             items.addAll(mUserPlaylist.getTracks());
-            List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                    = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+            List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
             listArray.add(items);
             if (getListAdapter() == null) {
                 tomahawkListAdapter = new TomahawkListAdapter(mTomahawkMainActivity, listArray);
@@ -251,8 +253,7 @@ public class TracksFragment extends TomahawkFragment implements OnItemClickListe
             }
         } else {
             items.addAll(coll.getTracks());
-            List<List<TomahawkBaseAdapter.TomahawkListItem>> listArray
-                    = new ArrayList<List<TomahawkBaseAdapter.TomahawkListItem>>();
+            List<List<TomahawkListItem>> listArray = new ArrayList<List<TomahawkListItem>>();
             listArray.add(items);
             if (getListAdapter() == null) {
                 tomahawkListAdapter = new TomahawkListAdapter(mTomahawkMainActivity, listArray);
@@ -274,20 +275,34 @@ public class TracksFragment extends TomahawkFragment implements OnItemClickListe
     }
 
     /**
-     * Resolve the given {@link Album}'s {@link Track}s
+     * Resolve the given {@link Album}'s {@link Track}s. All unresolved {@link Track}s are resolved
+     * within one {@link QueryBatch}, so that we only have to update our adapter once.
      */
     private void resolveAlbum(Album album) {
         if (album != null && album.getTracks() != null) {
+            ArrayList<Query> queries = new ArrayList<Query>();
+            ArrayList<Track> unresolvedTracks = new ArrayList<Track>();
             for (Track track : album.getTracks()) {
                 if (!track.isResolved()) {
-                    String queryId = mPipeline
-                            .resolve(track.getName(), track.getAlbum().getName(),
-                                    track.getArtist().getName());
-                    if (queryId != null) {
-                        mCorrespondingQueryIds.put(queryId, track);
-                        mTomahawkMainActivity.startLoadingAnimation();
+                    queries.add(new Query(TomahawkApp.getUniqueStringId(), track.getName(),
+                            track.getAlbum().getName(), track.getArtist().getName(), false));
+                    unresolvedTracks.add(track);
+                }
+            }
+            if (!queries.isEmpty()) {
+                QueryBatch batch = mPipeline.resolve(queries, false);
+                mCurrentBatchId = batch.getBatchId();
+                // The PipeLine might have replaced some of our Querys with already cached ones
+                for (int i = 0; i < queries.size(); i++) {
+                    String cacheKey = queries.get(i).getCacheKey();
+                    for (Query query : batch.getQueries()) {
+                        if (query.getCacheKey().equals(cacheKey)) {
+                            mCorrespondingQueryIds.put(query.getQid(), unresolvedTracks.get(i));
+                            break;
+                        }
                     }
                 }
+                mTomahawkMainActivity.startLoadingAnimation();
             }
         }
     }
@@ -0,0 +1,378 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.tomahawk_android.services;
+
+import org.tomahawk.libtomahawk.collection.Playlist;
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.resolver.PipeLine;
+import org.tomahawk.libtomahawk.resolver.Query;
+import org.tomahawk.libtomahawk.resolver.QueryBatch;
+import org.tomahawk.libtomahawk.utils.EventBus;
+import org.tomahawk.tomahawk_android.TomahawkApp;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Resolves the {@link Track}s following the current {@link Track} of a {@link Playlist} in the
+ * background, so that they are ready to be played once playback reaches them. The number of {@link
+ * Track}s to look ahead grows while the {@link Playlist} is played through one {@link Track} after
+ * another, and shrinks back to its minimum if the user jumps to another position. All outstanding
+ * work is cancelled, as soon as the {@link Playlist} changes. Must only be used on the main thread.
+ */
+public class LookAheadResolver {
+
+    private final static String TAG = LookAheadResolver.class.getName();
+
+    private static final int MIN_WINDOW_SIZE = 2;
+
+    private static final int MAX_WINDOW_SIZE = 10;
+
+    private PipeLine mPipeLine;
+
+    private OnTrackResolvedListener mOnTrackResolvedListener;
+
+    private Playlist mPlaylist;
+
+    private int mLastTrackIndex = -1;
+
+    private int mWindowSize = MIN_WINDOW_SIZE;
+
+    // qid -> the Track which is being resolved by the Query with this id
+    private HashMap<String, Track> mPendingQueryIds = new HashMap<String, Track>();
+
+    // Track -> the id of the Query which is resolving this Track
+    private IdentityHashMap<Track, String> mPendingTracks = new IdentityHashMap<Track, String>();
+
+    // The ids of the pending Querys which have been created by us. All others have been taken
+    // from the PipeLine's cache, so somebody else might be waiting for them as well.
+    private HashSet<String> mOwnQueryIds = new HashSet<String>();
+
+    // batch id -> the ids of the Querys that belong to this QueryBatch
+    private HashMap<String, ArrayList<String>> mPendingBatches
+            = new HashMap<String, ArrayList<String>>();
+
+    // The Track playback is waiting for
+    private Track mAwaitedTrack;
+
+    /**
+     * Interface which is used to notify about {@link Track}s playback is waiting for
+     */
+    public interface OnTrackResolvedListener {
+
+        /**
+         * Called once the {@link Track} passed to resolveNow(...) has been resolved
+         */
+        public void onTrackResolved(Track track);
+
+        /**
+         * Called if the {@link Track} passed to resolveNow(...) could not be resolved
+         */
+        public void onTrackNotResolved(Track track);
+    }
+
+    /**
+     * Handles incoming {@link PipeLine} events
+     */
+    private EventBus.Subscriber mPipeLineSubscriber = new EventBus.Subscriber() {
+
+        @Override
+        public void onEvent(String topic, String key) {
+            if (PipeLine.PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY.equals(topic)) {
+                if (mPendingQueryIds.containsKey(key)) {
+                    onQueryUpdated(key);
+                }
+            } else if (PipeLine.PIPELINE_RESULTSREPORTED_BATCH.equals(topic)) {
+                ArrayList<String> queryIds = mPendingBatches.remove(key);
+                if (queryIds != null) {
+                    for (String queryId : queryIds) {
+                        onQueryUpdated(queryId);
+                    }
+                }
+            }
+        }
+    };
+
+    public LookAheadResolver(PipeLine pipeLine, OnTrackResolvedListener onTrackResolvedListener) {
+        mPipeLine = pipeLine;
+        mOnTrackResolvedListener = onTrackResolvedListener;
+        EventBus.getInstance().subscribe(PipeLine.PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY,
+                EventBus.THREAD_MAIN, mPipeLineSubscriber);
+        EventBus.getInstance().subscribe(PipeLine.PIPELINE_RESULTSREPORTED_BATCH,
+                EventBus.THREAD_MAIN, mPipeLineSubscriber);
+    }
+
+    /**
+     * Stop listening for {@link PipeLine} events and drop all outstanding work
+     */
+    public void release() {
+        EventBus.getInstance().unsubscribe(mPipeLineSubscriber);
+        cancel();
+    }
+
+    /**
+     * Cancel all outstanding work. Every pending {@link Query} nobody else is waiting for is
+     * cancelled in the {@link PipeLine}, so that the {@link
+     * org.tomahawk.libtomahawk.resolver.Resolver}s stop working on it. Results which are reported
+     * for the other {@link Query}s are ignored from now on.
+     */
+    public void cancel() {
+        cancel(null);
+    }
+
+    /**
+     * Cancel all outstanding work, except for the resolving of the given {@link Track}
+     *
+     * @param keptTrack the {@link Track} which should keep being resolved, can be null
+     */
+    private void cancel(Track keptTrack) {
+        String keptQueryId = keptTrack == null ? null : mPendingTracks.get(keptTrack);
+        Iterator<Map.Entry<String, Track>> iterator = mPendingQueryIds.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Track> entry = iterator.next();
+            if (!entry.getKey().equals(keptQueryId)) {
+                if (mOwnQueryIds.remove(entry.getKey())) {
+                    mPipeLine.cancel(entry.getKey());
+                }
+                mPendingTracks.remove(entry.getValue());
+                iterator.remove();
+            }
+        }
+        // The kept Query is only reported together with its QueryBatch, if it still has one
+        Iterator<ArrayList<String>> batchIterator = mPendingBatches.values().iterator();
+        while (batchIterator.hasNext()) {
+            if (!batchIterator.next().contains(keptQueryId)) {
+                batchIterator.remove();
+            }
+        }
+        mAwaitedTrack = null;
+    }
+
+    /**
+     * Called whenever the content or the order of the given {@link Playlist} has changed, or
+     * another {@link Playlist} has been set. Drops all outstanding work and starts looking ahead
+     * from the {@link Playlist}'s current position again. Only the {@link Track} playback is
+     * waiting for keeps being resolved, if it is still the current one.
+     */
+    public void onPlaylistChanged(Playlist playlist) {
+        Track awaitedTrack = mAwaitedTrack;
+        if (awaitedTrack != null && (playlist == null
+                || awaitedTrack != playlist.getCurrentTrack())) {
+            awaitedTrack = null;
+        }
+        cancel(awaitedTrack);
+        mPlaylist = playlist;
+        mLastTrackIndex = -1;
+        mWindowSize = MIN_WINDOW_SIZE;
+        update();
+        if (awaitedTrack != null) {
+            resolveNow(awaitedTrack);
+        }
+    }
+
+    /**
+     * Called whenever the current {@link Track} of the {@link Playlist} has changed. Adapts the
+     * size of the look-ahead window and resolves every unresolved {@link Track} inside of it.
+     */
+    public void onCurrentTrackChanged() {
+        if (mPlaylist == null) {
+            return;
+        }
+        int currentTrackIndex = mPlaylist.getCurrentTrackIndex();
+        if (currentTrackIndex == mLastTrackIndex + 1
+                || (currentTrackIndex == 0 && mPlaylist.isRepeating()
+                && mLastTrackIndex == mPlaylist.getCount() - 1)) {
+            mWindowSize = Math.min(mWindowSize + 1, MAX_WINDOW_SIZE);
+        } else if (currentTrackIndex != mLastTrackIndex) {
+            mWindowSize = MIN_WINDOW_SIZE;
+        }
+        mLastTrackIndex = currentTrackIndex;
+        update();
+    }
+
+    /**
+     * Resolve the given {@link Track} as fast as possible, because playback is waiting for it. The
+     * {@link OnTrackResolvedListener} is notified once the {@link Track} has been resolved or
+     * couldn't be resolved.
+     *
+     * @return false, if the given {@link Track} can't be resolved at all
+     */
+    public boolean resolveNow(Track track) {
+        if (track == null || track.getName() == null || track.getAlbum() == null
+                || track.getArtist() == null) {
+            return false;
+        }
+        mAwaitedTrack = track;
+        String queryId = mPendingTracks.get(track);
+        if (queryId == null) {
+            if (!resolveTrack(track)) {
+                mAwaitedTrack = null;
+                return false;
+            }
+        } else {
+            // The Query might already have results, even if it hasn't been solved yet
+            onQueryUpdated(queryId);
+        }
+        return true;
+    }
+
+    /**
+     * Resolve every unresolved {@link Track} inside the look-ahead window. The next {@link Track}
+     * is resolved on its own, so that it is ready as soon as possible. All others are resolved
+     * within one {@link QueryBatch}.
+     */
+    private void update() {
+        if (mPlaylist == null || mPlaylist.getCount() == 0) {
+            return;
+        }
+        int currentTrackIndex = mPlaylist.getCurrentTrackIndex();
+        ArrayList<Track> tracks = new ArrayList<Track>();
+        for (int i = 1; i <= mWindowSize; i++) {
+            int position = currentTrackIndex + i;
+            if (position >= mPlaylist.getCount()) {
+                if (!mPlaylist.isRepeating()) {
+                    break;
+                }
+                position %= mPlaylist.getCount();
+            }
+            if (position == currentTrackIndex) {
+                break;
+            }
+            Track track = mPlaylist.peekTrackAtPos(position);
+            if (track != null && !track.isResolved() && !mPendingTracks.containsKey(track)
+                    && track.getName() != null && track.getAlbum() != null
+                    && track.getArtist() != null) {
+                tracks.add(track);
+            }
+        }
+        if (tracks.isEmpty()) {
+            return;
+        }
+        if (tracks.get(0) == mPlaylist.peekTrackAtPos(
+                (currentTrackIndex + 1) % mPlaylist.getCount())) {
+            resolveTrack(tracks.remove(0));
+        }
+        if (!tracks.isEmpty()) {
+            ArrayList<Query> queries = new ArrayList<Query>();
+            for (Track track : tracks) {
+                queries.add(createQuery(track));
+            }
+            QueryBatch batch = mPipeLine.resolve(queries, false);
+            ArrayList<String> queryIds = new ArrayList<String>();
+            // The PipeLine might have replaced some of our Querys with already cached ones
+            for (int i = 0; i < queries.size(); i++) {
+                String cacheKey = queries.get(i).getCacheKey();
+                for (Query query : batch.getQueries()) {
+                    if (query.getCacheKey().equals(cacheKey)) {
+                        addPendingQuery(query.getQid(), tracks.get(i), query == queries.get(i));
+                        queryIds.add(query.getQid());
+                        break;
+                    }
+                }
+            }
+            mPendingBatches.put(batch.getBatchId(), queryIds);
+            Log.d(TAG, "Looking ahead " + queries.size() + " tracks, window size " + mWindowSize);
+        }
+    }
+
+    /**
+     * Resolve the given {@link Track} with a single {@link Query}
+     *
+     * @return false, if no {@link Query} could be created for the given {@link Track}
+     */
+    private boolean resolveTrack(Track track) {
+        if (track.getName().length() == 0) {
+            return false;
+        }
+        Query query = createQuery(track);
+        Query cachedQuery = mPipeLine.getQueryCache().getByCacheKey(query.getCacheKey());
+        boolean isOwnQuery = cachedQuery == null || cachedQuery.isOnlyLocal();
+        if (!isOwnQuery) {
+            query = cachedQuery;
+        }
+        mPipeLine.resolve(query);
+        addPendingQuery(query.getQid(), track, isOwnQuery);
+        // The Query might have been solved already
+        onQueryUpdated(query.getQid());
+        return true;
+    }
+
+    /**
+     * Remember that the given {@link Track} is being resolved by the {@link Query} with the given
+     * id
+     *
+     * @param isOwnQuery whether or not the {@link Query} has been created by us
+     */
+    private void addPendingQuery(String queryId, Track track, boolean isOwnQuery) {
+        Track previousTrack = mPendingQueryIds.put(queryId, track);
+        if (previousTrack != null && previousTrack != track) {
+            mPendingTracks.remove(previousTrack);
+        }
+        mPendingTracks.put(track, queryId);
+        if (isOwnQuery) {
+            mOwnQueryIds.add(queryId);
+        }
+    }
+
+    /**
+     * Update the {@link Track} corresponding to the {@link Query} with the given id with the
+     * {@link Query}'s best {@link Track} result. The {@link Track} isn't touched anymore once it is
+     * being played.
+     */
+    private void onQueryUpdated(String queryId) {
+        Track track = mPendingQueryIds.get(queryId);
+        if (track == null) {
+            return;
+        }
+        Query query = mPipeLine.getQuery(queryId);
+        boolean isSolved = query == null || query.isSolved();
+        if (query != null) {
+            ArrayList<Track> results = query.getTrackResults();
+            if (!results.isEmpty() && (!track.isResolved()
+                    || ((mPlaylist == null || track != mPlaylist.getCurrentTrack())
+                    && track.getScore() < results.get(0).getScore()))) {
+                Query.trackResultToTrack(results.get(0), track);
+            }
+        }
+        if (isSolved) {
+            mPendingQueryIds.remove(queryId);
+            mPendingTracks.remove(track);
+            mOwnQueryIds.remove(queryId);
+        }
+        if (track == mAwaitedTrack) {
+            if (track.isResolved()) {
+                mAwaitedTrack = null;
+                mOnTrackResolvedListener.onTrackResolved(track);
+            } else if (isSolved) {
+                mAwaitedTrack = null;
+                mOnTrackResolvedListener.onTrackNotResolved(track);
+            }
+        }
+    }
+
+    private Query createQuery(Track track) {
+        return new Query(TomahawkApp.getUniqueStringId(), track.getName(),
+                track.getAlbum().getName(), track.getArtist().getName(), false);
+    }
+}
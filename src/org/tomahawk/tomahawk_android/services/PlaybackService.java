@@ -24,6 +24,7 @@ import org.tomahawk.libtomahawk.collection.Track;
 import org.tomahawk.libtomahawk.collection.UserCollection;
 import org.tomahawk.libtomahawk.collection.UserPlaylist;
 import org.tomahawk.libtomahawk.database.UserPlaylistsDataSource;
+import org.tomahawk.libtomahawk.utils.EventBus;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.TomahawkApp;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
@@ -124,6 +125,8 @@ public class PlaybackService extends Service
 
     private BitmapItem.AsyncBitmap mNotificationAsyncBitmap = new BitmapItem.AsyncBitmap(null);
 
+    private LookAheadResolver mLookAheadResolver;
+
     /**
      * The static {@link ServiceConnection} which calls methods in {@link
      * PlaybackServiceConnectionListener} to let every depending object know, if the {@link
@@ -229,18 +232,47 @@ public class PlaybackService extends Service
                     //resume playback, if user has set the "resume on headset plugin" preference
                     start();
                 }
-            } else if (BitmapItem.BITMAPITEM_BITMAPLOADED.equals(intent.getAction())) {
-                // a bitmap has been loaded
-                if (mCurrentPlaylist.getCurrentTrack() != null && intent
-                        .getStringExtra(BitmapItem.BITMAPITEM_BITMAPLOADED_PATH)
-                        .equals(mCurrentPlaylist.getCurrentTrack().getAlbum().getAlbumArtPath())) {
-                    // the loaded bitmap is relevant to us, so we update the playing notification
-                    updatePlayingNotification();
-                }
             }
         }
     }
 
+    /**
+     * Handles {@link BitmapItem} events
+     */
+    private EventBus.Subscriber mBitmapLoadedSubscriber = new EventBus.Subscriber() {
+
+        @Override
+        public void onEvent(String topic, String key) {
+            // a bitmap has been loaded
+            if (mCurrentPlaylist != null && mCurrentPlaylist.getCurrentTrack() != null && key
+                    .equals(mCurrentPlaylist.getCurrentTrack().getAlbum().getAlbumArtPath())) {
+                // the loaded bitmap is relevant to us, so we update the playing notification
+                updatePlayingNotification();
+            }
+        }
+    };
+
+    /**
+     * Handles {@link Track}s playback has been waiting for
+     */
+    private LookAheadResolver.OnTrackResolvedListener mOnTrackResolvedListener
+            = new LookAheadResolver.OnTrackResolvedListener() {
+
+        @Override
+        public void onTrackResolved(Track track) {
+            if (track == getCurrentTrack()) {
+                setCurrentTrack(track);
+            }
+        }
+
+        @Override
+        public void onTrackNotResolved(Track track) {
+            if (track == getCurrentTrack()) {
+                next();
+            }
+        }
+    };
+
     public class PlaybackServiceBinder extends Binder {
 
         public PlaybackService getService() {
@@ -303,14 +335,17 @@ public class PlaybackService extends Service
                 new IntentFilter(Intent.ACTION_HEADSET_PLUG));
         registerReceiver(mPlaybackServiceBroadcastReceiver,
                 new IntentFilter(AudioManager.ACTION_AUDIO_BECOMING_NOISY));
-        registerReceiver(mPlaybackServiceBroadcastReceiver,
-                new IntentFilter(BitmapItem.BITMAPITEM_BITMAPLOADED));
+        EventBus.getInstance().subscribe(BitmapItem.BITMAPITEM_BITMAPLOADED, EventBus.THREAD_MAIN,
+                mBitmapLoadedSubscriber);
 
         // Initialize killtime handler (watchdog style)
         mKillTimerHandler.removeCallbacksAndMessages(null);
         Message msg = mKillTimerHandler.obtainMessage();
         mKillTimerHandler.sendMessageDelayed(msg, DELAY_TO_KILL);
 
+        mLookAheadResolver = new LookAheadResolver(((TomahawkApp) getApplication()).getPipeLine(),
+                mOnTrackResolvedListener);
+
         // Finally initialize the heart of this PlaybackService, the TomahawkMediaPlayer object
         initMediaPlayer();
         restoreState();
@@ -353,6 +388,8 @@ public class PlaybackService extends Service
         pause(true);
         saveState();
         unregisterReceiver(mPlaybackServiceBroadcastReceiver);
+        EventBus.getInstance().unsubscribe(mBitmapLoadedSubscriber);
+        mLookAheadResolver.release();
         mTomahawkMediaPlayer.release();
         mTomahawkMediaPlayer = null;
         if (mWakeLock.isHeld()) {
@@ -480,7 +517,7 @@ public class PlaybackService extends Service
             mPlayState = PLAYBACKSERVICE_PLAYSTATE_PLAYING;
             updatePlayingNotification();
         }
-        sendBroadcast(new Intent(BROADCAST_PLAYSTATECHANGED));
+        EventBus.getInstance().post(BROADCAST_PLAYSTATECHANGED, null);
         handlePlayState();
     }
 
@@ -489,7 +526,7 @@ public class PlaybackService extends Service
      */
     public void start() {
         mPlayState = PLAYBACKSERVICE_PLAYSTATE_PLAYING;
-        sendBroadcast(new Intent(BROADCAST_PLAYSTATECHANGED));
+        EventBus.getInstance().post(BROADCAST_PLAYSTATECHANGED, null);
         handlePlayState();
         updatePlayingNotification();
     }
@@ -499,7 +536,7 @@ public class PlaybackService extends Service
      */
     public void stop() {
         mPlayState = PLAYBACKSERVICE_PLAYSTATE_STOPPED;
-        sendBroadcast(new Intent(BROADCAST_PLAYSTATECHANGED));
+        EventBus.getInstance().post(BROADCAST_PLAYSTATECHANGED, null);
         handlePlayState();
         stopForeground(true);
     }
@@ -518,7 +555,7 @@ public class PlaybackService extends Service
      */
     public void pause(boolean dismissNotificationOnPause) {
         mPlayState = PLAYBACKSERVICE_PLAYSTATE_PAUSED;
-        sendBroadcast(new Intent(BROADCAST_PLAYSTATECHANGED));
+        EventBus.getInstance().post(BROADCAST_PLAYSTATECHANGED, null);
         handlePlayState();
         if (dismissNotificationOnPause) {
             stopForeground(true);
@@ -596,7 +633,8 @@ public class PlaybackService extends Service
      */
     public void setShuffled(boolean shuffled) {
         mCurrentPlaylist.setShuffled(shuffled);
-        sendBroadcast(new Intent(BROADCAST_PLAYLISTCHANGED));
+        mLookAheadResolver.onPlaylistChanged(mCurrentPlaylist);
+        EventBus.getInstance().post(BROADCAST_PLAYLISTCHANGED, null);
     }
 
     /**
@@ -604,7 +642,8 @@ public class PlaybackService extends Service
      */
     public void setRepeating(boolean repeating) {
         mCurrentPlaylist.setRepeating(repeating);
-        sendBroadcast(new Intent(BROADCAST_PLAYLISTCHANGED));
+        mLookAheadResolver.onPlaylistChanged(mCurrentPlaylist);
+        EventBus.getInstance().post(BROADCAST_PLAYLISTCHANGED, null);
     }
 
     /**
@@ -677,8 +716,9 @@ public class PlaybackService extends Service
                 mKillTimerHandler.sendMessageDelayed(msg, DELAY_TO_KILL);
 
                 updatePlayingNotification();
-                sendBroadcast(new Intent(BROADCAST_NEWTRACK));
-            } else {
+                EventBus.getInstance().post(BROADCAST_NEWTRACK, null);
+                mLookAheadResolver.onCurrentTrackChanged();
+            } else if (!mLookAheadResolver.resolveNow(track)) {
                 next();
             }
         }
@@ -707,10 +747,11 @@ public class PlaybackService extends Service
      */
     public void setCurrentPlaylist(Playlist playlist) {
         mCurrentPlaylist = playlist;
+        mLookAheadResolver.onPlaylistChanged(mCurrentPlaylist);
         if (playlist != null) {
             setCurrentTrack(mCurrentPlaylist.getCurrentTrack());
         }
-        sendBroadcast(new Intent(BROADCAST_PLAYLISTCHANGED));
+        EventBus.getInstance().post(BROADCAST_PLAYLISTCHANGED, null);
     }
 
     /**
@@ -724,10 +765,11 @@ public class PlaybackService extends Service
         }
         boolean wasEmpty = mCurrentPlaylist.getCount() <= 0;
         mCurrentPlaylist.addTracks(tracks);
+        mLookAheadResolver.onPlaylistChanged(mCurrentPlaylist);
         if (wasEmpty && mCurrentPlaylist.getCount() > 0) {
             setCurrentTrack(mCurrentPlaylist.getTrackAtPos(0));
         }
-        sendBroadcast(new Intent(BROADCAST_PLAYLISTCHANGED));
+        EventBus.getInstance().post(BROADCAST_PLAYLISTCHANGED, null);
     }
 
     /**
@@ -746,10 +788,11 @@ public class PlaybackService extends Service
         } else {
             mCurrentPlaylist.addTracks(tracks);
         }
+        mLookAheadResolver.onPlaylistChanged(mCurrentPlaylist);
         if (wasEmpty && mCurrentPlaylist.getCount() > 0) {
             setCurrentTrack(mCurrentPlaylist.getTrackAtPos(0));
         }
-        sendBroadcast(new Intent(BROADCAST_PLAYLISTCHANGED));
+        EventBus.getInstance().post(BROADCAST_PLAYLISTCHANGED, null);
     }
 
     /**
@@ -757,7 +800,8 @@ public class PlaybackService extends Service
      */
     public void deleteTrackAtPos(int position) {
         mCurrentPlaylist.deleteTrackAtPos(position);
-        sendBroadcast(new Intent(BROADCAST_PLAYLISTCHANGED));
+        mLookAheadResolver.onPlaylistChanged(mCurrentPlaylist);
+        EventBus.getInstance().post(BROADCAST_PLAYLISTCHANGED, null);
     }
 
     /**
@@ -765,7 +809,8 @@ public class PlaybackService extends Service
      */
     public void deleteTrack(Track track) {
         mCurrentPlaylist.deleteTrack(track);
-        sendBroadcast(new Intent(BROADCAST_PLAYLISTCHANGED));
+        mLookAheadResolver.onPlaylistChanged(mCurrentPlaylist);
+        EventBus.getInstance().post(BROADCAST_PLAYLISTCHANGED, null);
     }
 
     /**
@@ -812,7 +857,7 @@ public class PlaybackService extends Service
             if (mNotificationAsyncBitmap.bitmap != null) {
                 albumArtTemp = mNotificationAsyncBitmap.bitmap;
             } else {
-                track.getAlbum().loadBitmap(this, mNotificationAsyncBitmap);
+                BitmapItem.loadBitmap(this, track.getAlbum(), mNotificationAsyncBitmap);
                 albumArtTemp = BitmapFactory
                         .decodeResource(resources, R.drawable.no_album_art_placeholder);
             }
@@ -17,6 +17,7 @@
  */
 package org.tomahawk.tomahawk_android.utils;
 
+import org.tomahawk.libtomahawk.collection.TomahawkListItem;
 import org.tomahawk.tomahawk_android.R;
 import org.tomahawk.tomahawk_android.activities.TomahawkMainActivity;
 import org.tomahawk.tomahawk_android.fragments.SearchableFragment;
@@ -97,7 +98,7 @@ public class ContentViewer {
 
         /**
          * Construct a {@link FragmentStateHolder} without providing a reference to a {@link
-         * org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}
+         * org.tomahawk.libtomahawk.collection.TomahawkListItem}
          */
         FragmentStateHolder(Class clss, String fragmentTag, int correspondingHubId,
                 ArrayList<String> correspondingQueryIds) {
@@ -109,7 +110,7 @@ public class ContentViewer {
 
         /**
          * Construct a {@link FragmentStateHolder} while also providing a reference to a {@link
-         * org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}
+         * org.tomahawk.libtomahawk.collection.TomahawkListItem}
          */
         FragmentStateHolder(Class clss, String fragmentTag, int correspondingHubId,
                 ArrayList<String> correspondingQueryIds, long tomahawkListItemId,
@@ -223,9 +224,9 @@ public class ContentViewer {
      * @param hubId                the id of the hub
      * @param clss                 The {@link Fragment}'s class to be used to construct a new {@link
      *                             FragmentStateHolder}
-     * @param tomahawkListItemId   the id of the {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}
+     * @param tomahawkListItemId   the id of the {@link org.tomahawk.libtomahawk.collection.TomahawkListItem}
      *                             corresponding to the {@link Fragment}
-     * @param tomahawkListItemType {@link String} containing the {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}'s
+     * @param tomahawkListItemType {@link String} containing the {@link org.tomahawk.libtomahawk.collection.TomahawkListItem}'s
      *                             type
      * @param isBackAction         whether or not the replacement is part of an action going back in
      *                             the backstack
@@ -0,0 +1,173 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.benchmarks;
+
+import org.tomahawk.libtomahawk.collection.Album;
+import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.resolver.Query;
+import org.tomahawk.libtomahawk.resolver.Resolver;
+import org.tomahawk.libtomahawk.resolver.Result;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates synthetic {@link Track}s, {@link Result}s and {@link Query}s for the benchmarks. All
+ * data is derived from a fixed seed, so that every run works on exactly the same input.
+ */
+public class BenchmarkData {
+
+    private static final long SEED = 42L;
+
+    private static final String[] WORDS = {"the", "love", "night", "blue", "dance", "heart",
+            "fire", "dream", "city", "light", "rain", "summer", "girl", "road", "home", "time",
+            "black", "world", "moon", "sun", "wild", "river", "gold", "electric", "lost",
+            "forever", "young", "broken", "silver", "shadow", "ocean", "thunder"};
+
+    private final Random mRandom = new Random(SEED);
+
+    private long mNextId;
+
+    /**
+     * A {@link Resolver} which only provides an id and a weight, so that {@link Result}s can be
+     * attributed to it
+     */
+    public static class BenchmarkResolver implements Resolver {
+
+        private final int mId;
+
+        private final int mWeight;
+
+        public BenchmarkResolver(int id, int weight) {
+            mId = id;
+            mWeight = weight;
+        }
+
+        public boolean isResolving() {
+            return false;
+        }
+
+        public boolean isLocal() {
+            return false;
+        }
+
+        public void resolve(Query query) {
+        }
+
+        public void resolve(ArrayList<Query> queries) {
+        }
+
+        public void cancel(Query query) {
+        }
+
+        public int getId() {
+            return mId;
+        }
+
+        public int getWeight() {
+            return mWeight;
+        }
+
+        public int getTimeout() {
+            return 0;
+        }
+    }
+
+    /**
+     * @return a name consisting of the given number of random words
+     */
+    public String randomName(int wordCount) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            name.append(WORDS[mRandom.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * @return a new {@link Track} with random track, album and artist names
+     */
+    public Track randomTrack() {
+        return createTrack(randomName(1 + mRandom.nextInt(4)), randomName(1 + mRandom.nextInt(3)),
+                randomName(1 + mRandom.nextInt(2)));
+    }
+
+    /**
+     * @return a new {@link Track} with the given names
+     */
+    public Track createTrack(String trackName, String albumName, String artistName) {
+        Artist artist = new Artist(mNextId++);
+        artist.setName(artistName);
+        Album album = new Album(mNextId++);
+        album.setName(albumName);
+        album.setArtist(artist);
+        Track track = new Track(mNextId++);
+        track.setName(trackName);
+        track.setAlbum(album);
+        track.setArtist(artist);
+        return track;
+    }
+
+    /**
+     * @return the given number of random {@link Track}s
+     */
+    public ArrayList<Track> randomTracks(int count) {
+        ArrayList<Track> tracks = new ArrayList<Track>(count);
+        for (int i = 0; i < count; i++) {
+            tracks.add(randomTrack());
+        }
+        return tracks;
+    }
+
+    /**
+     * Create the given number of {@link Result}s for the given {@link Query}. Roughly every fourth
+     * {@link Result} matches the {@link Query} exactly, every other one is a random {@link Track}.
+     * The {@link Result}s are spread over the given {@link Resolver}s.
+     */
+    public ArrayList<Result> randomResults(int count, String trackName, String albumName,
+            String artistName, Resolver[] resolvers) {
+        ArrayList<Result> results = new ArrayList<Result>(count);
+        for (int i = 0; i < count; i++) {
+            Track track;
+            if (mRandom.nextInt(4) == 0) {
+                track = createTrack(trackName, albumName, artistName);
+            } else {
+                track = randomTrack();
+            }
+            Result result = new Result(track);
+            result.setResolver(resolvers[i % resolvers.length]);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * @return the given number of {@link Resolver}s with descending weights
+     */
+    public static Resolver[] createResolvers(int count) {
+        Resolver[] resolvers = new Resolver[count];
+        for (int i = 0; i < count; i++) {
+            resolvers[i] = new BenchmarkResolver(i, 1000 - i * 10);
+        }
+        return resolvers;
+    }
+}
@@ -0,0 +1,95 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.resolver.PipeLine;
+import org.tomahawk.libtomahawk.resolver.Query;
+import org.tomahawk.libtomahawk.resolver.Resolver;
+import org.tomahawk.libtomahawk.resolver.Result;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work {@link PipeLine#reportResults(Resolver, String, ArrayList)} does for every
+ * reporting {@link Resolver}: scoring the {@link Result}s, merging them into the {@link Query} and
+ * fetching the sorted track results afterwards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MergeResultsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int mResultCount;
+
+    @Param({"1", "5"})
+    public int mResolverCount;
+
+    // The Results of every Resolver
+    private ArrayList<ArrayList<Result>> mResultLists;
+
+    @Setup
+    public void setup() {
+        BenchmarkData data = new BenchmarkData();
+        Resolver[] resolvers = BenchmarkData.createResolvers(mResolverCount);
+        mResultLists = new ArrayList<ArrayList<Result>>();
+        for (Resolver resolver : resolvers) {
+            mResultLists.add(data.randomResults(mResultCount, "Dancing In The Moonlight",
+                    "Summer Nights", "The Wild", new Resolver[]{resolver}));
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Track> mergeTrackQuery() {
+        Query q = new Query("track", "dancing in the moonlight", "summer nights", "the wild",
+                false);
+        for (ArrayList<Result> results : mResultLists) {
+            PipeLine.mergeResults(q, results);
+        }
+        return q.getTrackResults();
+    }
+
+    @Benchmark
+    public ArrayList<Track> mergeFullTextQuery() {
+        Query q = new Query("fulltext", "dancing moonlight wild", false);
+        for (ArrayList<Result> results : mResultLists) {
+            PipeLine.mergeResults(q, results);
+        }
+        return q.getTrackResults();
+    }
+
+    @Benchmark
+    public ArrayList<Track> addTrackResults() {
+        Query q = new Query("track", "dancing in the moonlight", "summer nights", "the wild",
+                false);
+        for (ArrayList<Result> results : mResultLists) {
+            q.addTrackResults(results);
+        }
+        return q.getTrackResults();
+    }
+}
@@ -0,0 +1,83 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tomahawk.libtomahawk.resolver.PipeLine;
+import org.tomahawk.libtomahawk.resolver.Query;
+import org.tomahawk.libtomahawk.resolver.Result;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast {@link Query#howSimilar(Result, int, float)} scores a set of {@link Result}s,
+ * both for fulltext and for track {@link Query}s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimilarityBenchmark {
+
+    private static final float MINSCORE = 0.5F;
+
+    @Param({"10", "100", "1000"})
+    public int mResultCount;
+
+    private Query mTrackQuery;
+
+    private Query mFullTextQuery;
+
+    private ArrayList<Result> mResults;
+
+    @Setup
+    public void setup() {
+        BenchmarkData data = new BenchmarkData();
+        mTrackQuery = new Query("track", "dancing in the moonlight", "summer nights", "the wild",
+                false);
+        mFullTextQuery = new Query("fulltext", "dancing moonlight wild", false);
+        mResults = data.randomResults(mResultCount, "Dancing In The Moonlight", "Summer Nights",
+                "The Wild", BenchmarkData.createResolvers(4));
+    }
+
+    @Benchmark
+    public float scoreTrackQuery() {
+        float sum = 0F;
+        for (Result r : mResults) {
+            sum += mTrackQuery.howSimilar(r, PipeLine.PIPELINE_SEARCHTYPE_TRACKS, MINSCORE);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float scoreFullTextQuery() {
+        float sum = 0F;
+        for (Result r : mResults) {
+            sum += mFullTextQuery.howSimilar(r, PipeLine.PIPELINE_SEARCHTYPE_TRACKS, MINSCORE);
+            sum += mFullTextQuery.howSimilar(r, PipeLine.PIPELINE_SEARCHTYPE_ARTISTS, MINSCORE);
+        }
+        return sum;
+    }
+}
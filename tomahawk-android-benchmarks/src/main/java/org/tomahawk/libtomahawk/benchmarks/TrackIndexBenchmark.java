@@ -0,0 +1,82 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.collection.TrackIndex;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups the {@link org.tomahawk.libtomahawk.resolver.DataBaseResolver}'s filter
+ * does for every {@link org.tomahawk.libtomahawk.resolver.Query}, against collections of different
+ * sizes. The linear scan is what the filter falls back to, if there is no {@link TrackIndex}. It
+ * uses the same {@link TrackIndex#matches(Track, String, String, String)} as the filter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TrackIndexBenchmark {
+
+    @Param({"1000", "10000", "50000", "200000"})
+    public int mCollectionSize;
+
+    private ArrayList<Track> mTracks;
+
+    private TrackIndex mTrackIndex;
+
+    @Setup
+    public void setup() {
+        BenchmarkData data = new BenchmarkData();
+        mTracks = data.randomTracks(mCollectionSize);
+        mTrackIndex = new TrackIndex();
+        for (Track track : mTracks) {
+            mTrackIndex.put(track);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Track> indexFullTextQuery() {
+        return mTrackIndex.getMatches("moon", "moon", "moon");
+    }
+
+    @Benchmark
+    public ArrayList<Track> indexTrackQuery() {
+        return mTrackIndex.getMatches("electric dream", "silver", "summer");
+    }
+
+    @Benchmark
+    public ArrayList<Track> linearScanFullTextQuery() {
+        ArrayList<Track> matches = new ArrayList<Track>();
+        for (Track track : mTracks) {
+            if (TrackIndex.matches(track, "moon", "moon", "moon")) {
+                matches.add(track);
+            }
+        }
+        return matches;
+    }
+}
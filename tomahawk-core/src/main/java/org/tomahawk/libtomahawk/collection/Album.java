@@ -17,15 +17,6 @@
  */
 package org.tomahawk.libtomahawk.collection;
 
-import org.tomahawk.tomahawk_android.R;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
-
-import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.widget.ImageView;
-
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,7 +24,7 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Class which represents a Tomahawk {@link Album}.
  */
-public class Album extends BitmapItem implements TomahawkBaseAdapter.TomahawkListItem {
+public class Album implements TomahawkListItem {
 
     private static final String TAG = Album.class.getName();
 
@@ -47,8 +38,6 @@ public class Album extends BitmapItem implements TomahawkBaseAdapter.TomahawkLis
 
     private String mAlbumArtPath;
 
-    private static Bitmap sAlbumPlaceHolderBitmap;
-
     private String mFirstYear;
 
     private String mLastYear;
@@ -167,64 +156,6 @@ public class Album extends BitmapItem implements TomahawkBaseAdapter.TomahawkLis
         mAlbumArtPath = albumArt;
     }
 
-    /**
-     * Load a {@link android.graphics.Bitmap} asynchronously
-     *
-     * @param context     the context needed for fetching resources
-     * @param asyncBitmap the {@link android.widget.ImageView}, which will be used to show the
-     *                    {@link android.graphics.Bitmap}
-     */
-    public void loadBitmap(Context context, AsyncBitmap asyncBitmap) {
-        Bitmap placeHolderBitmap;
-        String pathToBitmap;
-        if (sAlbumPlaceHolderBitmap == null) {
-            sAlbumPlaceHolderBitmap = BitmapFactory
-                    .decodeResource(context.getResources(), R.drawable.no_album_art_placeholder);
-        }
-        placeHolderBitmap = sAlbumPlaceHolderBitmap;
-        pathToBitmap = getAlbumArtPath();
-        if (pathToBitmap != null) {
-            if (cancelPotentialWork(pathToBitmap, getBitmapWorkerTask(asyncBitmap))) {
-                final BitmapWorkerTask task = new BitmapWorkerTask(context, asyncBitmap,
-                        sAlbumPlaceHolderBitmap);
-                asyncBitmap.setBitmapWorkerTaskReference(new WeakReference<BitmapWorkerTask>(task));
-                task.execute(getAlbumArtPath());
-            }
-        } else {
-            asyncBitmap.bitmap = placeHolderBitmap;
-        }
-    }
-
-    /**
-     * Load a {@link android.graphics.Bitmap} asynchronously
-     *
-     * @param context   the context needed for fetching resources
-     * @param imageView the {@link android.widget.ImageView}, which will be used to show the {@link
-     *                  android.graphics.Bitmap}
-     */
-    public void loadBitmap(Context context, ImageView imageView) {
-        Bitmap placeHolderBitmap;
-        String pathToBitmap;
-        if (sAlbumPlaceHolderBitmap == null) {
-            sAlbumPlaceHolderBitmap = BitmapFactory
-                    .decodeResource(context.getResources(), R.drawable.no_album_art_placeholder);
-        }
-        placeHolderBitmap = sAlbumPlaceHolderBitmap;
-        pathToBitmap = getAlbumArtPath();
-        if (pathToBitmap != null) {
-            if (cancelPotentialWork(pathToBitmap, getBitmapWorkerTask(imageView))) {
-                final BitmapWorkerTask task = new BitmapWorkerTask(imageView,
-                        sAlbumPlaceHolderBitmap);
-                final AsyncDrawable asyncDrawable = new AsyncDrawable(context.getResources(),
-                        placeHolderBitmap, task);
-                imageView.setImageDrawable(asyncDrawable);
-                task.execute(getAlbumArtPath());
-            }
-        } else {
-            imageView.setImageBitmap(placeHolderBitmap);
-        }
-    }
-
     /**
      * @return {@link String} containing the first year info
      */
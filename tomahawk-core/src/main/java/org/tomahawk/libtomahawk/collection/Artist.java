@@ -17,8 +17,6 @@
  */
 package org.tomahawk.libtomahawk.collection;
 
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
-
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
@@ -26,7 +24,7 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * This class represents an {@link Artist}.
  */
-public class Artist implements TomahawkBaseAdapter.TomahawkListItem {
+public class Artist implements TomahawkListItem {
 
     private static ConcurrentHashMap<Long, Artist> sArtists = new ConcurrentHashMap<Long, Artist>();
 
@@ -93,8 +91,7 @@ public class Artist implements TomahawkBaseAdapter.TomahawkListItem {
 
     /**
      * This method returns the first {@link Album} of this object. If none exists, returns null.
-     * It's needed to comply to the {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}
-     * interface.
+     * It's needed to comply to the {@link TomahawkListItem} interface.
      *
      * @return First {@link Album} of this object. If none exists, returns null.
      */
@@ -117,6 +117,14 @@ public abstract class Collection {
      */
     public abstract int getId();
 
+    /**
+     * @return the {@link TrackIndex} over this {@link Collection}'s {@link Track}s. Null, if this
+     * {@link Collection} isn't indexed.
+     */
+    public TrackIndex getTrackIndex() {
+        return null;
+    }
+
     /**
      * Returns whether this {@link Collection} is a {@link UserCollection}.
      */
@@ -18,16 +18,13 @@
 package org.tomahawk.libtomahawk.collection;
 
 import org.tomahawk.libtomahawk.resolver.Resolver;
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
-
-import android.text.TextUtils;
 
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents a {@link Track}.
  */
-public class Track implements TomahawkBaseAdapter.TomahawkListItem {
+public class Track implements TomahawkListItem {
 
     private static ConcurrentHashMap<Long, Track> sTracks = new ConcurrentHashMap<Long, Track>();
 
@@ -142,7 +139,7 @@ public class Track implements TomahawkBaseAdapter.TomahawkListItem {
      */
     public void setPath(String path) {
         this.mPath = path;
-        if (path != null && !TextUtils.isEmpty(path)) {
+        if (path != null && path.length() > 0) {
             isResolved = true;
         }
     }
@@ -0,0 +1,237 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+/**
+ * An in-memory trigram index over the names of a {@link Collection}'s {@link Track}s and their
+ * {@link Artist}s and {@link Album}s. It is used to find every {@link Track} whose name, {@link
+ * Artist} name or {@link Album} name contains a given {@link String}, without having to scan the
+ * whole {@link Collection}.
+ */
+public class TrackIndex {
+
+    public static final int FIELD_TRACK = 0;
+
+    public static final int FIELD_ARTIST = 1;
+
+    public static final int FIELD_ALBUM = 2;
+
+    private static final int FIELD_COUNT = 3;
+
+    private static final int GRAM_LENGTH = 3;
+
+    // For every field: trigram -> all tracks which contain this trigram in the field's name
+    private final ArrayList<HashMap<String, HashSet<Track>>> mPostings
+            = new ArrayList<HashMap<String, HashSet<Track>>>();
+
+    // For every field: all tracks for which the field's name is available
+    private final ArrayList<HashSet<Track>> mFieldTracks = new ArrayList<HashSet<Track>>();
+
+    // The lower-cased names of every indexed track, so that we can verify matches and remove
+    // tracks from the index again
+    private final HashMap<Track, String[]> mIndexedNames = new HashMap<Track, String[]>();
+
+    /**
+     * Construct a new empty {@link TrackIndex}
+     */
+    public TrackIndex() {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            mPostings.add(new HashMap<String, HashSet<Track>>());
+            mFieldTracks.add(new HashSet<Track>());
+        }
+    }
+
+    /**
+     * Add the given {@link Track} to this {@link TrackIndex} or update its entry, if the {@link
+     * Track}'s name, {@link Artist} name or {@link Album} name has changed since it has been
+     * indexed.
+     */
+    public synchronized void put(Track track) {
+        String[] names = getNames(track);
+        String[] indexedNames = mIndexedNames.get(track);
+        if (indexedNames != null) {
+            if (Arrays.equals(names, indexedNames)) {
+                return;
+            }
+            removeNames(track, indexedNames);
+        }
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            if (names[field] != null) {
+                mFieldTracks.get(field).add(track);
+                HashMap<String, HashSet<Track>> postings = mPostings.get(field);
+                for (int i = 0; i + GRAM_LENGTH <= names[field].length(); i++) {
+                    String gram = names[field].substring(i, i + GRAM_LENGTH);
+                    HashSet<Track> tracks = postings.get(gram);
+                    if (tracks == null) {
+                        tracks = new HashSet<Track>();
+                        postings.put(gram, tracks);
+                    }
+                    tracks.add(track);
+                }
+            }
+        }
+        mIndexedNames.put(track, names);
+    }
+
+    /**
+     * Remove the given {@link Track} from this {@link TrackIndex}
+     */
+    public synchronized void remove(Track track) {
+        String[] indexedNames = mIndexedNames.remove(track);
+        if (indexedNames != null) {
+            removeNames(track, indexedNames);
+        }
+    }
+
+    /**
+     * Remove all {@link Track}s from this {@link TrackIndex}
+     */
+    public synchronized void clear() {
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            mPostings.get(field).clear();
+            mFieldTracks.get(field).clear();
+        }
+        mIndexedNames.clear();
+    }
+
+    /**
+     * @return the number of {@link Track}s in this {@link TrackIndex}
+     */
+    public synchronized int size() {
+        return mIndexedNames.size();
+    }
+
+    /**
+     * Get all {@link Track}s whose name contains the given trackName, or whose {@link Artist}'s
+     * name contains the given artistName, or whose {@link Album}'s name contains the given
+     * albumName. All given {@link String}s have to be lower-cased already. A null {@link String}
+     * doesn't match anything, an empty {@link String} matches every {@link Track} for which the
+     * corresponding name is available.
+     *
+     * @return an {@link ArrayList} containing every matching {@link Track} exactly once
+     */
+    public synchronized ArrayList<Track> getMatches(String trackName, String artistName,
+            String albumName) {
+        LinkedHashSet<Track> matches = new LinkedHashSet<Track>();
+        addMatches(matches, FIELD_TRACK, trackName);
+        addMatches(matches, FIELD_ARTIST, artistName);
+        addMatches(matches, FIELD_ALBUM, albumName);
+        return new ArrayList<Track>(matches);
+    }
+
+    /**
+     * Check a single {@link Track} without the help of an index. This is the matching step of a
+     * linear scan through a {@link Collection}, which has no {@link TrackIndex}. It matches the
+     * same {@link Track}s as {@link #getMatches(String, String, String)} does.
+     *
+     * @return whether the given {@link Track}'s name contains the given trackName, or its {@link
+     * Artist}'s name contains the given artistName, or its {@link Album}'s name contains the given
+     * albumName
+     */
+    public static boolean matches(Track track, String trackName, String artistName,
+            String albumName) {
+        return contains(track.getName(), trackName)
+                || (track.getArtist() != null && contains(track.getArtist().getName(), artistName))
+                || (track.getAlbum() != null && contains(track.getAlbum().getName(), albumName));
+    }
+
+    /**
+     * @return whether the lower-cased given name contains the given term. Nothing is contained in
+     * a null name and a null term isn't contained in anything.
+     */
+    private static boolean contains(String name, String term) {
+        return name != null && term != null && name.toLowerCase().contains(term);
+    }
+
+    /**
+     * Add every {@link Track} to the given {@link LinkedHashSet}, for which the name of the given
+     * field contains the given term.
+     */
+    private void addMatches(LinkedHashSet<Track> matches, int field, String term) {
+        if (term == null) {
+            return;
+        }
+        HashSet<Track> candidates = mFieldTracks.get(field);
+        if (term.length() >= GRAM_LENGTH) {
+            // Every trigram of the term has to be contained in the name. So it's sufficient to
+            // only look at the tracks inside the smallest posting list.
+            HashMap<String, HashSet<Track>> postings = mPostings.get(field);
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                HashSet<Track> tracks = postings.get(term.substring(i, i + GRAM_LENGTH));
+                if (tracks == null) {
+                    return;
+                }
+                if (tracks.size() < candidates.size()) {
+                    candidates = tracks;
+                }
+            }
+        }
+        for (Track candidate : candidates) {
+            if (!matches.contains(candidate)
+                    && mIndexedNames.get(candidate)[field].contains(term)) {
+                matches.add(candidate);
+            }
+        }
+    }
+
+    /**
+     * Remove the given {@link Track} from all posting lists of the given names
+     */
+    private void removeNames(Track track, String[] names) {
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            if (names[field] != null) {
+                mFieldTracks.get(field).remove(track);
+                HashMap<String, HashSet<Track>> postings = mPostings.get(field);
+                for (int i = 0; i + GRAM_LENGTH <= names[field].length(); i++) {
+                    String gram = names[field].substring(i, i + GRAM_LENGTH);
+                    HashSet<Track> tracks = postings.get(gram);
+                    if (tracks != null) {
+                        tracks.remove(track);
+                        if (tracks.isEmpty()) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the lower-cased names of the given {@link Track}, its {@link Artist} and its {@link
+     * Album}. An entry is null, if the corresponding name isn't available.
+     */
+    private static String[] getNames(Track track) {
+        String[] names = new String[FIELD_COUNT];
+        if (track.getName() != null) {
+            names[FIELD_TRACK] = track.getName().toLowerCase();
+        }
+        if (track.getArtist() != null && track.getArtist().getName() != null) {
+            names[FIELD_ARTIST] = track.getArtist().getName().toLowerCase();
+        }
+        if (track.getAlbum() != null && track.getAlbum().getName() != null) {
+            names[FIELD_ALBUM] = track.getAlbum().getName().toLowerCase();
+        }
+        return names;
+    }
+}
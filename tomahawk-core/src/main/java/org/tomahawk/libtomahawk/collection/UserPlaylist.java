@@ -17,14 +17,12 @@
  */
 package org.tomahawk.libtomahawk.collection;
 
-import org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter;
-
 import java.util.ArrayList;
 
 /**
  * A {@link UserPlaylist} is a {@link Playlist} created by the user and stored in the database
  */
-public class UserPlaylist extends Playlist implements TomahawkBaseAdapter.TomahawkListItem {
+public class UserPlaylist extends Playlist implements TomahawkListItem {
 
     /**
      * Create a {@link UserPlaylist} from a list of {@link Track}s.
@@ -117,8 +115,7 @@ public class UserPlaylist extends Playlist implements TomahawkBaseAdapter.Tomaha
     }
 
     /**
-     * @return always null. This method needed to comply to the {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}
-     * interface.
+     * @return always null. This method needed to comply to the {@link TomahawkListItem} interface.
      */
     @Override
     public Artist getArtist() {
@@ -126,8 +123,7 @@ public class UserPlaylist extends Playlist implements TomahawkBaseAdapter.Tomaha
     }
 
     /**
-     * @return always null. This method needed to comply to the {@link org.tomahawk.tomahawk_android.adapters.TomahawkBaseAdapter.TomahawkListItem}
-     * interface.
+     * @return always null. This method needed to comply to the {@link TomahawkListItem} interface.
      */
     @Override
     public Album getAlbum() {
@@ -0,0 +1,644 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.utils.EventBus;
+import org.tomahawk.libtomahawk.utils.IdGenerator;
+import org.tomahawk.libtomahawk.utils.Platform;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The {@link PipeLine} is being used to provide all the resolving functionality. All {@link
+ * Resolver}s are stored and invoked here. Callbacks which report the found {@link Result}s are also
+ * included in this class.
+ */
+public class PipeLine {
+
+    private final static String TAG = PipeLine.class.getName();
+
+    public static final int PIPELINE_SEARCHTYPE_TRACKS = 0;
+
+    public static final int PIPELINE_SEARCHTYPE_ARTISTS = 1;
+
+    public static final int PIPELINE_SEARCHTYPE_ALBUMS = 2;
+
+    public static final String PIPELINE_RESULTSREPORTED_FULLTEXTQUERY
+            = "org.tomahawk.tomahawk_android.pipeline_resultsreported_fulltextquery";
+
+    public static final String PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY
+            = "org.tomahawk.tomahawk_android.pipeline_resultsreported_non_fulltextquery";
+
+    public static final String PIPELINE_RESULTSREPORTED_BATCH
+            = "org.tomahawk.tomahawk_android.pipeline_resultsreported_batch";
+
+    private static final float MINSCORE = 0.5F;
+
+    // The id under which a Query is marked as done, if it has been answered by the ResolutionStore
+    private static final int RESOLVER_ID_RESOLUTIONS = -1;
+
+    // The id under which a Query is marked as done, if there is no Resolver available to resolve it
+    private static final int RESOLVER_ID_NONE = -2;
+
+    // The time in milliseconds a Resolver is given to report its results, if it doesn't define its
+    // own timeout
+    static final int DEFAULT_RESOLVER_TIMEOUT = 10000;
+
+    // A Result scoring at least this high is considered good enough to skip low-yield Resolvers
+    private static final float CONFIDENT_SCORE = 0.9F;
+
+    private ArrayList<Resolver> mResolvers = new ArrayList<Resolver>();
+
+    private QueryCache mQueryCache = new QueryCache();
+
+    private final ResolverScheduler mResolverScheduler;
+
+    private final ArrayList<QueryBatch> mPendingBatches = new ArrayList<QueryBatch>();
+
+    private ResolutionStore mResolutionStore;
+
+    private boolean mRevalidateResolutions = false;
+
+    /**
+     * Construct a new {@link PipeLine}
+     */
+    public PipeLine() {
+        this(new ResolverScheduler());
+    }
+
+    /**
+     * Construct a new {@link PipeLine}, which uses the given {@link ResolverScheduler} (e.g. one
+     * with a short backoff in tests)
+     */
+    PipeLine(ResolverScheduler resolverScheduler) {
+        mResolverScheduler = resolverScheduler;
+    }
+
+    /**
+     * Add a {@link Resolver} to the internal list.
+     */
+    public void addResolver(Resolver resolver) {
+        mResolvers.add(resolver);
+    }
+
+    /**
+     * Set the {@link ResolutionStore}, which is used to answer non-fulltext {@link Query}s with
+     * already known resolutions and to persist new ones
+     */
+    public void setResolutionStore(ResolutionStore resolutionStore) {
+        mResolutionStore = resolutionStore;
+    }
+
+    /**
+     * Set whether or not a {@link Query}, which has been answered by the {@link ResolutionStore},
+     * should still be resolved by every {@link Resolver} in the background
+     */
+    public void setRevalidateResolutions(boolean revalidateResolutions) {
+        mRevalidateResolutions = revalidateResolutions;
+    }
+
+    /**
+     * Get the {@link Resolver} with the given id, null if not found
+     */
+    public Resolver getResolver(int id) {
+        for (Resolver resolver : mResolvers) {
+            if (resolver.getId() == id) {
+                return resolver;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This will invoke every {@link Resolver} to resolve the given fullTextQuery. If there already
+     * is a {@link Query} with the same fullTextQuery, the old resultList will be reported.
+     */
+    public String resolve(String fullTextQuery) {
+        return resolve(fullTextQuery, false);
+    }
+
+    /**
+     * This will invoke every {@link Resolver} to resolve the given fullTextQuery. If there already
+     * is a {@link Query} with the same fullTextQuery, the old resultList will be reported.
+     */
+    public String resolve(String fullTextQuery, boolean onlyLocal) {
+        Query q = null;
+        if (fullTextQuery != null && fullTextQuery.length() > 0) {
+            q = mQueryCache.getByCacheKey(Query.constructCacheKey(fullTextQuery));
+            if (q == null || q.isOnlyLocal() != onlyLocal) {
+                q = new Query(IdGenerator.getUniqueStringId(), fullTextQuery, onlyLocal);
+            }
+            resolve(q, onlyLocal);
+        }
+        return q == null ? null : q.getQid();
+    }
+
+    /**
+     * This will invoke every {@link Resolver} to resolve the given {@link
+     * org.tomahawk.libtomahawk.collection.Track}/{@link org.tomahawk.libtomahawk.collection.Artist}/{@link
+     * org.tomahawk.libtomahawk.collection.Album}. If there already is a {@link Query} with the same
+     * {@link org.tomahawk.libtomahawk.collection.Track}/{@link org.tomahawk.libtomahawk.collection.Artist}/{@link
+     * org.tomahawk.libtomahawk.collection.Album}, the old resultList will be reported.
+     */
+    public String resolve(String trackName, String albumName, String artistName) {
+        return resolve(trackName, albumName, artistName, false);
+    }
+
+    /**
+     * This will invoke every {@link Resolver} to resolve the given {@link
+     * org.tomahawk.libtomahawk.collection.Track}/{@link org.tomahawk.libtomahawk.collection.Artist}/{@link
+     * org.tomahawk.libtomahawk.collection.Album}. If there already is a {@link Query} with the same
+     * {@link org.tomahawk.libtomahawk.collection.Track}/{@link org.tomahawk.libtomahawk.collection.Artist}/{@link
+     * org.tomahawk.libtomahawk.collection.Album}, the old resultList will be reported.
+     */
+    public String resolve(String trackName, String albumName, String artistName,
+            boolean onlyLocal) {
+        Query q = null;
+        if (trackName != null && trackName.length() > 0) {
+            q = mQueryCache
+                    .getByCacheKey(Query.constructCacheKey(trackName, albumName, artistName));
+            if (q == null || q.isOnlyLocal() != onlyLocal) {
+                q = new Query(IdGenerator.getUniqueStringId(), trackName, albumName, artistName,
+                        onlyLocal);
+            }
+            resolve(q, onlyLocal);
+        }
+        return q == null ? null : q.getQid();
+    }
+
+    /**
+     * This will invoke every {@link Resolver} to resolve the given {@link Query}.
+     */
+    public void resolve(Query q) {
+        resolve(q, false);
+    }
+
+    /**
+     * This will invoke every {@link Resolver} to resolve the given {@link Query}.
+     */
+    public void resolve(Query q, boolean onlyLocal) {
+        if (q.isSolved()) {
+            if (q.isFullTextQuery()) {
+                postReportFulltextQueryResultsEvent(q.getQid());
+            } else {
+                postReportNonFulltextQueryResultsEvent(q.getQid());
+            }
+        } else if (mQueryCache.get(q.getQid()) == null) {
+            mQueryCache.put(q);
+            ArrayList<Query> queries = new ArrayList<Query>();
+            queries.add(q);
+            resolveFromResolutions(queries, onlyLocal);
+        } else {
+            for (Resolver resolver : mResolvers) {
+                if (shouldResolve(resolver, onlyLocal)) {
+                    resolver.resolve(q);
+                }
+            }
+        }
+    }
+
+    /**
+     * This will invoke every {@link Resolver} to resolve all of the given {@link Query}s as one
+     * batch. Every {@link Resolver} is invoked only once with all {@link Query}s that aren't
+     * already cached. Instead of one event per {@link Query}, a single event containing the batch
+     * id is posted, as soon as every {@link Query} of the batch has been solved.
+     *
+     * @param queries   the {@link Query}s to resolve. A {@link Query} with the same cache key as an
+     *                  already cached {@link Query} is replaced by the cached one.
+     * @param onlyLocal whether or not only the local {@link DataBaseResolver} should be used
+     * @return the {@link QueryBatch} containing the {@link Query}s which are actually being
+     * resolved
+     */
+    public QueryBatch resolve(ArrayList<Query> queries, boolean onlyLocal) {
+        ArrayList<Query> batchQueries = new ArrayList<Query>();
+        ArrayList<Query> newQueries = new ArrayList<Query>();
+        for (Query query : queries) {
+            Query q = mQueryCache.getByCacheKey(query.getCacheKey());
+            if (q == null || q.isOnlyLocal() != onlyLocal) {
+                q = query;
+            }
+            if (!batchQueries.contains(q)) {
+                batchQueries.add(q);
+                if (!q.isSolved() && mQueryCache.get(q.getQid()) == null) {
+                    newQueries.add(q);
+                }
+            }
+        }
+        QueryBatch batch = new QueryBatch(IdGenerator.getUniqueStringId(), batchQueries);
+        synchronized (mPendingBatches) {
+            mPendingBatches.add(batch);
+        }
+        for (Query q : newQueries) {
+            mQueryCache.put(q);
+        }
+        if (!newQueries.isEmpty()) {
+            resolveFromResolutions(newQueries, onlyLocal);
+        }
+        // Every Query of this batch might already have been solved before
+        reportBatches(null);
+        return batch;
+    }
+
+    /**
+     * Cancel the {@link Query} with the given id, if it is still being resolved. Every {@link
+     * Resolver} is told to stop working on it, all {@link Result}s which are reported afterwards
+     * are dropped and the {@link Query} is removed from the {@link QueryCache}. Pending {@link
+     * QueryBatch}es containing the {@link Query} are dropped as well, since they can't be solved
+     * anymore.
+     */
+    public void cancel(String qid) {
+        Query q = mQueryCache.get(qid);
+        if (q == null || q.isSolved()) {
+            return;
+        }
+        q.setCancelled();
+        mQueryCache.remove(qid);
+        for (Resolver resolver : mResolvers) {
+            resolver.cancel(q);
+            mResolverScheduler.onCancelled(resolver, qid);
+        }
+        synchronized (mPendingBatches) {
+            for (int i = mPendingBatches.size() - 1; i >= 0; i--) {
+                if (mPendingBatches.get(i).contains(qid)) {
+                    mPendingBatches.remove(i);
+                }
+            }
+        }
+        Platform.getInstance().logDebug(TAG, "Cancelled query '" + qid + "'");
+    }
+
+    /**
+     * Hand the given {@link Query}s over to every available {@link Resolver}. The {@link
+     * Resolver}s with the lowest latency are invoked first. {@link Resolver}s whose circuit is open
+     * are left out. Low-yield {@link Resolver}s are deferred until the others have usually reported
+     * and are skipped for every {@link Query} which already has a confident {@link Result} of a
+     * {@link Resolver} with a higher weight. If no {@link Resolver} is available at all, the
+     * {@link Query}s are solved right away with the {@link Result}s they already have.
+     */
+    private void dispatch(final ArrayList<Query> queries, boolean onlyLocal) {
+        ArrayList<Resolver> resolvers = new ArrayList<Resolver>();
+        for (Resolver resolver : mResolvers) {
+            if (shouldResolve(resolver, onlyLocal) && mResolverScheduler.isAvailable(resolver)) {
+                resolvers.add(resolver);
+            }
+        }
+        if (resolvers.isEmpty()) {
+            for (Query q : queries) {
+                if (!q.isCancelled()) {
+                    q.incResolversTodoCount();
+                    q.setResolverDone(RESOLVER_ID_NONE);
+                    Platform.getInstance().logDebug(TAG,
+                            "No resolver available for query '" + q.getQid() + "'");
+                    reportQueryUpdated(q);
+                }
+            }
+            return;
+        }
+        mResolverScheduler.sortByLatency(resolvers);
+        final ArrayList<Resolver> deferredResolvers = new ArrayList<Resolver>();
+        for (Resolver resolver : resolvers) {
+            for (Query q : queries) {
+                q.incResolversTodoCount();
+            }
+            if (!resolver.isLocal() && mResolverScheduler.isLowYield(resolver)) {
+                deferredResolvers.add(resolver);
+            } else {
+                invokeResolver(resolver, queries);
+            }
+        }
+        if (!deferredResolvers.isEmpty()) {
+            Platform.getInstance().postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    for (Resolver resolver : deferredResolvers) {
+                        ArrayList<Query> remainingQueries = new ArrayList<Query>();
+                        for (Query q : queries) {
+                            if (q.isCancelled()) {
+                                continue;
+                            }
+                            if (!hasConfidentResult(q, resolver)) {
+                                remainingQueries.add(q);
+                            } else if (q.setResolverDone(resolver.getId())) {
+                                Platform.getInstance().logDebug(TAG,
+                                        "Skipped low-yield resolver with id " + resolver.getId()
+                                                + " on query '" + q.getQid() + "'");
+                                storeResolution(q);
+                                reportQueryUpdated(q);
+                            }
+                        }
+                        if (!remainingQueries.isEmpty()) {
+                            invokeResolver(resolver, remainingQueries);
+                        } else {
+                            mResolverScheduler.onSkipped(resolver);
+                        }
+                    }
+                }
+            }, mResolverScheduler.getDeferDelay(resolvers));
+        }
+    }
+
+    /**
+     * Invoke the given {@link Resolver} with the given {@link Query}s and schedule its deadline
+     */
+    private void invokeResolver(Resolver resolver, ArrayList<Query> queries) {
+        mResolverScheduler.onDispatched(resolver, queries);
+        if (queries.size() == 1) {
+            resolver.resolve(queries.get(0));
+        } else {
+            resolver.resolve(queries);
+        }
+        scheduleDeadline(queries, resolver);
+    }
+
+    /**
+     * @return whether or not the given {@link Query}'s best track {@link Result} scores at least
+     * CONFIDENT_SCORE and comes from a {@link Resolver} with a higher weight than the given one
+     */
+    private boolean hasConfidentResult(Query q, Resolver resolver) {
+        ArrayList<Track> tracks = q.getTrackResults();
+        if (tracks.isEmpty()) {
+            return false;
+        }
+        Track track = tracks.get(0);
+        return track.getScore() >= CONFIDENT_SCORE && track.getResolver() != null
+                && track.getResolver().getWeight() > resolver.getWeight();
+    }
+
+    /**
+     * @return the {@link ResolverScheduler} which keeps track of every {@link Resolver}'s
+     * statistics
+     */
+    public ResolverScheduler getResolverScheduler() {
+        return mResolverScheduler;
+    }
+
+    /**
+     * Try to answer the given {@link Query}s with the resolutions stored in the {@link
+     * ResolutionStore}. All non-fulltext {@link Query}s are looked up at once without blocking the
+     * caller. Every {@link Query} with a stored resolution is solved as soon as the lookup has
+     * finished, all others are dispatched to the {@link Resolver}s afterwards. If
+     * mRevalidateResolutions is set, the answered {@link Query}s are dispatched as well.
+     */
+    private void resolveFromResolutions(ArrayList<Query> queries, final boolean onlyLocal) {
+        final ArrayList<Query> storedQueries = new ArrayList<Query>();
+        ArrayList<Query> otherQueries = new ArrayList<Query>();
+        ArrayList<String> cacheKeys = new ArrayList<String>();
+        for (Query q : queries) {
+            if (mResolutionStore == null || onlyLocal || q.isFullTextQuery()) {
+                otherQueries.add(q);
+            } else {
+                storedQueries.add(q);
+                cacheKeys.add(q.getCacheKey());
+            }
+        }
+        if (!otherQueries.isEmpty()) {
+            dispatch(otherQueries, onlyLocal);
+        }
+        if (storedQueries.isEmpty()) {
+            return;
+        }
+        mResolutionStore.getResolutions(cacheKeys, new ResolutionStore.Callback() {
+            @Override
+            public void onResolutions(HashMap<String, Result> resolutions) {
+                ArrayList<Query> remainingQueries = new ArrayList<Query>();
+                for (Query q : storedQueries) {
+                    if (q.isCancelled()) {
+                        continue;
+                    }
+                    Result result = resolutions.get(q.getCacheKey());
+                    if (result != null) {
+                        ArrayList<Result> results = new ArrayList<Result>();
+                        results.add(result);
+                        q.addTrackResults(results);
+                        q.incResolversTodoCount();
+                        q.setResolverDone(RESOLVER_ID_RESOLUTIONS);
+                        reportQueryUpdated(q);
+                    }
+                    if (result == null || mRevalidateResolutions) {
+                        remainingQueries.add(q);
+                    }
+                }
+                if (!remainingQueries.isEmpty()) {
+                    dispatch(remainingQueries, onlyLocal);
+                }
+            }
+        });
+    }
+
+    /**
+     * Persist the best {@link Result} of the given {@link Query}, if it has been solved
+     */
+    private void storeResolution(Query q) {
+        if (mResolutionStore != null && q.isSolved() && !q.isFullTextQuery()
+                && !q.isOnlyLocal()) {
+            ArrayList<Track> tracks = q.getTrackResults();
+            if (!tracks.isEmpty()) {
+                mResolutionStore.storeResolution(q.getCacheKey(), tracks.get(0),
+                        ResolutionStore.DEFAULT_TIME_TO_LIVE);
+            }
+        }
+    }
+
+    /**
+     * @return whether or not the given {@link Resolver} should be invoked
+     */
+    private boolean shouldResolve(Resolver resolver, boolean onlyLocal) {
+        return !onlyLocal || resolver.isLocal();
+    }
+
+    /**
+     * Schedule the deadline for the given {@link Resolver} to report its results for the given
+     * {@link Query}s. If the {@link Resolver} hasn't reported by then, it is marked as timed out and
+     * the {@link Query}s are finished with the {@link Result}s they already have.
+     */
+    private void scheduleDeadline(final ArrayList<Query> queries, final Resolver resolver) {
+        int timeout = resolver.getTimeout() > 0 ? resolver.getTimeout() : DEFAULT_RESOLVER_TIMEOUT;
+        Platform.getInstance().postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                ArrayList<Query> timedOutQueries = new ArrayList<Query>();
+                for (Query q : queries) {
+                    if (!q.isCancelled() && q.setResolverTimedOut(resolver.getId())) {
+                        Platform.getInstance().logDebug(TAG, "Resolver with id "
+                                + resolver.getId() + " timed out on query '" + q.getQid() + "'");
+                        timedOutQueries.add(q);
+                        storeResolution(q);
+                        reportQueryUpdated(q);
+                    }
+                }
+                if (!timedOutQueries.isEmpty()) {
+                    mResolverScheduler.onTimedOut(resolver, timedOutQueries);
+                }
+            }
+        }, timeout);
+    }
+
+    /**
+     * Let everybody know that the given {@link Query} has been updated. If the {@link Query}
+     * belongs to a pending {@link QueryBatch}, only the {@link QueryBatch} will be reported, once
+     * it has been solved completely.
+     */
+    private void reportQueryUpdated(Query q) {
+        if (!reportBatches(q)) {
+            if (q.isFullTextQuery()) {
+                postReportFulltextQueryResultsEvent(q.getQid());
+            } else {
+                postReportNonFulltextQueryResultsEvent(q.getQid());
+            }
+        }
+    }
+
+    /**
+     * Report every pending {@link QueryBatch} which contains the given {@link Query} (or every
+     * pending {@link QueryBatch}, if null is given) and has been solved completely.
+     *
+     * @return whether or not the given {@link Query} belongs to a pending {@link QueryBatch}
+     */
+    private boolean reportBatches(Query q) {
+        boolean isBatched = false;
+        ArrayList<QueryBatch> solvedBatches = new ArrayList<QueryBatch>();
+        synchronized (mPendingBatches) {
+            for (int i = mPendingBatches.size() - 1; i >= 0; i--) {
+                QueryBatch batch = mPendingBatches.get(i);
+                if (q == null || batch.contains(q.getQid())) {
+                    isBatched = true;
+                    if (batch.isSolved()) {
+                        mPendingBatches.remove(i);
+                        solvedBatches.add(batch);
+                    }
+                }
+            }
+        }
+        for (QueryBatch batch : solvedBatches) {
+            if (batch.setReported()) {
+                postReportBatchResultsEvent(batch.getBatchId());
+            }
+        }
+        return isBatched;
+    }
+
+    /**
+     * Post an event containing the id of the resolved {@link QueryBatch}.
+     */
+    private void postReportBatchResultsEvent(String batchId) {
+        EventBus.getInstance().post(PIPELINE_RESULTSREPORTED_BATCH, batchId);
+    }
+
+    /**
+     * Post an event containing the id of the resolved {@link Query}.
+     */
+    private void postReportFulltextQueryResultsEvent(String qid) {
+        EventBus.getInstance().post(PIPELINE_RESULTSREPORTED_FULLTEXTQUERY, qid);
+    }
+
+    /**
+     * Post an event containing the id of the resolved {@link Query}.
+     */
+    private void postReportNonFulltextQueryResultsEvent(String qid) {
+        EventBus.getInstance().post(PIPELINE_RESULTSREPORTED_NON_FULLTEXTQUERY, qid);
+    }
+
+    /**
+     * If a {@link Resolver} has resolved the {@link Query}, this method will be called. This method
+     * will then calculate a score and assign it to every {@link Result}. If the score is higher
+     * than MINSCORE the {@link Result} is added to the output resultList. Results of a {@link
+     * Resolver} which has already timed out are still merged into the {@link Query}. Results of a
+     * cancelled {@link Query} are dropped.
+     *
+     * @param resolver the {@link Resolver} which reports its results
+     * @param qid      the {@link Query} id
+     * @param results  the unfiltered {@link ArrayList} of {@link Result}s
+     */
+    public void reportResults(Resolver resolver, String qid, ArrayList<Result> results) {
+        Query q = getQuery(qid);
+        if (q != null && !q.isCancelled() && results != null) {
+            ArrayList<Result> cleanTrackResults = mergeResults(q, results);
+            float bestScore = 0F;
+            for (Result r : cleanTrackResults) {
+                bestScore = Math.max(bestScore, r.getTrackScore());
+            }
+            mResolverScheduler.onReported(resolver, qid, cleanTrackResults.size(), bestScore,
+                    q.hasTimedOut(resolver.getId()));
+            if (!q.setResolverDone(resolver.getId())) {
+                Platform.getInstance().logDebug(TAG, "Merged late results of resolver with id "
+                        + resolver.getId() + " into query '" + qid + "'");
+            }
+            storeResolution(q);
+            reportQueryUpdated(q);
+        }
+    }
+
+    /**
+     * Calculate the track, album and artist score of every given {@link Result} and add those
+     * {@link Result}s to the given {@link Query}, which score at least MINSCORE.
+     *
+     * @param q       the {@link Query} the {@link Result}s belong to
+     * @param results the unfiltered {@link ArrayList} of {@link Result}s
+     * @return the {@link Result}s which have been added as track results
+     */
+    public static ArrayList<Result> mergeResults(Query q, ArrayList<Result> results) {
+        ArrayList<Result> cleanTrackResults = new ArrayList<Result>();
+        ArrayList<Result> cleanAlbumResults = new ArrayList<Result>();
+        ArrayList<Result> cleanArtistResults = new ArrayList<Result>();
+        for (Result r : results) {
+            if (r != null) {
+                r.setTrackScore(q.howSimilar(r, PIPELINE_SEARCHTYPE_TRACKS, MINSCORE));
+                if (r.getTrackScore() >= MINSCORE) {
+                    cleanTrackResults.add(r);
+                }
+                r.setAlbumScore(q.howSimilar(r, PIPELINE_SEARCHTYPE_ALBUMS, MINSCORE));
+                if (r.getAlbumScore() >= MINSCORE) {
+                    cleanAlbumResults.add(r);
+                }
+                r.setArtistScore(q.howSimilar(r, PIPELINE_SEARCHTYPE_ARTISTS, MINSCORE));
+                if (r.getArtistScore() >= MINSCORE) {
+                    cleanArtistResults.add(r);
+                }
+            }
+        }
+        q.addArtistResults(cleanArtistResults);
+        //            q.addAlbumResults(cleanAlbumResults);
+        q.addTrackResults(cleanTrackResults);
+        return cleanTrackResults;
+    }
+
+    /**
+     * @return true if one or more {@link Query}s are still waiting for a {@link Resolver} to report
+     * its results or to time out. False otherwise
+     */
+    public boolean isResolving() {
+        return mQueryCache.hasUnsolvedQueries();
+    }
+
+    /**
+     * Get the {@link Query} with the given id. Null, if the {@link Query} has already been evicted
+     * from the {@link QueryCache}.
+     */
+    public Query getQuery(String qid) {
+        return mQueryCache.get(qid);
+    }
+
+    /**
+     * @return the {@link QueryCache} which holds all {@link Query}s of this {@link PipeLine}
+     */
+    public QueryCache getQueryCache() {
+        return mQueryCache;
+    }
+}
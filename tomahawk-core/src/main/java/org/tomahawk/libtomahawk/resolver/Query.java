@@ -0,0 +1,402 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.tomahawk.libtomahawk.collection.Album;
+import org.tomahawk.libtomahawk.collection.AlbumComparator;
+import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.ArtistComparator;
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.collection.TrackComparator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author Enno Gottschalk <mrmaffen@googlemail.com> Date: 18.01.13
+ *
+ * This class represents a query which is passed to a resolver. It contains all the information
+ * needed to enable the Resolver to resolve the results.
+ */
+public class Query {
+
+    public static final String TAG = Query.class.getName();
+
+    private final ResultGroups mTrackResults = new ResultGroups(true);
+
+    private final ResultGroups mAlbumResults = new ResultGroups(false);
+
+    private final ResultGroups mArtistResults = new ResultGroups(false);
+
+    private volatile Snapshot<Track> mTrackSnapshot;
+
+    private volatile Snapshot<Album> mAlbumSnapshot;
+
+    private volatile Snapshot<Artist> mArtistSnapshot;
+
+    // The number of resolvers to wait for in the upper 32 bits, the number of resolvers that are
+    // done in the lower 32 bits. Both are kept in one value, so that they are always consistent.
+    private final AtomicLong mResolverCounts = new AtomicLong();
+
+    private final Set<Integer> mReportedResolverIds = Collections
+            .newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    private final Set<Integer> mTimedOutResolverIds = Collections
+            .newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    private String mQid;
+
+    private String mFullTextQuery;
+
+    private String mCleanFullTextQuery;
+
+    private boolean mIsFullTextQuery;
+
+    private boolean mIsOnlyLocal;
+
+    private volatile boolean mIsCancelled;
+
+    private String mTrackName = "";
+
+    private String mAlbumName = "";
+
+    private String mArtistName = "";
+
+    private String mCacheKey;
+
+    /**
+     * A sorted list of results, together with the version of the {@link ResultGroups} it has been
+     * created from
+     */
+    private static class Snapshot<T> {
+
+        private final int mVersion;
+
+        private final ArrayList<T> mItems;
+
+        private Snapshot(int version, ArrayList<T> items) {
+            mVersion = version;
+            mItems = items;
+        }
+    }
+
+    /**
+     * Constructs a new Query with the given QueryID. ID should be generated in TomahawkApp.
+     */
+    public Query(final String qid) {
+        mQid = qid;
+    }
+
+    /**
+     * Constructs a new Query with the given QueryID and a fullTextQuery String. ID should be
+     * generated in TomahawkApp.
+     */
+    public Query(final String qid, final String fullTextQuery, final boolean onlyLocal) {
+        mFullTextQuery = fullTextQuery;
+        mIsFullTextQuery = true;
+        mCacheKey = constructCacheKey(mFullTextQuery);
+        mIsOnlyLocal = onlyLocal;
+        mQid = qid;
+    }
+
+    public Query(final String qid, final String trackName, final String albumName,
+            final String artistName, final boolean onlyLocal) {
+        mTrackName = trackName;
+        mAlbumName = albumName;
+        mArtistName = artistName;
+        mCacheKey = constructCacheKey(mTrackName, mAlbumName, mArtistName);
+        mQid = qid;
+        mIsFullTextQuery = false;
+        mIsOnlyLocal = onlyLocal;
+    }
+
+    public static String constructCacheKey(String fullTextQuery) {
+        return fullTextQuery;
+    }
+
+    public static String constructCacheKey(String trackName, String albumName, String artistName) {
+        return trackName + "+" + albumName + "+" + artistName;
+    }
+
+    public static Track trackResultToTrack(Track trackResult, Track track) {
+        track.setPath(trackResult.getPath());
+        track.setResolver(trackResult.getResolver());
+        track.setDuration(trackResult.getDuration());
+        track.setName(trackResult.getName());
+        return track;
+    }
+
+    /**
+     * @return A ArrayList<Track> which contains all tracks in the resultList, sorted by score. The
+     * tracks are only sorted again, if new results have been added in the meantime.
+     */
+    public ArrayList<Track> getTrackResults() {
+        int version = mTrackResults.getVersion();
+        Snapshot<Track> snapshot = mTrackSnapshot;
+        if (snapshot == null || snapshot.mVersion != version) {
+            ArrayList<Track> tracks = new ArrayList<Track>();
+            for (Result result : mTrackResults.getFirstResults()) {
+                tracks.add(result.getTrack());
+            }
+            Collections.sort(tracks, new TrackComparator(TrackComparator.COMPARE_SCORE));
+            snapshot = new Snapshot<Track>(version, tracks);
+            mTrackSnapshot = snapshot;
+        }
+        return new ArrayList<Track>(snapshot.mItems);
+    }
+
+    /**
+     * Append an ArrayList<Result> to the track result list
+     */
+    public void addTrackResults(ArrayList<Result> results) {
+        for (Result r : results) {
+            String trackName = "";
+            Track track = r.getTrack();
+            if (track != null && track.getName() != null) {
+                trackName = cleanUpString(track.getName(), false);
+            }
+            String artistName = "";
+            Artist artist = r.getArtist();
+            if (artist != null && artist.getName() != null) {
+                artistName = cleanUpString(artist.getName(), false);
+            }
+            String albumName = "";
+            Album album = r.getAlbum();
+            if (album != null && album.getName() != null) {
+                albumName = cleanUpString(album.getName(), false);
+            }
+            String key = trackName + "+" + artistName + "+" + albumName;
+            mTrackResults.add(key, r);
+        }
+    }
+
+    /**
+     * @return A ArrayList<Album> which contains all albums in the resultList, sorted by score.
+     */
+    public ArrayList<Album> getAlbumResults() {
+        int version = mAlbumResults.getVersion();
+        Snapshot<Album> snapshot = mAlbumSnapshot;
+        if (snapshot == null || snapshot.mVersion != version) {
+            ArrayList<Album> albums = new ArrayList<Album>();
+            for (Result result : mAlbumResults.getFirstResults()) {
+                albums.add(result.getAlbum());
+            }
+            Collections.sort(albums, new AlbumComparator(AlbumComparator.COMPARE_SCORE));
+            snapshot = new Snapshot<Album>(version, albums);
+            mAlbumSnapshot = snapshot;
+        }
+        return new ArrayList<Album>(snapshot.mItems);
+    }
+
+    /**
+     * Append an ArrayList<Result> to the track result list
+     */
+    public void addAlbumResults(ArrayList<Result> results) {
+        for (Result r : results) {
+            String artistName = "";
+            Artist artist = r.getArtist();
+            if (artist != null && artist.getName() != null) {
+                artistName = cleanUpString(artist.getName(), false);
+            }
+            String albumName = "";
+            Album album = r.getAlbum();
+            if (album != null && album.getName() != null) {
+                albumName = cleanUpString(album.getName(), false);
+            }
+            String key = artistName + "+" + albumName;
+            boolean isDuplicate = !mAlbumResults.add(key, r);
+
+            Result[] artistResults = mArtistResults.get(artistName);
+            if (artistResults != null && !isDuplicate) {
+                for (Result artistResult : artistResults) {
+                    artistResult.getArtist().addAlbum(album);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the ArrayList containing all track results
+     */
+    public ArrayList<Artist> getArtistResults() {
+        int version = mArtistResults.getVersion();
+        Snapshot<Artist> snapshot = mArtistSnapshot;
+        if (snapshot == null || snapshot.mVersion != version) {
+            ArrayList<Artist> artists = new ArrayList<Artist>();
+            for (Result result : mArtistResults.getFirstResults()) {
+                artists.add(result.getArtist());
+            }
+            Collections.sort(artists, new ArtistComparator(ArtistComparator.COMPARE_SCORE));
+            snapshot = new Snapshot<Artist>(version, artists);
+            mArtistSnapshot = snapshot;
+        }
+        return new ArrayList<Artist>(snapshot.mItems);
+    }
+
+    /**
+     * Append an ArrayList<Result> to the track result list
+     */
+    public void addArtistResults(ArrayList<Result> results) {
+        for (Result r : results) {
+            String artistName = "";
+            Artist artist = r.getArtist();
+            if (artist != null && artist.getName() != null) {
+                artistName = cleanUpString(artist.getName(), false);
+            }
+            mArtistResults.add(artistName, r);
+        }
+    }
+
+    public String getFullTextQuery() {
+        return mFullTextQuery;
+    }
+
+    public boolean isFullTextQuery() {
+        return mIsFullTextQuery;
+    }
+
+    public boolean isOnlyLocal() {
+        return mIsOnlyLocal;
+    }
+
+    /**
+     * @return whether or not every {@link Resolver} this {@link Query} has been waiting for has
+     * reported or timed out
+     */
+    public boolean isSolved() {
+        long counts = mResolverCounts.get();
+        int doneCount = (int) counts;
+        int todoCount = (int) (counts >>> 32);
+        return doneCount != 0 && todoCount == doneCount;
+    }
+
+    public String getQid() {
+        return mQid;
+    }
+
+    /**
+     * Mark this {@link Query} as cancelled. Its {@link Result}s are dropped from now on.
+     */
+    public void setCancelled() {
+        mIsCancelled = true;
+    }
+
+    /**
+     * @return whether or not this {@link Query} has been cancelled
+     */
+    public boolean isCancelled() {
+        return mIsCancelled;
+    }
+
+    /**
+     * This method determines how similar the given result is to the search string.
+     */
+    public float howSimilar(Result r, int searchType) {
+        return howSimilar(r, searchType, 0F);
+    }
+
+    /**
+     * This method determines how similar the given result is to the search string. The returned
+     * score is only exact, if it is greater than or equal to the given minScore. Otherwise it is
+     * only guaranteed to be lower than minScore, which allows us to skip expensive computations.
+     */
+    public float howSimilar(Result r, int searchType, float minScore) {
+        return SimilarityEngine.get().howSimilar(this, r, searchType, minScore);
+    }
+
+    /**
+     * Clean up the given String.
+     *
+     * @param replaceArticle wether or not the prefix "the " should be removed
+     * @return the clean String
+     */
+    public String cleanUpString(String in, boolean replaceArticle) {
+        return SimilarityEngine.cleanUpString(in, replaceArticle);
+    }
+
+    /**
+     * @return the cleaned up fullTextQuery
+     */
+    String getCleanFullTextQuery() {
+        if (mCleanFullTextQuery == null) {
+            mCleanFullTextQuery = cleanUpString(mFullTextQuery, false);
+        }
+        return mCleanFullTextQuery;
+    }
+
+    public String getTrackName() {
+        return mTrackName;
+    }
+
+    public String getAlbumName() {
+        return mAlbumName;
+    }
+
+    public String getArtistName() {
+        return mArtistName;
+    }
+
+    public void incResolversTodoCount() {
+        mResolverCounts.addAndGet(1L << 32);
+    }
+
+    /**
+     * Mark the {@link Resolver} with the given id as done.
+     *
+     * @return true, if this is the first time the {@link Resolver} has been marked as done or timed
+     * out. False, if it has already been counted before (e.g. because it has timed out).
+     */
+    public boolean setResolverDone(int resolverId) {
+        if (mReportedResolverIds.add(resolverId)) {
+            mResolverCounts.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Mark the {@link Resolver} with the given id as timed out, if it hasn't reported yet. It is
+     * then counted as done, so that this {@link Query} can be solved with the {@link Result}s it
+     * already has.
+     *
+     * @return true, if the {@link Resolver} has been marked as timed out. False, if it has already
+     * reported before.
+     */
+    public boolean setResolverTimedOut(int resolverId) {
+        if (mReportedResolverIds.add(resolverId)) {
+            mTimedOutResolverIds.add(resolverId);
+            mResolverCounts.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether or not the {@link Resolver} with the given id has timed out
+     */
+    public boolean hasTimedOut(int resolverId) {
+        return mTimedOutResolverIds.contains(resolverId);
+    }
+
+    public String getCacheKey() {
+        return mCacheKey;
+    }
+}
@@ -0,0 +1,98 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * A batch of {@link Query}s, which are resolved together by the {@link PipeLine}. The {@link
+ * PipeLine} reports a {@link QueryBatch} only once, as soon as all of its {@link Query}s have been
+ * solved.
+ */
+public class QueryBatch {
+
+    private String mBatchId;
+
+    private ArrayList<Query> mQueries;
+
+    private HashSet<String> mQids = new HashSet<String>();
+
+    private boolean mReported;
+
+    /**
+     * Construct a new {@link QueryBatch}
+     *
+     * @param batchId the id of this {@link QueryBatch}
+     * @param queries the {@link Query}s which belong to this {@link QueryBatch}
+     */
+    public QueryBatch(String batchId, ArrayList<Query> queries) {
+        mBatchId = batchId;
+        mQueries = queries;
+        for (Query query : queries) {
+            mQids.add(query.getQid());
+        }
+    }
+
+    /**
+     * @return this {@link QueryBatch}'s id
+     */
+    public String getBatchId() {
+        return mBatchId;
+    }
+
+    /**
+     * @return all {@link Query}s which belong to this {@link QueryBatch}
+     */
+    public ArrayList<Query> getQueries() {
+        return mQueries;
+    }
+
+    /**
+     * @return whether or not the {@link Query} with the given id belongs to this {@link
+     * QueryBatch}
+     */
+    public boolean contains(String qid) {
+        return mQids.contains(qid);
+    }
+
+    /**
+     * @return whether or not all {@link Query}s of this {@link QueryBatch} have been solved
+     */
+    public boolean isSolved() {
+        for (Query query : mQueries) {
+            if (!query.isSolved()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark this {@link QueryBatch} as reported
+     *
+     * @return true, if it hasn't been marked as reported before
+     */
+    synchronized boolean setReported() {
+        if (mReported) {
+            return false;
+        }
+        mReported = true;
+        return true;
+    }
+}
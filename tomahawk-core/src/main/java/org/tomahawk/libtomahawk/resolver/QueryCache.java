@@ -0,0 +1,220 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A size-bounded cache of {@link Query}s, which is used by the {@link PipeLine}. Solved {@link
+ * Query}s are evicted in least-recently-used order as soon as the cache grows beyond its maximum
+ * size, and expire after a certain time-to-live. {@link Query}s which are still being resolved are
+ * never evicted.
+ */
+public class QueryCache {
+
+    public static final int DEFAULT_MAX_SIZE = 200;
+
+    public static final long DEFAULT_TIME_TO_LIVE = 10 * 60 * 1000;
+
+    private final int mMaxSize;
+
+    private final long mTimeToLive;
+
+    // qid -> CacheEntry, in access-order so that the eldest entry is the least recently used one
+    private final LinkedHashMap<String, CacheEntry> mEntries
+            = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true);
+
+    // cacheKey -> qid
+    private final HashMap<String, String> mCacheKeys = new HashMap<String, String>();
+
+    private int mHitCount;
+
+    private int mMissCount;
+
+    private int mEvictionCount;
+
+    /**
+     * A cached {@link Query} together with the time it has been added to the cache
+     */
+    private static class CacheEntry {
+
+        private final Query mQuery;
+
+        private final long mTimeAdded;
+
+        private CacheEntry(Query query, long timeAdded) {
+            mQuery = query;
+            mTimeAdded = timeAdded;
+        }
+    }
+
+    /**
+     * Construct a new {@link QueryCache} with the default maximum size and time-to-live
+     */
+    public QueryCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Construct a new {@link QueryCache}
+     *
+     * @param maxSize    the maximum number of solved {@link Query}s to keep
+     * @param timeToLive the time in milliseconds after which a solved {@link Query} expires
+     */
+    public QueryCache(int maxSize, long timeToLive) {
+        mMaxSize = maxSize;
+        mTimeToLive = timeToLive;
+    }
+
+    /**
+     * Add the given {@link Query} to this {@link QueryCache}. Evicts expired and least recently
+     * used solved {@link Query}s, if necessary.
+     */
+    public synchronized void put(Query query) {
+        mEntries.put(query.getQid(), new CacheEntry(query, System.currentTimeMillis()));
+        if (query.getCacheKey() != null) {
+            mCacheKeys.put(query.getCacheKey(), query.getQid());
+        }
+        trim();
+    }
+
+    /**
+     * @return the {@link Query} with the given id, or null if it isn't cached (anymore)
+     */
+    public synchronized Query get(String qid) {
+        CacheEntry entry = mEntries.get(qid);
+        return entry == null ? null : entry.mQuery;
+    }
+
+    /**
+     * Look up a previously added {@link Query} by its cache key. Expired {@link Query}s are removed
+     * and not returned.
+     *
+     * @return the {@link Query} with the given cache key, or null if there is none
+     */
+    public synchronized Query getByCacheKey(String cacheKey) {
+        String qid = mCacheKeys.get(cacheKey);
+        CacheEntry entry = qid == null ? null : mEntries.get(qid);
+        if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+            remove(qid);
+            mEvictionCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            mMissCount++;
+            return null;
+        }
+        mHitCount++;
+        return entry.mQuery;
+    }
+
+    /**
+     * @return whether or not this {@link QueryCache} contains a {@link Query} which is still being
+     * resolved
+     */
+    public synchronized boolean hasUnsolvedQueries() {
+        for (CacheEntry entry : mEntries.values()) {
+            if (!entry.mQuery.isSolved()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of {@link Query}s in this {@link QueryCache}
+     */
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * @return the number of times getByCacheKey(...) returned a cached {@link Query}
+     */
+    public synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return the number of times getByCacheKey(...) didn't find a cached {@link Query}
+     */
+    public synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * @return the number of {@link Query}s that have been evicted or have expired
+     */
+    public synchronized int getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * Remove all expired {@link Query}s and, as long as we are above our maximum size, the least
+     * recently used solved {@link Query}s. {@link Query}s which are still being resolved are
+     * skipped.
+     */
+    private void trim() {
+        long now = System.currentTimeMillis();
+        int size = mEntries.size();
+        Iterator<CacheEntry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            CacheEntry entry = iterator.next();
+            if (entry.mQuery.isSolved() && (size > mMaxSize || isExpired(entry, now))) {
+                iterator.remove();
+                removeCacheKey(entry.mQuery);
+                mEvictionCount++;
+                size--;
+            }
+        }
+    }
+
+    /**
+     * @return whether or not the given {@link CacheEntry} has expired. {@link Query}s which are
+     * still being resolved never expire.
+     */
+    private boolean isExpired(CacheEntry entry, long now) {
+        return entry.mQuery.isSolved() && now - entry.mTimeAdded > mTimeToLive;
+    }
+
+    /**
+     * Remove the {@link Query} with the given id from this {@link QueryCache}
+     *
+     * @return the removed {@link Query}, or null if it wasn't cached
+     */
+    public synchronized Query remove(String qid) {
+        CacheEntry entry = mEntries.remove(qid);
+        if (entry != null) {
+            removeCacheKey(entry.mQuery);
+            return entry.mQuery;
+        }
+        return null;
+    }
+
+    /**
+     * Remove the given {@link Query}'s cache key, if it still points to the given {@link Query}
+     */
+    private void removeCacheKey(Query query) {
+        if (query.getCacheKey() != null && query.getQid()
+                .equals(mCacheKeys.get(query.getCacheKey()))) {
+            mCacheKeys.remove(query.getCacheKey());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.tomahawk.libtomahawk.collection.Track;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Persists the best {@link Result} a {@link Query} has been resolved to, so that the {@link
+ * PipeLine} can answer already known {@link Query}s without invoking any {@link Resolver}.
+ */
+public interface ResolutionStore {
+
+    /**
+     * The time in milliseconds after which a stored resolution expires by default
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 24 * 60 * 60 * 1000;
+
+    /**
+     * Reports the result of a lookup started with {@link #getResolutions(ArrayList, Callback)}
+     */
+    public interface Callback {
+
+        /**
+         * Called on the main thread once the lookup has finished
+         *
+         * @param resolutions a {@link Result} containing the resolved {@link Track} for every cache
+         *                    key which has a valid resolution
+         */
+        public void onResolutions(HashMap<String, Result> resolutions);
+    }
+
+    /**
+     * Look up the stored resolutions for all of the given cache keys at once. Must not block the
+     * caller.
+     *
+     * @param cacheKeys the {@link Query}s' cache keys
+     * @param callback  the {@link Callback} to report the found resolutions to
+     */
+    public void getResolutions(ArrayList<String> cacheKeys, Callback callback);
+
+    /**
+     * Store the given resolved {@link Track} under the given cache key. Overwrites any existing
+     * resolution. Must not block the caller.
+     *
+     * @param cacheKey   the {@link Query}'s cache key
+     * @param track      the resolved {@link Track}
+     * @param timeToLive the time in milliseconds after which this resolution expires
+     */
+    public void storeResolution(String cacheKey, Track track, long timeToLive);
+}
@@ -0,0 +1,73 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import java.util.ArrayList;
+
+/**
+ * The basic {@link Resolver} interface, which is implemented by every type of {@link Resolver}.
+ * {@link Resolver}s which have an icon to show next to their {@link Result}s additionally
+ * implement IconResolver on Android.
+ */
+public interface Resolver {
+
+    /**
+     * @return Whether or not this {@link Resolver} is currently resolving
+     */
+    public boolean isResolving();
+
+    /**
+     * @return whether or not this {@link Resolver} only resolves against content which is
+     * available locally (e.g. the user's collection). Only local {@link Resolver}s are invoked for
+     * {@link Query}s which should only be resolved locally
+     */
+    public boolean isLocal();
+
+    /**
+     * Resolve the given {@link Query}
+     */
+    public void resolve(Query query);
+
+    /**
+     * Resolve all of the given {@link Query}s at once
+     */
+    public void resolve(ArrayList<Query> queries);
+
+    /**
+     * Stop resolving the given {@link Query}, because nobody is interested in its {@link Result}s
+     * anymore. {@link Result}s which are found anyway must not be reported to the {@link
+     * PipeLine}.
+     */
+    public void cancel(Query query);
+
+    /**
+     * @return this {@link Resolver}'s id
+     */
+    public int getId();
+
+    /**
+     * @return this {@link Resolver}'s weight
+     */
+    public int getWeight();
+
+    /**
+     * @return the time in milliseconds this {@link Resolver} is given to report its results for a
+     * {@link Query}. 0, if the {@link PipeLine}'s default timeout should be used
+     */
+    public int getTimeout();
+}
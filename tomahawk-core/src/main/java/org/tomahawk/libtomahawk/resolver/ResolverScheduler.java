@@ -0,0 +1,365 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.tomahawk.libtomahawk.utils.Platform;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of every {@link Resolver}'s latency, hit rate and result quality, so that the {@link
+ * PipeLine} can adapt the way it dispatches {@link Query}s. {@link Resolver}s which keep timing out
+ * are taken out of rotation by a circuit breaker with exponential backoff. {@link Resolver}s which
+ * rarely return anything are identified as low-yield, so that the {@link PipeLine} can defer them
+ * and skip them entirely, if a better {@link Resolver} has already answered the {@link Query}.
+ */
+public class ResolverScheduler {
+
+    private final static String TAG = ResolverScheduler.class.getName();
+
+    // The weight of a new sample in the exponentially weighted moving averages
+    private static final float SMOOTHING_FACTOR = 0.2F;
+
+    // The number of samples needed, before a Resolver can be considered low-yield
+    private static final int MIN_SAMPLES = 10;
+
+    private static final float LOW_YIELD_HIT_RATE = 0.2F;
+
+    // The number of consecutive timeouts after which a Resolver's circuit is opened
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private static final long INITIAL_BACKOFF = 30 * 1000;
+
+    private static final long MAX_BACKOFF = 10 * 60 * 1000;
+
+    private static final long MAX_DEFER_DELAY = 3000;
+
+    private final long mInitialBackoff;
+
+    private final ConcurrentHashMap<Integer, ResolverStats> mStats
+            = new ConcurrentHashMap<Integer, ResolverStats>();
+
+    // qid + resolver id -> the time the Query has been handed over to the Resolver
+    private final ConcurrentHashMap<String, Long> mDispatchTimes
+            = new ConcurrentHashMap<String, Long>();
+
+    /**
+     * The statistics of one {@link Resolver}
+     */
+    private static class ResolverStats {
+
+        private int mSampleCount;
+
+        private float mAverageLatency;
+
+        private float mHitRate;
+
+        private float mAverageScore;
+
+        private int mConsecutiveFailures;
+
+        private long mBackoff;
+
+        private long mCircuitOpenUntil;
+
+        private boolean mCircuitOpen;
+
+        private boolean mTrialInFlight;
+
+        // The ids of the Querys which have been handed over to the Resolver as its trial. Empty,
+        // as long as the trial hasn't been dispatched.
+        private final HashSet<String> mTrialQids = new HashSet<String>();
+
+        private ResolverStats(long backoff) {
+            mBackoff = backoff;
+        }
+
+        private synchronized void addLatency(long latency) {
+            mAverageLatency = mSampleCount == 0 ? latency
+                    : mAverageLatency + SMOOTHING_FACTOR * (latency - mAverageLatency);
+        }
+
+        private synchronized void addResult(boolean hit, float bestScore) {
+            float hitValue = hit ? 1F : 0F;
+            if (mSampleCount == 0) {
+                mHitRate = hitValue;
+            } else {
+                mHitRate += SMOOTHING_FACTOR * (hitValue - mHitRate);
+            }
+            if (hit) {
+                mAverageScore = mAverageScore == 0F ? bestScore
+                        : mAverageScore + SMOOTHING_FACTOR * (bestScore - mAverageScore);
+            }
+            mSampleCount++;
+        }
+    }
+
+    /**
+     * Construct a new {@link ResolverScheduler}
+     */
+    public ResolverScheduler() {
+        this(INITIAL_BACKOFF);
+    }
+
+    /**
+     * Construct a new {@link ResolverScheduler}, which opens circuits for the given time at first
+     * (e.g. a short one in tests)
+     */
+    ResolverScheduler(long initialBackoff) {
+        mInitialBackoff = initialBackoff;
+    }
+
+    /**
+     * Remember that the given {@link Query}s have been handed over to the given {@link Resolver}
+     */
+    public void onDispatched(Resolver resolver, ArrayList<Query> queries) {
+        long now = System.currentTimeMillis();
+        for (Query q : queries) {
+            mDispatchTimes.put(getDispatchKey(q.getQid(), resolver), now);
+        }
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            if (stats.mTrialInFlight && stats.mTrialQids.isEmpty()) {
+                for (Query q : queries) {
+                    stats.mTrialQids.add(q.getQid());
+                }
+            }
+        }
+    }
+
+    /**
+     * Let the given {@link Resolver}'s trial go, because the {@link Resolver} has passed
+     * isAvailable(...), but hasn't been invoked after all (e.g. because it has been deferred and
+     * every {@link Query} has been answered confidently in the meantime). The trial is re-armed, so
+     * that the next {@link Query} is let through right away.
+     */
+    public void onSkipped(Resolver resolver) {
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            if (stats.mTrialInFlight && stats.mTrialQids.isEmpty()) {
+                rearmTrial(stats);
+            }
+        }
+    }
+
+    /**
+     * Update the given {@link Resolver}'s statistics, after it has reported its {@link Result}s.
+     *
+     * @param resolver     the {@link Resolver} which has reported
+     * @param qid          the id of the {@link Query} the {@link Result}s belong to
+     * @param resultCount  the number of {@link Result}s scoring high enough to be used
+     * @param bestScore    the best score of those {@link Result}s
+     * @param hasTimedOut  whether or not the {@link Resolver} had already timed out on the {@link
+     *                     Query}
+     */
+    public void onReported(Resolver resolver, String qid, int resultCount, float bestScore,
+            boolean hasTimedOut) {
+        ResolverStats stats = getStats(resolver);
+        Long dispatchTime = mDispatchTimes.remove(getDispatchKey(qid, resolver));
+        if (dispatchTime != null) {
+            stats.addLatency(System.currentTimeMillis() - dispatchTime);
+        }
+        stats.addResult(resultCount > 0, bestScore);
+        if (!hasTimedOut) {
+            synchronized (stats) {
+                if (stats.mCircuitOpen) {
+                    Platform.getInstance().logDebug(TAG,
+                            "Closing circuit of resolver with id " + resolver.getId());
+                }
+                stats.mConsecutiveFailures = 0;
+                stats.mBackoff = mInitialBackoff;
+                stats.mCircuitOpen = false;
+                stats.mTrialInFlight = false;
+                stats.mTrialQids.clear();
+            }
+        }
+    }
+
+    /**
+     * Forget that the {@link Query} with the given id has been handed over to the given {@link
+     * Resolver}, because it has been cancelled. If the {@link Resolver}'s trial consisted only of
+     * cancelled {@link Query}s, it can't succeed or time out anymore, so it is re-armed.
+     */
+    public void onCancelled(Resolver resolver, String qid) {
+        mDispatchTimes.remove(getDispatchKey(qid, resolver));
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            if (stats.mTrialQids.remove(qid) && stats.mTrialQids.isEmpty()) {
+                Platform.getInstance().logDebug(TAG, "Trial query of resolver with id "
+                        + resolver.getId() + " has been cancelled");
+                rearmTrial(stats);
+            }
+        }
+    }
+
+    /**
+     * Update the given {@link Resolver}'s statistics, after it has timed out on the given {@link
+     * Query}s. A deadline which has passed counts as one failure, no matter how many {@link
+     * Query}s it covered. Opens the {@link Resolver}'s circuit, if it has failed too often in a
+     * row.
+     */
+    public void onTimedOut(Resolver resolver, ArrayList<Query> queries) {
+        ResolverStats stats = getStats(resolver);
+        for (Query q : queries) {
+            if (mDispatchTimes.remove(getDispatchKey(q.getQid(), resolver)) != null) {
+                stats.addLatency(resolver.getTimeout() > 0 ? resolver.getTimeout()
+                        : PipeLine.DEFAULT_RESOLVER_TIMEOUT);
+            }
+            stats.addResult(false, 0F);
+        }
+        synchronized (stats) {
+            stats.mConsecutiveFailures++;
+            if (stats.mTrialInFlight || stats.mConsecutiveFailures >= FAILURE_THRESHOLD) {
+                if (stats.mTrialInFlight) {
+                    stats.mBackoff = Math.min(stats.mBackoff * 2, MAX_BACKOFF);
+                }
+                stats.mCircuitOpen = true;
+                stats.mTrialInFlight = false;
+                stats.mTrialQids.clear();
+                stats.mCircuitOpenUntil = System.currentTimeMillis() + stats.mBackoff;
+                Platform.getInstance().logDebug(TAG, "Opening circuit of resolver with id "
+                        + resolver.getId() + " for " + stats.mBackoff + "ms");
+            }
+        }
+    }
+
+    /**
+     * @return whether or not {@link Query}s should be handed over to the given {@link Resolver}.
+     * If the {@link Resolver}'s circuit is open, but its backoff has passed, a single trial {@link
+     * Query} is let through.
+     */
+    public boolean isAvailable(Resolver resolver) {
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            if (!stats.mCircuitOpen) {
+                return true;
+            }
+            if (!stats.mTrialInFlight && System.currentTimeMillis() >= stats.mCircuitOpenUntil) {
+                stats.mTrialInFlight = true;
+                stats.mTrialQids.clear();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @return whether or not the given {@link Resolver} rarely returns any usable {@link Result}s
+     */
+    public boolean isLowYield(Resolver resolver) {
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            return stats.mSampleCount >= MIN_SAMPLES && stats.mHitRate < LOW_YIELD_HIT_RATE;
+        }
+    }
+
+    /**
+     * @return the time in milliseconds low-yield {@link Resolver}s should be deferred. This is the
+     * highest average latency of all the other given {@link Resolver}s, but at most
+     * MAX_DEFER_DELAY.
+     */
+    public long getDeferDelay(ArrayList<Resolver> resolvers) {
+        float delay = 0F;
+        for (Resolver resolver : resolvers) {
+            if (!isLowYield(resolver)) {
+                ResolverStats stats = getStats(resolver);
+                synchronized (stats) {
+                    delay = Math.max(delay, stats.mAverageLatency);
+                }
+            }
+        }
+        return Math.min((long) delay, MAX_DEFER_DELAY);
+    }
+
+    /**
+     * Sort the given {@link Resolver}s, so that the ones with the lowest average latency come
+     * first. {@link Resolver}s with the same latency are sorted by their weight.
+     */
+    public void sortByLatency(ArrayList<Resolver> resolvers) {
+        Collections.sort(resolvers, new Comparator<Resolver>() {
+            @Override
+            public int compare(Resolver lhs, Resolver rhs) {
+                float lhsLatency = getAverageLatency(lhs);
+                float rhsLatency = getAverageLatency(rhs);
+                if (lhsLatency != rhsLatency) {
+                    return lhsLatency < rhsLatency ? -1 : 1;
+                }
+                return rhs.getWeight() - lhs.getWeight();
+            }
+        });
+    }
+
+    /**
+     * @return the given {@link Resolver}'s average latency in milliseconds
+     */
+    public float getAverageLatency(Resolver resolver) {
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            return stats.mAverageLatency;
+        }
+    }
+
+    /**
+     * @return the given {@link Resolver}'s hit rate, between 0 and 1
+     */
+    public float getHitRate(Resolver resolver) {
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            return stats.mHitRate;
+        }
+    }
+
+    /**
+     * @return the average score of the best {@link Result} the given {@link Resolver} returns
+     */
+    public float getAverageScore(Resolver resolver) {
+        ResolverStats stats = getStats(resolver);
+        synchronized (stats) {
+            return stats.mAverageScore;
+        }
+    }
+
+    /**
+     * Let the next {@link Query} through as the given {@link ResolverStats}' trial right away
+     */
+    private static void rearmTrial(ResolverStats stats) {
+        stats.mTrialInFlight = false;
+        stats.mTrialQids.clear();
+        stats.mCircuitOpenUntil = System.currentTimeMillis();
+    }
+
+    private ResolverStats getStats(Resolver resolver) {
+        ResolverStats stats = mStats.get(resolver.getId());
+        if (stats == null) {
+            stats = new ResolverStats(mInitialBackoff);
+            ResolverStats previous = mStats.putIfAbsent(resolver.getId(), stats);
+            if (previous != null) {
+                stats = previous;
+            }
+        }
+        return stats;
+    }
+
+    private static String getDispatchKey(String qid, Resolver resolver) {
+        return qid + "+" + resolver.getId();
+    }
+}
@@ -0,0 +1,135 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A concurrent, insert-ordered collection of {@link Result} groups, which is used by {@link Query}
+ * to accumulate the {@link Result}s of several {@link Resolver}s at once. Every group is an
+ * immutable array of {@link Result}s, which is replaced through compare-and-set, so that no {@link
+ * Result} gets lost if two {@link Resolver}s report at the same time.
+ */
+class ResultGroups {
+
+    private static final Result[] EMPTY_GROUP = new Result[0];
+
+    private final boolean mSortByWeight;
+
+    // key -> the group's Results
+    private final ConcurrentHashMap<String, AtomicReference<Result[]>> mGroups
+            = new ConcurrentHashMap<String, AtomicReference<Result[]>>();
+
+    // All groups in the order they have been created
+    private final ConcurrentLinkedQueue<AtomicReference<Result[]>> mOrderedGroups
+            = new ConcurrentLinkedQueue<AtomicReference<Result[]>>();
+
+    // Incremented every time a Result has been added
+    private final AtomicInteger mVersion = new AtomicInteger();
+
+    /**
+     * Construct a new {@link ResultGroups} object
+     *
+     * @param sortByWeight whether or not every group should be sorted by its {@link Result}s'
+     *                     {@link Resolver} weights. Otherwise {@link Result}s are appended.
+     */
+    ResultGroups(boolean sortByWeight) {
+        mSortByWeight = sortByWeight;
+    }
+
+    /**
+     * Add the given {@link Result} to the group with the given key
+     *
+     * @return true, if the group has been created by this call
+     */
+    boolean add(String key, Result result) {
+        boolean created = false;
+        AtomicReference<Result[]> group = mGroups.get(key);
+        if (group == null) {
+            AtomicReference<Result[]> newGroup = new AtomicReference<Result[]>(EMPTY_GROUP);
+            group = mGroups.putIfAbsent(key, newGroup);
+            if (group == null) {
+                group = newGroup;
+                mOrderedGroups.add(newGroup);
+                created = true;
+            }
+        }
+        while (true) {
+            Result[] results = group.get();
+            if (group.compareAndSet(results, insert(results, result))) {
+                break;
+            }
+        }
+        mVersion.incrementAndGet();
+        return created;
+    }
+
+    /**
+     * @return the {@link Result}s of the group with the given key, or null if there is no such
+     * group
+     */
+    Result[] get(String key) {
+        AtomicReference<Result[]> group = mGroups.get(key);
+        return group == null ? null : group.get();
+    }
+
+    /**
+     * @return the first {@link Result} of every group, in the order the groups have been created
+     */
+    ArrayList<Result> getFirstResults() {
+        ArrayList<Result> firstResults = new ArrayList<Result>(mGroups.size());
+        for (AtomicReference<Result[]> group : mOrderedGroups) {
+            Result[] results = group.get();
+            if (results.length > 0) {
+                firstResults.add(results[0]);
+            }
+        }
+        return firstResults;
+    }
+
+    /**
+     * @return a number which changes every time a {@link Result} has been added
+     */
+    int getVersion() {
+        return mVersion.get();
+    }
+
+    /**
+     * @return a copy of the given array, into which the given {@link Result} has been inserted
+     */
+    private Result[] insert(Result[] results, Result result) {
+        int index = results.length;
+        if (mSortByWeight) {
+            for (int i = 0; i < results.length; i++) {
+                if (result.getResolver().getWeight() > results[i].getResolver().getWeight()) {
+                    index = i;
+                    break;
+                }
+            }
+        }
+        Result[] newResults = new Result[results.length + 1];
+        System.arraycopy(results, 0, newResults, 0, index);
+        newResults[index] = result;
+        System.arraycopy(results, index, newResults, index + 1, results.length - index);
+        return newResults;
+    }
+}
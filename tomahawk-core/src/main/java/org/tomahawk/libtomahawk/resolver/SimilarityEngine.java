@@ -0,0 +1,453 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+/**
+ * Computes how similar a {@link Result} is to a {@link Query}. The scores are the same as the ones
+ * computed with the plain Levenshtein distance, but the edit distance is calculated with Myers'
+ * bit-parallel algorithm for strings of up to 64 chars. Scores which can't exceed the current best
+ * score or the given minimum score aren't computed at all.
+ *
+ * A {@link SimilarityEngine} reuses its buffers and is therefore not thread-safe. Use get() to
+ * obtain the instance of the current thread.
+ */
+public class SimilarityEngine {
+
+    private static final int MAX_PATTERN_LENGTH = 64;
+
+    private static final int PEQ_TABLE_SIZE = 256;
+
+    private static final ThreadLocal<SimilarityEngine> sEngines
+            = new ThreadLocal<SimilarityEngine>() {
+        @Override
+        protected SimilarityEngine initialValue() {
+            return new SimilarityEngine();
+        }
+    };
+
+    // Myers' pattern match bit vectors for all chars below PEQ_TABLE_SIZE
+    private final long[] mPeq = new long[PEQ_TABLE_SIZE];
+
+    // Pattern match bit vectors for all other chars
+    private final char[] mPeqExtraChars = new char[MAX_PATTERN_LENGTH];
+
+    private final long[] mPeqExtra = new long[MAX_PATTERN_LENGTH];
+
+    private int mPeqExtraCount;
+
+    // Rows used by the dynamic programming fallback for longer strings
+    private int[] mPreviousRow = new int[MAX_PATTERN_LENGTH + 1];
+
+    private int[] mCurrentRow = new int[MAX_PATTERN_LENGTH + 1];
+
+    // The raw names of the last scored Result and their cleaned up versions
+    private String mRawArtistName;
+
+    private String mRawAlbumName;
+
+    private String mRawTrackName;
+
+    private String mArtistName = "";
+
+    private String mAlbumName = "";
+
+    private String mTrackName = "";
+
+    private String mArtistTrackName;
+
+    private String mArtistAlbumName;
+
+    /**
+     * @return the {@link SimilarityEngine} of the current thread
+     */
+    public static SimilarityEngine get() {
+        return sEngines.get();
+    }
+
+    /**
+     * Determine how similar the given {@link Result} is to the given {@link Query}. The returned
+     * score is exact, if it is greater than or equal to minScore. Otherwise it is only guaranteed to
+     * be lower than minScore.
+     *
+     * @param searchType one of the PipeLine.PIPELINE_SEARCHTYPE_* constants
+     * @param minScore   the minimum score we are interested in. 0 to always get the exact score
+     */
+    public float howSimilar(Query query, Result r, int searchType, float minScore) {
+        prepareResult(r);
+
+        String queryArtistName = query.getArtistName();
+        String queryAlbumName = query.getAlbumName();
+        String queryTrackName = query.getTrackName();
+        int maxLengthArtist = Math.max(queryArtistName.length(), mArtistName.length());
+        int maxLengthAlbum = Math.max(queryAlbumName.length(), mAlbumName.length());
+        int maxLengthTrack = Math.max(queryTrackName.length(), mTrackName.length());
+
+        if (query.isFullTextQuery()) {
+            // The Query's artist, album and track names are usually empty in this case, so that
+            // these distances are cheap to compute
+            float distanceScoreArtist = score(maxLengthArtist,
+                    distance(queryArtistName, mArtistName));
+            float distanceScoreAlbum = 0F;
+            if (maxLengthAlbum > 0) {
+                distanceScoreAlbum = score(maxLengthAlbum, distance(queryAlbumName, mAlbumName));
+            }
+            float distanceScoreTrack = score(maxLengthTrack, distance(queryTrackName, mTrackName));
+
+            String resultSearchString1 = null;
+            String resultSearchString2 = null;
+            switch (searchType) {
+                case PipeLine.PIPELINE_SEARCHTYPE_TRACKS:
+                    resultSearchString1 = getArtistTrackName();
+                    resultSearchString2 = mTrackName;
+                    break;
+                case PipeLine.PIPELINE_SEARCHTYPE_ARTISTS:
+                    resultSearchString1 = mArtistName;
+                    break;
+                case PipeLine.PIPELINE_SEARCHTYPE_ALBUMS:
+                    if (mAlbumName.length() > 0) {
+                        resultSearchString1 = getArtistAlbumName();
+                        resultSearchString2 = mAlbumName;
+                    }
+                    break;
+            }
+            if (resultSearchString1 == null) {
+                return 0F;
+            }
+
+            float best = Math.max(distanceScoreArtist, distanceScoreAlbum);
+            best = Math.max(best, distanceScoreTrack);
+            if (Float.isNaN(best)) {
+                return best;
+            }
+            String searchString = query.getCleanFullTextQuery();
+            if (resultSearchString1.contains(searchString) || (resultSearchString2 != null
+                    && resultSearchString2.contains(searchString))) {
+                best = Math.max(best, 0.9F);
+            }
+            best = maxDistanceScore(searchString, resultSearchString1, best, minScore);
+            if (resultSearchString2 != null && !Float.isNaN(best)) {
+                best = maxDistanceScore(searchString, resultSearchString2, best, minScore);
+            }
+            return best;
+        } else {
+            // First check the upper bounds of every score, before calculating the exact distances
+            float distanceScoreArtist = score(maxLengthArtist,
+                    Math.abs(queryArtistName.length() - mArtistName.length()));
+            float distanceScoreAlbum = 1F;
+            if (queryAlbumName.length() > 0) {
+                distanceScoreAlbum = score(maxLengthAlbum,
+                        Math.abs(queryAlbumName.length() - mAlbumName.length()));
+            }
+            float distanceScoreTrack = score(maxLengthTrack,
+                    Math.abs(queryTrackName.length() - mTrackName.length()));
+            float result = weightedScore(distanceScoreArtist, distanceScoreAlbum,
+                    distanceScoreTrack);
+            if (Float.isNaN(result) || result < minScore) {
+                return result;
+            }
+
+            distanceScoreArtist = score(maxLengthArtist, distance(queryArtistName, mArtistName));
+            result = weightedScore(distanceScoreArtist, distanceScoreAlbum, distanceScoreTrack);
+            if (result < minScore) {
+                return result;
+            }
+            distanceScoreTrack = score(maxLengthTrack, distance(queryTrackName, mTrackName));
+            result = weightedScore(distanceScoreArtist, distanceScoreAlbum, distanceScoreTrack);
+            if (result < minScore) {
+                return result;
+            }
+            if (queryAlbumName.length() > 0) {
+                distanceScoreAlbum = score(maxLengthAlbum, distance(queryAlbumName, mAlbumName));
+            }
+            return weightedScore(distanceScoreArtist, distanceScoreAlbum, distanceScoreTrack);
+        }
+    }
+
+    /**
+     * @return the maximum of the given best score and the distance score of the two given {@link
+     * String}s. The distance score is only computed, if it could be greater than both best and
+     * minScore.
+     */
+    private float maxDistanceScore(String searchString, String resultSearchString, float best,
+            float minScore) {
+        int maxLength = Math.max(searchString.length(), resultSearchString.length());
+        if (maxLength == 0) {
+            return Float.NaN;
+        }
+        float target = Math.max(best, minScore);
+        float upperBound = score(maxLength,
+                Math.abs(searchString.length() - resultSearchString.length()));
+        if (upperBound <= best || upperBound < target) {
+            return best;
+        }
+        // Find the greatest distance which still reaches the target score
+        int maxDistance = Math.max(0, Math.min(maxLength, (int) ((1F - target) * maxLength)));
+        while (maxDistance < maxLength && score(maxLength, maxDistance + 1) >= target) {
+            maxDistance++;
+        }
+        while (maxDistance > 0 && score(maxLength, maxDistance) < target) {
+            maxDistance--;
+        }
+        int distance = distance(searchString, resultSearchString, maxDistance);
+        if (distance <= maxDistance) {
+            return Math.max(best, score(maxLength, distance));
+        }
+        return best;
+    }
+
+    /**
+     * @return the edit distance between the two given {@link String}s
+     */
+    public int distance(String s, String t) {
+        return distance(s, t, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * Calculate the edit distance between the two given {@link String}s, but stop as soon as it is
+     * clear that it will be greater than maxDistance.
+     *
+     * @return the edit distance, or maxDistance + 1 if it is greater than maxDistance
+     */
+    public int distance(String s, String t, int maxDistance) {
+        String pattern = s;
+        String text = t;
+        if (pattern.length() > text.length()) {
+            pattern = t;
+            text = s;
+        }
+        if (text.length() - pattern.length() > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (pattern.length() == 0) {
+            return text.length();
+        }
+        if (pattern.length() <= MAX_PATTERN_LENGTH) {
+            return myersDistance(pattern, text, maxDistance);
+        }
+        return levenshteinDistance(pattern, text, maxDistance);
+    }
+
+    /**
+     * Myers' bit-parallel edit distance algorithm (in the formulation of Hyyro). The pattern must
+     * not be longer than 64 chars.
+     */
+    private int myersDistance(String pattern, String text, int maxDistance) {
+        int n = pattern.length();
+        int m = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = pattern.charAt(i);
+            if (c < PEQ_TABLE_SIZE) {
+                mPeq[c] |= 1L << i;
+            } else {
+                int j = indexOfExtraChar(c);
+                if (j < 0) {
+                    j = mPeqExtraCount++;
+                    mPeqExtraChars[j] = c;
+                    mPeqExtra[j] = 0L;
+                }
+                mPeqExtra[j] |= 1L << i;
+            }
+        }
+
+        long pv = -1L;
+        long mv = 0L;
+        long last = 1L << (n - 1);
+        int score = n;
+        for (int j = 0; j < m; j++) {
+            char c = text.charAt(j);
+            long eq;
+            if (c < PEQ_TABLE_SIZE) {
+                eq = mPeq[c];
+            } else {
+                int k = indexOfExtraChar(c);
+                eq = k < 0 ? 0L : mPeqExtra[k];
+            }
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+            ph = (ph << 1) | 1L;
+            mh = mh << 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            // The distance can decrease by at most one for every remaining char
+            if (score - (m - j - 1) > maxDistance) {
+                score = maxDistance + 1;
+                break;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            char c = pattern.charAt(i);
+            if (c < PEQ_TABLE_SIZE) {
+                mPeq[c] = 0L;
+            }
+        }
+        mPeqExtraCount = 0;
+        return score;
+    }
+
+    /**
+     * @return the index of the given char inside mPeqExtraChars, -1 if it isn't part of the current
+     * pattern
+     */
+    private int indexOfExtraChar(char c) {
+        for (int i = 0; i < mPeqExtraCount; i++) {
+            if (mPeqExtraChars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The classic dynamic programming algorithm, used for patterns which are longer than 64 chars.
+     */
+    private int levenshteinDistance(String pattern, String text, int maxDistance) {
+        int n = pattern.length();
+        int m = text.length();
+        if (mPreviousRow.length < n + 1) {
+            mPreviousRow = new int[n + 1];
+            mCurrentRow = new int[n + 1];
+        }
+        int[] p = mPreviousRow;
+        int[] d = mCurrentRow;
+        for (int i = 0; i <= n; i++) {
+            p[i] = i;
+        }
+        for (int j = 1; j <= m; j++) {
+            char c = text.charAt(j - 1);
+            d[0] = j;
+            int rowMinimum = j;
+            for (int i = 1; i <= n; i++) {
+                int cost = pattern.charAt(i - 1) == c ? 0 : 1;
+                d[i] = Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + cost);
+                rowMinimum = Math.min(rowMinimum, d[i]);
+            }
+            int[] swap = p;
+            p = d;
+            d = swap;
+            // The minimum of a row never decreases
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return Math.min(p[n], maxDistance + 1);
+    }
+
+    /**
+     * Clean up the names of the given {@link Result}, if they differ from the ones of the last
+     * scored {@link Result}.
+     */
+    private void prepareResult(Result r) {
+        String artistName = r.getArtist().getName();
+        String albumName = r.getAlbum().getName();
+        String trackName = r.getTrack().getName();
+        if (artistName != mRawArtistName) {
+            mRawArtistName = artistName;
+            mArtistName = artistName != null ? cleanUpString(artistName, false) : "";
+            mArtistTrackName = null;
+            mArtistAlbumName = null;
+        }
+        if (albumName != mRawAlbumName) {
+            mRawAlbumName = albumName;
+            mAlbumName = albumName != null ? cleanUpString(albumName, false) : "";
+            mArtistAlbumName = null;
+        }
+        if (trackName != mRawTrackName) {
+            mRawTrackName = trackName;
+            mTrackName = trackName != null ? cleanUpString(trackName, false) : "";
+            mArtistTrackName = null;
+        }
+    }
+
+    private String getArtistTrackName() {
+        if (mArtistTrackName == null) {
+            mArtistTrackName = cleanUpString(mArtistName + " " + mTrackName, false);
+        }
+        return mArtistTrackName;
+    }
+
+    private String getArtistAlbumName() {
+        if (mArtistAlbumName == null) {
+            mArtistAlbumName = cleanUpString(mArtistName + " " + mAlbumName, false);
+        }
+        return mArtistAlbumName;
+    }
+
+    private static float score(int maxLength, int distance) {
+        return (float) (maxLength - distance) / maxLength;
+    }
+
+    private static float weightedScore(float distanceScoreArtist, float distanceScoreAlbum,
+            float distanceScoreTrack) {
+        return (distanceScoreArtist * 4 + distanceScoreAlbum + distanceScoreTrack * 5) / 10;
+    }
+
+    /**
+     * Clean up the given String. Lower-cases and trims it and replaces every sequence of two or
+     * more whitespace characters with a single space.
+     *
+     * @param replaceArticle wether or not the prefix "the " should be removed
+     * @return the clean String
+     */
+    public static String cleanUpString(String in, boolean replaceArticle) {
+        String out = in.toLowerCase().trim();
+        int length = out.length();
+        StringBuilder builder = null;
+        int i = 0;
+        while (i < length) {
+            int runEnd = i;
+            while (runEnd < length && isWhitespace(out.charAt(runEnd))) {
+                runEnd++;
+            }
+            if (runEnd - i >= 2) {
+                if (builder == null) {
+                    builder = new StringBuilder(length);
+                    builder.append(out, 0, i);
+                }
+                builder.append(' ');
+                i = runEnd;
+            } else {
+                if (builder != null) {
+                    builder.append(out.charAt(i));
+                }
+                i++;
+            }
+        }
+        if (builder != null) {
+            out = builder.toString();
+        }
+        if (replaceArticle && out.startsWith("the ")) {
+            out = out.substring(4);
+        }
+        return out;
+    }
+
+    /**
+     * @return whether or not the given char is matched by the regular expression "\s"
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
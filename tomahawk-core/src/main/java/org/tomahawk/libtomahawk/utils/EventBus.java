@@ -0,0 +1,267 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.utils;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process event bus, which replaces system-wide Intent broadcasts for events that never
+ * leave our own process. Every event consists of a topic and an optional key (e.g. a {@link
+ * org.tomahawk.libtomahawk.resolver.Query}'s id). {@link Subscriber}s are registered per topic and
+ * choose the thread they want to be notified on. Events that are delivered on the main or the
+ * background thread are coalesced: if the same topic and key are posted several times within one
+ * UI frame, they are delivered only once. The main thread is provided by the {@link Platform}.
+ */
+public class EventBus {
+
+    /**
+     * Deliver events on the main thread, coalesced once per UI frame
+     */
+    public static final int THREAD_MAIN = 0;
+
+    /**
+     * Deliver events on the {@link EventBus}'s background thread, coalesced once per UI frame
+     */
+    public static final int THREAD_BACKGROUND = 1;
+
+    /**
+     * Deliver events synchronously on the posting thread, without coalescing
+     */
+    public static final int THREAD_POSTING = 2;
+
+    // The duration of one UI frame in milliseconds
+    private static final long FRAME_INTERVAL = 16;
+
+    private static EventBus sInstance;
+
+    // topic -> all subscriptions to this topic
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Subscription>> mSubscriptions
+            = new ConcurrentHashMap<String, CopyOnWriteArrayList<Subscription>>();
+
+    private final Dispatcher mMainDispatcher;
+
+    private Dispatcher mBackgroundDispatcher;
+
+    /**
+     * Interface which has to be implemented by everybody who wants to subscribe to a topic
+     */
+    public interface Subscriber {
+
+        /**
+         * Called whenever an event has been posted to a topic this {@link Subscriber} has
+         * subscribed to
+         *
+         * @param topic the topic the event has been posted to
+         * @param key   the event's key, may be null
+         */
+        public void onEvent(String topic, String key);
+    }
+
+    /**
+     * A {@link Subscriber} together with the thread it wants to be notified on
+     */
+    private static class Subscription {
+
+        private final Subscriber mSubscriber;
+
+        private final int mThread;
+
+        private Subscription(Subscriber subscriber, int thread) {
+            mSubscriber = subscriber;
+            mThread = thread;
+        }
+    }
+
+    /**
+     * Collects all events posted for one thread and delivers them once per UI frame
+     */
+    private class Dispatcher implements Runnable {
+
+        private final int mThread;
+
+        // The executor to deliver the events on, null if they should be delivered on the
+        // Platform's main thread
+        private final ScheduledExecutorService mExecutor;
+
+        // topic -> all keys which have been posted to this topic since the last delivery
+        private LinkedHashMap<String, LinkedHashSet<String>> mPendingEvents
+                = new LinkedHashMap<String, LinkedHashSet<String>>();
+
+        private Dispatcher(int thread, ScheduledExecutorService executor) {
+            mThread = thread;
+            mExecutor = executor;
+        }
+
+        /**
+         * Add the given event to the pending events and schedule their delivery, if necessary
+         */
+        private synchronized void enqueue(String topic, String key) {
+            if (mPendingEvents.isEmpty()) {
+                if (mExecutor != null) {
+                    mExecutor.schedule(this, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
+                } else {
+                    Platform.getInstance().postDelayed(this, FRAME_INTERVAL);
+                }
+            }
+            LinkedHashSet<String> keys = mPendingEvents.get(topic);
+            if (keys == null) {
+                keys = new LinkedHashSet<String>();
+                mPendingEvents.put(topic, keys);
+            }
+            keys.add(key);
+        }
+
+        /**
+         * Deliver all pending events
+         */
+        @Override
+        public void run() {
+            LinkedHashMap<String, LinkedHashSet<String>> pendingEvents;
+            synchronized (this) {
+                pendingEvents = mPendingEvents;
+                mPendingEvents = new LinkedHashMap<String, LinkedHashSet<String>>();
+            }
+            for (Map.Entry<String, LinkedHashSet<String>> entry : pendingEvents.entrySet()) {
+                for (String key : entry.getValue()) {
+                    deliver(entry.getKey(), key, mThread);
+                }
+            }
+        }
+    }
+
+    private EventBus() {
+        mMainDispatcher = new Dispatcher(THREAD_MAIN, null);
+    }
+
+    /**
+     * @return the one and only {@link EventBus} instance
+     */
+    public static synchronized EventBus getInstance() {
+        if (sInstance == null) {
+            sInstance = new EventBus();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Subscribe the given {@link Subscriber} to the given topic
+     *
+     * @param topic      the topic to subscribe to
+     * @param thread     the thread the {@link Subscriber} wants to be notified on. Either
+     *                   THREAD_MAIN, THREAD_BACKGROUND or THREAD_POSTING
+     * @param subscriber the {@link Subscriber} to notify
+     */
+    public void subscribe(String topic, int thread, Subscriber subscriber) {
+        CopyOnWriteArrayList<Subscription> subscriptions = mSubscriptions.get(topic);
+        if (subscriptions == null) {
+            subscriptions = new CopyOnWriteArrayList<Subscription>();
+            CopyOnWriteArrayList<Subscription> previous = mSubscriptions
+                    .putIfAbsent(topic, subscriptions);
+            if (previous != null) {
+                subscriptions = previous;
+            }
+        }
+        subscriptions.add(new Subscription(subscriber, thread));
+    }
+
+    /**
+     * Unsubscribe the given {@link Subscriber} from every topic. Events which have been posted,
+     * but not yet delivered, won't be delivered to it anymore.
+     */
+    public void unsubscribe(Subscriber subscriber) {
+        for (CopyOnWriteArrayList<Subscription> subscriptions : mSubscriptions.values()) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.mSubscriber == subscriber) {
+                    subscriptions.remove(subscription);
+                }
+            }
+        }
+    }
+
+    /**
+     * Post an event to the given topic
+     *
+     * @param topic the topic to post to
+     * @param key   the event's key, may be null. Events with the same topic and key are coalesced
+     */
+    public void post(String topic, String key) {
+        CopyOnWriteArrayList<Subscription> subscriptions = mSubscriptions.get(topic);
+        if (subscriptions == null) {
+            return;
+        }
+        boolean hasMainSubscription = false;
+        boolean hasBackgroundSubscription = false;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.mThread == THREAD_POSTING) {
+                subscription.mSubscriber.onEvent(topic, key);
+            } else if (subscription.mThread == THREAD_BACKGROUND) {
+                hasBackgroundSubscription = true;
+            } else {
+                hasMainSubscription = true;
+            }
+        }
+        if (hasMainSubscription) {
+            mMainDispatcher.enqueue(topic, key);
+        }
+        if (hasBackgroundSubscription) {
+            getBackgroundDispatcher().enqueue(topic, key);
+        }
+    }
+
+    /**
+     * Deliver the given event to every {@link Subscriber} of the given topic, which wants to be
+     * notified on the given thread
+     */
+    private void deliver(String topic, String key, int thread) {
+        CopyOnWriteArrayList<Subscription> subscriptions = mSubscriptions.get(topic);
+        if (subscriptions != null) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.mThread == thread) {
+                    subscription.mSubscriber.onEvent(topic, key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the {@link Dispatcher} for THREAD_BACKGROUND. Its thread is started lazily.
+     */
+    private synchronized Dispatcher getBackgroundDispatcher() {
+        if (mBackgroundDispatcher == null) {
+            ScheduledExecutorService executor = Executors
+                    .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, EventBus.class.getSimpleName());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            mBackgroundDispatcher = new Dispatcher(THREAD_BACKGROUND, executor);
+        }
+        return mBackgroundDispatcher;
+    }
+}
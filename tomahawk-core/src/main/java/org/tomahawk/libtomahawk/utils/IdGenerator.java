@@ -0,0 +1,38 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out ids, which are unique within this process. Used for every {@link
+ * org.tomahawk.libtomahawk.collection.Track}, {@link org.tomahawk.libtomahawk.resolver.Query} etc.
+ * that isn't backed by a persistent id.
+ */
+public class IdGenerator {
+
+    private static final AtomicLong sIdCounter = new AtomicLong(10000000);
+
+    public static long getUniqueId() {
+        return sIdCounter.getAndIncrement();
+    }
+
+    public static String getUniqueStringId() {
+        return String.valueOf(sIdCounter.getAndIncrement());
+    }
+}
@@ -0,0 +1,95 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.utils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The few things libtomahawk needs from the platform it is running on. On Android the app
+ * installs its own implementation, which runs main thread work on the UI thread and logs to
+ * logcat. Everywhere else (e.g. when benchmarking on a plain JVM) a default implementation is
+ * used, which runs main thread work on a single dedicated thread and logs to the console.
+ */
+public abstract class Platform {
+
+    private static volatile Platform sInstance = new JvmPlatform();
+
+    /**
+     * The default {@link Platform}, which only depends on the Java standard library
+     */
+    private static class JvmPlatform extends Platform {
+
+        private final ScheduledExecutorService mMainThread = Executors
+                .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "libtomahawk-main");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        @Override
+        public void postDelayed(Runnable runnable, long delayMillis) {
+            mMainThread.schedule(runnable, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void logDebug(String tag, String message) {
+            System.out.println(tag + ": " + message);
+        }
+
+        @Override
+        public void logError(String tag, String message) {
+            System.err.println(tag + ": " + message);
+        }
+    }
+
+    /**
+     * @return the {@link Platform} libtomahawk is currently running on
+     */
+    public static Platform getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Replace the default {@link Platform}. Has to be called before anything else in libtomahawk
+     * is used.
+     */
+    public static void setInstance(Platform platform) {
+        sInstance = platform;
+    }
+
+    /**
+     * Run the given {@link Runnable} on the main thread after the given delay
+     */
+    public abstract void postDelayed(Runnable runnable, long delayMillis);
+
+    /**
+     * Log the given debug message
+     */
+    public abstract void logDebug(String tag, String message);
+
+    /**
+     * Log the given error message
+     */
+    public abstract void logError(String tag, String message);
+}
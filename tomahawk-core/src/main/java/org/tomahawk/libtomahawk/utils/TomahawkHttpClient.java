@@ -0,0 +1,485 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The http client, which is shared by everything in libtomahawk that talks to the network.
+ * Connections are kept alive and reused by {@link HttpURLConnection}'s connection pool, responses
+ * are requested gzip-compressed, and a response cache is used if one has been installed through
+ * {@link java.net.ResponseCache}. The number of concurrent requests to the same host is limited,
+ * and some metrics are collected for every host. Background requests to a host which has reached
+ * its limit wait in a queue of their own, so that they don't hold up the requests to other hosts.
+ */
+public class TomahawkHttpClient {
+
+    private final static String TAG = TomahawkHttpClient.class.getName();
+
+    private static final int MAX_REQUESTS_PER_HOST = 4;
+
+    private static final int REQUEST_THREAD_COUNT = 6;
+
+    private static final int TIMEOUT = 15000;
+
+    private static final String DEFAULT_CHARSET = "UTF-8";
+
+    private static TomahawkHttpClient sInstance;
+
+    private final ExecutorService mRequestExecutor = Executors
+            .newFixedThreadPool(REQUEST_THREAD_COUNT, new NamedThreadFactory("HttpRequest"));
+
+    private final ConcurrentHashMap<String, Semaphore> mHostPermits
+            = new ConcurrentHashMap<String, Semaphore>();
+
+    // host -> the background requests which are waiting for one of the host's permits
+    private final ConcurrentHashMap<String, LinkedList<Runnable>> mPendingRequests
+            = new ConcurrentHashMap<String, LinkedList<Runnable>>();
+
+    private final ConcurrentHashMap<String, Metrics> mMetrics
+            = new ConcurrentHashMap<String, Metrics>();
+
+    /**
+     * The response to an http request
+     */
+    public static class Response {
+
+        // 0, if the request failed completely
+        public int status;
+
+        public String statusText;
+
+        public String body;
+
+        // lower-case header name -> value
+        public Map<String, String> headers = new HashMap<String, String>();
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * @return the value of the response header with the given name, or null if there is none
+         */
+        public String getHeader(String name) {
+            return headers.get(name.toLowerCase());
+        }
+    }
+
+    /**
+     * Called once an asynchronous request has been answered. Called on one of the {@link
+     * TomahawkHttpClient}'s request threads.
+     */
+    public interface Callback {
+
+        public void onResponse(Response response);
+    }
+
+    /**
+     * Handles the body of a response while it is being received, so that it doesn't have to be
+     * held in memory as a whole. Called on the thread which made the request.
+     */
+    public interface BodyHandler {
+
+        /**
+         * @param response the {@link Response}, with its status and headers already set
+         * @param body     the decoded body. Doesn't have to be read completely and must not be
+         *                 closed.
+         * @throws IOException which causes the request to be treated as failed
+         */
+        public void onBody(Response response, InputStream body) throws IOException;
+    }
+
+    /**
+     * The metrics which are collected for every host
+     */
+    public static class Metrics {
+
+        private long mRequestCount;
+
+        private long mFailureCount;
+
+        private long mReceivedBytes;
+
+        private long mTotalTime;
+
+        private synchronized void add(boolean failed, long receivedBytes, long time) {
+            mRequestCount++;
+            if (failed) {
+                mFailureCount++;
+            }
+            mReceivedBytes += receivedBytes;
+            mTotalTime += time;
+        }
+
+        public synchronized long getRequestCount() {
+            return mRequestCount;
+        }
+
+        public synchronized long getFailureCount() {
+            return mFailureCount;
+        }
+
+        /**
+         * @return the number of bytes received, before they have been decompressed
+         */
+        public synchronized long getReceivedBytes() {
+            return mReceivedBytes;
+        }
+
+        /**
+         * @return the average time in milliseconds a request has taken, or 0 if there hasn't been
+         * one yet
+         */
+        public synchronized long getAverageTime() {
+            return mRequestCount == 0 ? 0 : mTotalTime / mRequestCount;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return mRequestCount + " requests, " + mFailureCount + " failed, " + mReceivedBytes
+                    + " bytes, " + getAverageTime() + "ms average";
+        }
+    }
+
+    private TomahawkHttpClient() {
+    }
+
+    /**
+     * @return the one and only {@link TomahawkHttpClient} instance
+     */
+    public static synchronized TomahawkHttpClient getInstance() {
+        if (sInstance == null) {
+            sInstance = new TomahawkHttpClient();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Make an http request on the current thread. Blocks, if the maximum number of concurrent
+     * requests to the url's host has been reached.
+     *
+     * @param method  the http method, "GET" if null
+     * @param url     the url to request
+     * @param headers the request headers, can be null
+     * @param body    the request body, can be null
+     * @return the {@link Response}
+     */
+    public Response execute(String method, String url, Map<String, String> headers,
+            String body) {
+        return execute(method, url, headers, body, TIMEOUT);
+    }
+
+    /**
+     * Make an http request on the current thread. Blocks, if the maximum number of concurrent
+     * requests to the url's host has been reached.
+     *
+     * @param method  the http method, "GET" if null
+     * @param url     the url to request
+     * @param headers the request headers, can be null
+     * @param body    the request body, can be null
+     * @param timeout the connect and read timeout in milliseconds
+     * @return the {@link Response}
+     */
+    public Response execute(String method, String url, Map<String, String> headers,
+            String body, int timeout) {
+        return execute(method, url, headers, body, timeout, null);
+    }
+
+    /**
+     * Make an http request on the current thread. Blocks, if the maximum number of concurrent
+     * requests to the url's host has been reached.
+     *
+     * @param method      the http method, "GET" if null
+     * @param url         the url to request
+     * @param headers     the request headers, can be null
+     * @param body        the request body, can be null
+     * @param timeout     the connect and read timeout in milliseconds
+     * @param bodyHandler the {@link BodyHandler} to hand the response body to, instead of
+     *                    reading it into the {@link Response}. Can be null.
+     * @return the {@link Response}
+     */
+    public Response execute(String method, String url, Map<String, String> headers,
+            String body, int timeout, BodyHandler bodyHandler) {
+        String host = getHost(url);
+        Semaphore permits = getHostPermits(host);
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response();
+        }
+        try {
+            return performRequest(method, url, host, headers, body, timeout, bodyHandler);
+        } finally {
+            permits.release();
+            startPendingRequests(host);
+        }
+    }
+
+    /**
+     * Make an http request on the current thread. The caller has to hold one of the host's
+     * permits.
+     */
+    private Response performRequest(String method, String url, String host,
+            Map<String, String> headers, String body, int timeout, BodyHandler bodyHandler) {
+        Response response = new Response();
+        long start = System.currentTimeMillis();
+        CountingInputStream in = null;
+        try {
+            URL requestUrl = new URL(url);
+            HttpURLConnection connection = (HttpURLConnection) requestUrl.openConnection();
+            connection.setRequestMethod(method == null ? "GET" : method.toUpperCase());
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            if (headers != null) {
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
+            }
+            if (body != null && body.length() > 0) {
+                connection.setDoOutput(true);
+                OutputStream out = connection.getOutputStream();
+                try {
+                    out.write(body.getBytes(DEFAULT_CHARSET));
+                } finally {
+                    out.close();
+                }
+            }
+            response.status = connection.getResponseCode();
+            response.statusText = connection.getResponseMessage();
+            for (Map.Entry<String, List<String>> header : connection.getHeaderFields()
+                    .entrySet()) {
+                if (header.getKey() != null && !header.getValue().isEmpty()) {
+                    response.headers.put(header.getKey().toLowerCase(),
+                            header.getValue().get(0));
+                }
+            }
+            InputStream stream = response.status >= 400 ? connection.getErrorStream()
+                    : connection.getInputStream();
+            if (stream != null) {
+                in = new CountingInputStream(stream);
+                // The stream has to be read completely, so that the connection can be reused
+                InputStream content = in;
+                if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+                    content = new GZIPInputStream(in);
+                }
+                if (bodyHandler != null) {
+                    bodyHandler.onBody(response, content);
+                    skipFully(content);
+                } else {
+                    response.body = new String(readFully(content),
+                            getCharset(connection.getContentType()));
+                }
+            }
+        } catch (IOException e) {
+            response.status = 0;
+            Platform.getInstance().logError(TAG, "execute: " + url + ": " + e.getClass() + ": "
+                    + e.getLocalizedMessage());
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // Nothing we could do about it
+                }
+            }
+        }
+        long time = System.currentTimeMillis() - start;
+        getMetrics(host).add(!response.isSuccessful(), in == null ? 0 : in.getCount(), time);
+        Platform.getInstance().logDebug(TAG, response.status + " " + url + " (" + time + "ms)");
+        return response;
+    }
+
+    /**
+     * Make an http request in the background. The request is only handed to a request thread, once
+     * one of the url's host's permits is free, so that a slow host never blocks a request thread.
+     *
+     * @param callback the {@link Callback} to call with the {@link Response}
+     */
+    public void enqueue(final String method, final String url, final Map<String, String> headers,
+            final String body, final Callback callback) {
+        final String host = getHost(url);
+        LinkedList<Runnable> pendingRequests = getPendingRequests(host);
+        synchronized (pendingRequests) {
+            pendingRequests.add(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        callback.onResponse(performRequest(method, url, host, headers, body,
+                                TIMEOUT, null));
+                    } finally {
+                        getHostPermits(host).release();
+                        startPendingRequests(host);
+                    }
+                }
+            });
+        }
+        startPendingRequests(host);
+    }
+
+    /**
+     * Hand the given host's pending background requests to the request threads, as long as there
+     * are free permits for the host
+     */
+    private void startPendingRequests(String host) {
+        LinkedList<Runnable> pendingRequests = mPendingRequests.get(host);
+        if (pendingRequests == null) {
+            return;
+        }
+        Semaphore permits = getHostPermits(host);
+        synchronized (pendingRequests) {
+            while (!pendingRequests.isEmpty() && permits.tryAcquire()) {
+                mRequestExecutor.execute(pendingRequests.removeFirst());
+            }
+        }
+    }
+
+    /**
+     * @return the {@link Metrics} of the given host
+     */
+    public Metrics getMetrics(String host) {
+        Metrics metrics = mMetrics.get(host);
+        if (metrics == null) {
+            Metrics newMetrics = new Metrics();
+            metrics = mMetrics.putIfAbsent(host, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    private Semaphore getHostPermits(String host) {
+        Semaphore permits = mHostPermits.get(host);
+        if (permits == null) {
+            Semaphore newPermits = new Semaphore(MAX_REQUESTS_PER_HOST, true);
+            permits = mHostPermits.putIfAbsent(host, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+        return permits;
+    }
+
+    private LinkedList<Runnable> getPendingRequests(String host) {
+        LinkedList<Runnable> pendingRequests = mPendingRequests.get(host);
+        if (pendingRequests == null) {
+            LinkedList<Runnable> newPendingRequests = new LinkedList<Runnable>();
+            pendingRequests = mPendingRequests.putIfAbsent(host, newPendingRequests);
+            if (pendingRequests == null) {
+                pendingRequests = newPendingRequests;
+            }
+        }
+        return pendingRequests;
+    }
+
+    /**
+     * @return the host of the given url, or an empty {@link String} if the url is malformed
+     */
+    private static String getHost(String url) {
+        try {
+            return new URL(url).getHost();
+        } catch (MalformedURLException e) {
+            return "";
+        }
+    }
+
+    /**
+     * @return the charset defined in the given content type, or UTF-8 if there is none
+     */
+    private static String getCharset(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                parameter = parameter.trim();
+                if (parameter.toLowerCase().startsWith("charset=")) {
+                    return parameter.substring("charset=".length()).replace("\"", "");
+                }
+            }
+        }
+        return DEFAULT_CHARSET;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    private static void skipFully(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (in.read(buffer) != -1) {
+            // Just drain the stream
+        }
+    }
+
+    /**
+     * Counts the bytes which have been read from the wrapped {@link InputStream}
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long mCount;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                mCount++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                mCount += count;
+            }
+            return count;
+        }
+
+        long getCount() {
+            return mCount;
+        }
+    }
+}
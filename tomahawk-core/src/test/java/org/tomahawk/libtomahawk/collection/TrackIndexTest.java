@@ -0,0 +1,218 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.collection;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link TrackIndex#getMatches(String, String, String)} returns exactly the same
+ * {@link Track}s as the linear scan over the whole {@link Collection}, which it replaces, and
+ * that {@link TrackIndex#matches(Track, String, String, String)} agrees with both.
+ */
+public class TrackIndexTest {
+
+    private static final String[] WORDS = new String[]{"love", "the", "of", "night", "a", "blue",
+            "you", "lo", "ve", "in", "song", "ni", "ght", "\u00fc", "\u00e0\u00e9", "x"};
+
+    private TrackIndex mTrackIndex;
+
+    private ArrayList<Track> mTracks;
+
+    @Before
+    public void setUp() {
+        mTrackIndex = new TrackIndex();
+        mTracks = new ArrayList<Track>();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            Track track = new Track(i);
+            // Leave some of the names unavailable, to check that they never match
+            if (i % 17 != 0) {
+                track.setName(randomName(random));
+            }
+            if (i % 13 != 0) {
+                Artist artist = new Artist(i);
+                artist.setName(randomName(random));
+                track.setArtist(artist);
+            }
+            if (i % 11 != 0) {
+                Album album = new Album(i);
+                album.setName(i % 7 == 0 ? null : randomName(random));
+                track.setAlbum(album);
+            }
+            mTracks.add(track);
+            mTrackIndex.put(track);
+        }
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(23);
+        for (int i = 0; i < 300; i++) {
+            String term = randomTerm(random);
+            assertMatches(term, term, term);
+            assertMatches(term, null, null);
+            assertMatches(null, term, null);
+            assertMatches(null, null, term);
+            assertMatches(randomTerm(random), randomTerm(random), randomTerm(random));
+        }
+    }
+
+    @Test
+    public void testShortTerms() {
+        String[] terms = new String[]{"l", "o", "lo", "e ", " t", "\u00fc", "\u00e0\u00e9", "zz",
+                " "};
+        for (String term : terms) {
+            assertMatches(term, term, term);
+            assertMatches(term, null, null);
+            assertMatches(null, term, null);
+            assertMatches(null, null, term);
+        }
+    }
+
+    @Test
+    public void testEmptyAndNullTerms() {
+        assertEquals(0, mTrackIndex.getMatches(null, null, null).size());
+        assertMatches("", null, null);
+        assertMatches(null, "", null);
+        assertMatches(null, null, "");
+        assertMatches("", "", "");
+        // Every track has got at least one name, except for the ones which have none at all
+        int withoutNames = 0;
+        for (Track track : mTracks) {
+            if (track.getName() == null && getArtistName(track) == null
+                    && getAlbumName(track) == null) {
+                withoutNames++;
+            }
+        }
+        assertEquals(mTracks.size() - withoutNames, mTrackIndex.getMatches("", "", "").size());
+    }
+
+    @Test
+    public void testTermsWithoutMatches() {
+        assertMatches("zzzzz", "zzzzz", "zzzzz");
+        assertMatches("love you night blue the song of", null, null);
+        assertEquals(0, mTrackIndex.getMatches("qqq", "qqq", "qqq").size());
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        Random random = new Random(7);
+        for (int i = 0; i < mTracks.size(); i += 3) {
+            Track track = mTracks.get(i);
+            track.setName(randomName(random));
+            if (track.getArtist() != null) {
+                Artist artist = new Artist(i);
+                artist.setName(randomName(random));
+                track.setArtist(artist);
+            }
+            mTrackIndex.put(track);
+        }
+        for (int i = mTracks.size() - 1; i >= 0; i -= 5) {
+            mTrackIndex.remove(mTracks.remove(i));
+        }
+        assertEquals(mTracks.size(), mTrackIndex.size());
+        for (int i = 0; i < 300; i++) {
+            String term = randomTerm(random);
+            assertMatches(term, term, term);
+        }
+        String[] terms = new String[]{"", "l", "lo", "lov", "love"};
+        for (String term : terms) {
+            assertMatches(term, term, term);
+        }
+
+        mTrackIndex.clear();
+        assertEquals(0, mTrackIndex.size());
+        assertEquals(0, mTrackIndex.getMatches("", "", "").size());
+    }
+
+    @Test
+    public void testPutTwice() {
+        Track track = mTracks.get(1);
+        mTrackIndex.put(track);
+        mTrackIndex.put(track);
+        assertEquals(mTracks.size(), mTrackIndex.size());
+        String name = track.getName().toLowerCase();
+        ArrayList<Track> matches = mTrackIndex.getMatches(name, null, null);
+        assertEquals(matches.size(), new HashSet<Track>(matches).size());
+        assertTrue(matches.contains(track));
+    }
+
+    /**
+     * Assert that the {@link TrackIndex} returns every {@link Track} which the linear scan
+     * returns, and nothing else, each of them exactly once
+     */
+    private void assertMatches(String trackName, String artistName, String albumName) {
+        String message = "track: \"" + trackName + "\", artist: \"" + artistName
+                + "\", album: \"" + albumName + "\"";
+        HashSet<Track> expected = new HashSet<Track>();
+        for (Track track : mTracks) {
+            boolean isMatch = contains(track.getName(), trackName)
+                    || contains(getArtistName(track), artistName)
+                    || contains(getAlbumName(track), albumName);
+            if (isMatch) {
+                expected.add(track);
+            }
+            assertEquals(message, isMatch,
+                    TrackIndex.matches(track, trackName, artistName, albumName));
+        }
+        ArrayList<Track> matches = mTrackIndex.getMatches(trackName, artistName, albumName);
+        assertEquals(message, expected.size(), matches.size());
+        assertEquals(message, expected, new HashSet<Track>(matches));
+    }
+
+    private static boolean contains(String name, String term) {
+        return name != null && term != null && name.toLowerCase().contains(term);
+    }
+
+    private static String getArtistName(Track track) {
+        return track.getArtist() != null ? track.getArtist().getName() : null;
+    }
+
+    private static String getAlbumName(Track track) {
+        return track.getAlbum() != null ? track.getAlbum().getName() : null;
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int wordCount = 1 + random.nextInt(4);
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            // Mix the case, the index has to lower-case the names itself
+            name.append(random.nextBoolean() ? word : word.toUpperCase());
+        }
+        return name.toString();
+    }
+
+    private static String randomTerm(Random random) {
+        String name = randomName(random).toLowerCase();
+        int start = random.nextInt(name.length());
+        int end = start + random.nextInt(name.length() - start + 1);
+        return name.substring(start, end);
+    }
+}
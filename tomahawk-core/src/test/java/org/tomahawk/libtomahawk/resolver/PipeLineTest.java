@@ -0,0 +1,172 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.tomahawk.libtomahawk.collection.Album;
+import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.Track;
+import org.tomahawk.libtomahawk.utils.Platform;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks how the {@link PipeLine} dispatches {@link Query}s to {@link Resolver}s whose circuit is
+ * open or which are low-yield.
+ */
+public class PipeLineTest {
+
+    private static final long BACKOFF = 100;
+
+    private ResolverScheduler mScheduler;
+
+    private PipeLine mPipeLine;
+
+    private TestResolver mLowYieldResolver;
+
+    private final AtomicInteger mLowYieldInvocations = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        mScheduler = new ResolverScheduler(BACKOFF);
+        mPipeLine = new PipeLine(mScheduler);
+        // A heavy resolver, which immediately reports a perfect result
+        mPipeLine.addResolver(new TestResolver(1, 100) {
+            @Override
+            public void resolve(Query query) {
+                ArrayList<Result> results = new ArrayList<Result>();
+                results.add(newResult(this, query));
+                mPipeLine.reportResults(this, query.getQid(), results);
+            }
+        });
+        mLowYieldResolver = new TestResolver(2, 10) {
+            @Override
+            public void resolve(Query query) {
+                mLowYieldInvocations.incrementAndGet();
+            }
+
+            @Override
+            public void resolve(ArrayList<Query> queries) {
+                mLowYieldInvocations.incrementAndGet();
+            }
+        };
+        mPipeLine.addResolver(mLowYieldResolver);
+    }
+
+    @Test
+    public void testSkippedTrialIsReleased() throws InterruptedException {
+        // Make the light resolver low-yield and open its circuit
+        for (int i = 0; i < 10; i++) {
+            mScheduler.onReported(mLowYieldResolver, "qid" + i, 0, 0F, false);
+        }
+        ArrayList<Query> queries = new ArrayList<Query>();
+        queries.add(new Query("qid", "track", "album", "artist", false));
+        for (int i = 0; i < 3; i++) {
+            mScheduler.onTimedOut(mLowYieldResolver, queries);
+        }
+        assertTrue(mScheduler.isLowYield(mLowYieldResolver));
+        Thread.sleep(BACKOFF + 50);
+
+        // The light resolver gets the trial, but is deferred and then skipped, because the heavy
+        // resolver has already answered confidently
+        Query query = mPipeLine.getQuery(mPipeLine.resolve("track", "album", "artist"));
+        awaitSolved(query);
+        assertEquals(0, mLowYieldInvocations.get());
+
+        // So the trial has to be available again
+        assertTrue(mScheduler.isAvailable(mLowYieldResolver));
+    }
+
+    @Test
+    public void testCancelledTrialIsReleased() throws InterruptedException {
+        TestResolver silentResolver = new TestResolver(3, 50);
+        mPipeLine.addResolver(silentResolver);
+        ArrayList<Query> queries = new ArrayList<Query>();
+        queries.add(new Query("qid", "track", "album", "artist", false));
+        for (int i = 0; i < 3; i++) {
+            mScheduler.onTimedOut(silentResolver, queries);
+        }
+        Thread.sleep(BACKOFF + 50);
+
+        // The silent resolver gets the trial, which is cancelled before it could time out
+        String qid = mPipeLine.resolve("other track", "album", "artist");
+        assertFalse(mScheduler.isAvailable(silentResolver));
+        mPipeLine.cancel(qid);
+        assertTrue(mScheduler.isAvailable(silentResolver));
+    }
+
+    @Test
+    public void testNoResolverAvailable() throws InterruptedException {
+        for (Resolver resolver : new Resolver[]{mPipeLine.getResolver(1), mLowYieldResolver}) {
+            ArrayList<Query> queries = new ArrayList<Query>();
+            queries.add(new Query("qid", "track", "album", "artist", false));
+            for (int i = 0; i < 3; i++) {
+                mScheduler.onTimedOut(resolver, queries);
+            }
+            assertFalse(mScheduler.isAvailable(resolver));
+        }
+        // Every circuit is open, so the query is solved right away
+        String qid = mPipeLine.resolve("track", "album", "artist");
+        assertTrue(mPipeLine.getQuery(qid).isSolved());
+        assertTrue(mPipeLine.getQuery(qid).getTrackResults().isEmpty());
+    }
+
+    /**
+     * Wait until the given {@link Query} has been solved and the main thread has finished the
+     * work it has been doing at that point
+     */
+    private static void awaitSolved(Query query) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!query.isSolved() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(query.isSolved());
+        final CountDownLatch latch = new CountDownLatch(1);
+        Platform.getInstance().postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 0);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private static Result newResult(Resolver resolver, Query query) {
+        Track track = new Track(1);
+        track.setName(query.getTrackName());
+        track.setResolver(resolver);
+        Artist artist = new Artist(1);
+        artist.setName(query.getArtistName());
+        Album album = new Album(1);
+        album.setName(query.getAlbumName());
+        Result result = new Result();
+        result.setTrack(track);
+        result.setArtist(artist);
+        result.setAlbum(album);
+        result.setResolver(resolver);
+        return result;
+    }
+}
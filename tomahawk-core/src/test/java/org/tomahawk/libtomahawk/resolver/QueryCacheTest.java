@@ -0,0 +1,168 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the least-recently-used and time-to-live eviction of the {@link QueryCache}, and that
+ * {@link Query}s which are still being resolved stay pinned inside it.
+ */
+public class QueryCacheTest {
+
+    private static final long NEVER_EXPIRES = 60 * 60 * 1000;
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        QueryCache queryCache = new QueryCache(3, NEVER_EXPIRES);
+        Query[] queries = new Query[4];
+        for (int i = 0; i < 3; i++) {
+            queries[i] = solvedQuery("query" + i);
+            queryCache.put(queries[i]);
+        }
+        // Use the first query, so that the second one is the least recently used one now
+        assertSame(queries[0], queryCache.getByCacheKey(queries[0].getCacheKey()));
+        queries[3] = solvedQuery("query3");
+        queryCache.put(queries[3]);
+
+        assertEquals(3, queryCache.size());
+        assertEquals(1, queryCache.getEvictionCount());
+        assertNull(queryCache.get(queries[1].getQid()));
+        assertNull(queryCache.getByCacheKey(queries[1].getCacheKey()));
+        assertSame(queries[0], queryCache.get(queries[0].getQid()));
+        assertSame(queries[2], queryCache.get(queries[2].getQid()));
+        assertSame(queries[3], queryCache.getByCacheKey(queries[3].getCacheKey()));
+    }
+
+    @Test
+    public void testPinsUnsolvedQueries() {
+        QueryCache queryCache = new QueryCache(2, NEVER_EXPIRES);
+        Query unsolved = unsolvedQuery("unsolved");
+        queryCache.put(unsolved);
+        for (int i = 0; i < 5; i++) {
+            queryCache.put(solvedQuery("query" + i));
+        }
+        assertTrue(queryCache.hasUnsolvedQueries());
+        assertSame(unsolved, queryCache.get(unsolved.getQid()));
+        assertEquals(2, queryCache.size());
+        assertEquals(4, queryCache.getEvictionCount());
+
+        // Once solved, it's evicted in least-recently-used order like every other query
+        unsolved.setResolverDone(1);
+        assertFalse(queryCache.hasUnsolvedQueries());
+        queryCache.put(solvedQuery("query5"));
+        assertSame(unsolved, queryCache.getByCacheKey(unsolved.getCacheKey()));
+        queryCache.put(solvedQuery("query6"));
+        queryCache.put(solvedQuery("query7"));
+        assertNull(queryCache.get(unsolved.getQid()));
+        assertEquals(2, queryCache.size());
+    }
+
+    @Test
+    public void testCanGrowBeyondMaxSizeWhileUnsolved() {
+        QueryCache queryCache = new QueryCache(2, NEVER_EXPIRES);
+        for (int i = 0; i < 5; i++) {
+            queryCache.put(unsolvedQuery("query" + i));
+        }
+        assertEquals(5, queryCache.size());
+        assertEquals(0, queryCache.getEvictionCount());
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(queryCache.getByCacheKey(Query.constructCacheKey("query" + i)));
+        }
+    }
+
+    @Test
+    public void testExpiresSolvedQueries() throws InterruptedException {
+        QueryCache queryCache = new QueryCache(10, 50);
+        Query solved = solvedQuery("solved");
+        Query unsolved = unsolvedQuery("unsolved");
+        queryCache.put(solved);
+        queryCache.put(unsolved);
+        assertSame(solved, queryCache.getByCacheKey(solved.getCacheKey()));
+
+        Thread.sleep(100);
+        assertNull(queryCache.getByCacheKey(solved.getCacheKey()));
+        assertNull(queryCache.get(solved.getQid()));
+        assertSame(unsolved, queryCache.getByCacheKey(unsolved.getCacheKey()));
+        assertEquals(1, queryCache.getEvictionCount());
+
+        // Expired queries are also trimmed when adding new ones
+        Query other = solvedQuery("other");
+        queryCache.put(other);
+        Thread.sleep(100);
+        queryCache.put(solvedQuery("fresh"));
+        assertNull(queryCache.get(other.getQid()));
+        assertEquals(2, queryCache.size());
+    }
+
+    @Test
+    public void testHitAndMissCounts() {
+        QueryCache queryCache = new QueryCache(10, NEVER_EXPIRES);
+        Query query = solvedQuery("query");
+        queryCache.put(query);
+        assertSame(query, queryCache.getByCacheKey(query.getCacheKey()));
+        assertSame(query, queryCache.getByCacheKey(query.getCacheKey()));
+        assertNull(queryCache.getByCacheKey(Query.constructCacheKey("missing")));
+        // get(...) by qid doesn't count
+        queryCache.get(query.getQid());
+        assertEquals(2, queryCache.getHitCount());
+        assertEquals(1, queryCache.getMissCount());
+    }
+
+    @Test
+    public void testRemove() {
+        QueryCache queryCache = new QueryCache(10, NEVER_EXPIRES);
+        Query query = solvedQuery("query");
+        queryCache.put(query);
+        assertSame(query, queryCache.remove(query.getQid()));
+        assertNull(queryCache.remove(query.getQid()));
+        assertNull(queryCache.getByCacheKey(query.getCacheKey()));
+        assertEquals(0, queryCache.size());
+        assertEquals(0, queryCache.getEvictionCount());
+    }
+
+    @Test
+    public void testRemoveKeepsNewerQueryWithSameCacheKey() {
+        QueryCache queryCache = new QueryCache(10, NEVER_EXPIRES);
+        Query older = new Query("older", "track", "album", "artist", false);
+        Query newer = new Query("newer", "track", "album", "artist", false);
+        queryCache.put(older);
+        queryCache.put(newer);
+        queryCache.remove(older.getQid());
+        assertSame(newer, queryCache.getByCacheKey(newer.getCacheKey()));
+    }
+
+    private static Query solvedQuery(String fullTextQuery) {
+        Query query = unsolvedQuery(fullTextQuery);
+        query.setResolverDone(1);
+        return query;
+    }
+
+    private static Query unsolvedQuery(String fullTextQuery) {
+        Query query = new Query(fullTextQuery + "_qid", fullTextQuery, false);
+        query.incResolversTodoCount();
+        return query;
+    }
+}
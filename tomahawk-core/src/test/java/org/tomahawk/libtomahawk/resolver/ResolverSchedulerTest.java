@@ -0,0 +1,208 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the {@link ResolverScheduler}'s circuit breaker (closed, open, half-open with a single
+ * trial {@link Query}, exponential backoff) and its low-yield detection.
+ */
+public class ResolverSchedulerTest {
+
+    private static final long BACKOFF = 200;
+
+    private ResolverScheduler mScheduler;
+
+    private TestResolver mResolver;
+
+    private ArrayList<Query> mQueries;
+
+    @Before
+    public void setUp() {
+        mScheduler = new ResolverScheduler(BACKOFF);
+        mResolver = new TestResolver(1, 50);
+        mQueries = new ArrayList<Query>();
+        mQueries.add(new Query("qid", "track", "album", "artist", false));
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveTimeouts() {
+        assertTrue(mScheduler.isAvailable(mResolver));
+        mScheduler.onTimedOut(mResolver, mQueries);
+        mScheduler.onTimedOut(mResolver, mQueries);
+        assertTrue(mScheduler.isAvailable(mResolver));
+        mScheduler.onTimedOut(mResolver, mQueries);
+        assertFalse(mScheduler.isAvailable(mResolver));
+        // Other resolvers aren't affected
+        assertTrue(mScheduler.isAvailable(new TestResolver(2, 50)));
+    }
+
+    @Test
+    public void testReportResetsFailures() {
+        mScheduler.onTimedOut(mResolver, mQueries);
+        mScheduler.onTimedOut(mResolver, mQueries);
+        mScheduler.onReported(mResolver, "qid", 1, 1F, false);
+        mScheduler.onTimedOut(mResolver, mQueries);
+        mScheduler.onTimedOut(mResolver, mQueries);
+        assertTrue(mScheduler.isAvailable(mResolver));
+        // A late report for a query the resolver has already timed out on doesn't count
+        mScheduler.onReported(mResolver, "qid", 1, 1F, true);
+        mScheduler.onTimedOut(mResolver, mQueries);
+        assertFalse(mScheduler.isAvailable(mResolver));
+    }
+
+    @Test
+    public void testTrialClosesCircuit() throws InterruptedException {
+        open();
+        Thread.sleep(BACKOFF + 50);
+        // Half-open: exactly one trial is let through
+        assertTrue(mScheduler.isAvailable(mResolver));
+        assertFalse(mScheduler.isAvailable(mResolver));
+        mScheduler.onReported(mResolver, "qid", 0, 0F, false);
+        assertTrue(mScheduler.isAvailable(mResolver));
+        assertTrue(mScheduler.isAvailable(mResolver));
+        // Closed again, so it takes the full number of failures to open it
+        mScheduler.onTimedOut(mResolver, mQueries);
+        mScheduler.onTimedOut(mResolver, mQueries);
+        assertTrue(mScheduler.isAvailable(mResolver));
+    }
+
+    @Test
+    public void testTrialTimeoutDoublesBackoff() throws InterruptedException {
+        open();
+        Thread.sleep(BACKOFF + 50);
+        assertTrue(mScheduler.isAvailable(mResolver));
+        // The trial times out, so that the circuit is opened again for twice as long
+        mScheduler.onTimedOut(mResolver, mQueries);
+        assertFalse(mScheduler.isAvailable(mResolver));
+        Thread.sleep(BACKOFF + 50);
+        assertFalse(mScheduler.isAvailable(mResolver));
+        Thread.sleep(BACKOFF);
+        assertTrue(mScheduler.isAvailable(mResolver));
+
+        // A successful trial resets the backoff
+        mScheduler.onReported(mResolver, "qid", 1, 1F, false);
+        open();
+        Thread.sleep(BACKOFF + 50);
+        assertTrue(mScheduler.isAvailable(mResolver));
+    }
+
+    @Test
+    public void testSkippedTrialIsReleased() throws InterruptedException {
+        open();
+        Thread.sleep(BACKOFF + 50);
+        assertTrue(mScheduler.isAvailable(mResolver));
+        assertFalse(mScheduler.isAvailable(mResolver));
+        // The resolver hasn't been invoked after all, so the next query gets to be the trial
+        mScheduler.onSkipped(mResolver);
+        assertTrue(mScheduler.isAvailable(mResolver));
+        assertFalse(mScheduler.isAvailable(mResolver));
+    }
+
+    @Test
+    public void testSkippedAfterDispatchKeepsTrial() throws InterruptedException {
+        open();
+        Thread.sleep(BACKOFF + 50);
+        assertTrue(mScheduler.isAvailable(mResolver));
+        mScheduler.onDispatched(mResolver, mQueries);
+        // The trial is already running, so skipping another dispatch mustn't start a second one
+        mScheduler.onSkipped(mResolver);
+        assertFalse(mScheduler.isAvailable(mResolver));
+        mScheduler.onReported(mResolver, "qid", 1, 1F, false);
+        assertTrue(mScheduler.isAvailable(mResolver));
+    }
+
+    @Test
+    public void testCancelledTrialIsReleased() throws InterruptedException {
+        open();
+        Thread.sleep(BACKOFF + 50);
+        ArrayList<Query> trialQueries = new ArrayList<Query>();
+        trialQueries.add(new Query("trial1", "track", "album", "artist", false));
+        trialQueries.add(new Query("trial2", "track2", "album", "artist", false));
+        assertTrue(mScheduler.isAvailable(mResolver));
+        mScheduler.onDispatched(mResolver, trialQueries);
+        // Cancelling other queries or only a part of the trial doesn't release it
+        mScheduler.onCancelled(mResolver, "qid");
+        mScheduler.onCancelled(mResolver, "trial1");
+        assertFalse(mScheduler.isAvailable(mResolver));
+        // Once the whole trial has been cancelled, the next query gets to be the trial
+        mScheduler.onCancelled(mResolver, "trial2");
+        assertTrue(mScheduler.isAvailable(mResolver));
+        assertFalse(mScheduler.isAvailable(mResolver));
+    }
+
+    @Test
+    public void testLowYield() {
+        TestResolver hitResolver = new TestResolver(2, 50);
+        for (int i = 0; i < 9; i++) {
+            mScheduler.onReported(mResolver, "qid" + i, 0, 0F, false);
+            mScheduler.onReported(hitResolver, "qid" + i, 2, 0.8F, false);
+        }
+        // Not enough samples yet
+        assertFalse(mScheduler.isLowYield(mResolver));
+        mScheduler.onReported(mResolver, "qid9", 0, 0F, false);
+        mScheduler.onReported(hitResolver, "qid9", 2, 0.8F, false);
+        assertTrue(mScheduler.isLowYield(mResolver));
+        assertFalse(mScheduler.isLowYield(hitResolver));
+        assertEquals(0F, mScheduler.getHitRate(mResolver), 0F);
+        assertEquals(1F, mScheduler.getHitRate(hitResolver), 0F);
+        assertEquals(0.8F, mScheduler.getAverageScore(hitResolver), 0.0001F);
+
+        // Hits move it out of the low-yield group again
+        for (int i = 0; i < 3; i++) {
+            mScheduler.onReported(mResolver, "qid", 1, 1F, false);
+        }
+        assertFalse(mScheduler.isLowYield(mResolver));
+    }
+
+    @Test
+    public void testLatency() {
+        TestResolver fastResolver = new TestResolver(2, 10);
+        mScheduler.onDispatched(mResolver, mQueries);
+        mScheduler.onDispatched(fastResolver, mQueries);
+        mScheduler.onTimedOut(mResolver, mQueries);
+        mScheduler.onReported(fastResolver, "qid", 1, 1F, false);
+        assertEquals(PipeLine.DEFAULT_RESOLVER_TIMEOUT, mScheduler.getAverageLatency(mResolver),
+                0F);
+        assertTrue(mScheduler.getAverageLatency(fastResolver)
+                < PipeLine.DEFAULT_RESOLVER_TIMEOUT);
+
+        ArrayList<Resolver> resolvers = new ArrayList<Resolver>();
+        resolvers.add(mResolver);
+        resolvers.add(fastResolver);
+        mScheduler.sortByLatency(resolvers);
+        assertSame(fastResolver, resolvers.get(0));
+        assertSame(mResolver, resolvers.get(1));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            mScheduler.onTimedOut(mResolver, mQueries);
+        }
+        assertFalse(mScheduler.isAvailable(mResolver));
+    }
+}
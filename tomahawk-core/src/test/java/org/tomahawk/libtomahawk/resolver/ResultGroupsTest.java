@@ -0,0 +1,173 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link ResultGroups} neither loses nor duplicates {@link Result}s, when several
+ * threads add to the same groups at once, and that the groups stay in order.
+ */
+public class ResultGroupsTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final int RESULTS_PER_THREAD = 2000;
+
+    private static final int KEY_COUNT = 10;
+
+    private static final TestResolver[] RESOLVERS = new TestResolver[]{
+            new TestResolver(0, 10), new TestResolver(1, 50), new TestResolver(2, 90)};
+
+    @Test
+    public void testAddAndGet() {
+        ResultGroups resultGroups = new ResultGroups(false);
+        Result first = newResult(0);
+        Result second = newResult(1);
+        Result third = newResult(2);
+        assertTrue(resultGroups.add("b", first));
+        assertTrue(resultGroups.add("a", second));
+        assertFalse(resultGroups.add("b", third));
+
+        assertNull(resultGroups.get("c"));
+        assertEquals(Arrays.asList(first, third), Arrays.asList(resultGroups.get("b")));
+        assertEquals(Arrays.asList(second), Arrays.asList(resultGroups.get("a")));
+        // The groups' first results in the order the groups have been created
+        ArrayList<Result> firstResults = resultGroups.getFirstResults();
+        assertEquals(2, firstResults.size());
+        assertSame(first, firstResults.get(0));
+        assertSame(second, firstResults.get(1));
+        assertEquals(3, resultGroups.getVersion());
+    }
+
+    @Test
+    public void testSortByWeight() {
+        ResultGroups resultGroups = new ResultGroups(true);
+        Result light = newResult(0);
+        Result heavy = newResult(2);
+        Result medium = newResult(1);
+        Result otherMedium = newResult(1);
+        resultGroups.add("key", light);
+        resultGroups.add("key", heavy);
+        resultGroups.add("key", medium);
+        resultGroups.add("key", otherMedium);
+        // Results with the same weight stay in the order they have been added
+        assertEquals(Arrays.asList(heavy, medium, otherMedium, light),
+                Arrays.asList(resultGroups.get("key")));
+        assertSame(heavy, resultGroups.getFirstResults().get(0));
+    }
+
+    @Test
+    public void testConcurrentAdd() throws InterruptedException {
+        runConcurrentAdd(false);
+    }
+
+    @Test
+    public void testConcurrentAddSortedByWeight() throws InterruptedException {
+        runConcurrentAdd(true);
+    }
+
+    private void runConcurrentAdd(boolean sortByWeight) throws InterruptedException {
+        final ResultGroups resultGroups = new ResultGroups(sortByWeight);
+        final Result[][] added = new Result[THREAD_COUNT][RESULTS_PER_THREAD];
+        final AtomicInteger createdCount = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREAD_COUNT];
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int threadIndex = i;
+            for (int j = 0; j < RESULTS_PER_THREAD; j++) {
+                added[i][j] = newResult((i + j) % RESOLVERS.length);
+            }
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < RESULTS_PER_THREAD; j++) {
+                        if (resultGroups.add(getKey(j), added[threadIndex][j])) {
+                            createdCount.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Every group has been created exactly once
+        assertEquals(KEY_COUNT, createdCount.get());
+        assertEquals(KEY_COUNT, resultGroups.getFirstResults().size());
+        assertEquals(THREAD_COUNT * RESULTS_PER_THREAD, resultGroups.getVersion());
+
+        // Every result has ended up in its group exactly once
+        IdentityHashMap<Result, Integer> positions = new IdentityHashMap<Result, Integer>();
+        IdentityHashMap<Result, String> keys = new IdentityHashMap<Result, String>();
+        for (int k = 0; k < KEY_COUNT; k++) {
+            Result[] results = resultGroups.get(getKey(k));
+            assertEquals(THREAD_COUNT * RESULTS_PER_THREAD / KEY_COUNT, results.length);
+            for (int p = 0; p < results.length; p++) {
+                assertNull(positions.put(results[p], p));
+                keys.put(results[p], getKey(k));
+                if (sortByWeight && p > 0) {
+                    assertTrue(results[p - 1].getResolver().getWeight()
+                            >= results[p].getResolver().getWeight());
+                }
+            }
+        }
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            for (int j = 0; j < RESULTS_PER_THREAD; j++) {
+                Result result = added[i][j];
+                assertTrue(positions.containsKey(result));
+                assertEquals(getKey(j), keys.get(result));
+                // A thread's results with the same weight stay in the order it has added them
+                int next = j + KEY_COUNT * RESOLVERS.length;
+                if (next < RESULTS_PER_THREAD) {
+                    assertTrue(positions.get(result) < positions.get(added[i][next]));
+                }
+            }
+        }
+    }
+
+    private static String getKey(int index) {
+        return "key" + index % KEY_COUNT;
+    }
+
+    private static Result newResult(int resolverIndex) {
+        Result result = new Result();
+        result.setResolver(RESOLVERS[resolverIndex]);
+        return result;
+    }
+}
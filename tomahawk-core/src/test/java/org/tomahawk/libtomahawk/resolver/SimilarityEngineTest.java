@@ -0,0 +1,279 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import org.junit.Test;
+import org.tomahawk.libtomahawk.collection.Album;
+import org.tomahawk.libtomahawk.collection.Artist;
+import org.tomahawk.libtomahawk.collection.Track;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the {@link SimilarityEngine} computes the same scores and edit distances as the
+ * plain dynamic programming implementation it replaces. Scores only have to be exact, if they are
+ * at least as high as the minimum score the {@link PipeLine} is interested in.
+ */
+public class SimilarityEngineTest {
+
+    // The PipeLine's MINSCORE
+    private static final float MIN_SCORE = 0.5F;
+
+    private static final String ALPHABET = "abcde  XY'\u00e9\u4e2d";
+
+    private static final int[] SEARCH_TYPES = new int[]{PipeLine.PIPELINE_SEARCHTYPE_TRACKS,
+            PipeLine.PIPELINE_SEARCHTYPE_ARTISTS, PipeLine.PIPELINE_SEARCHTYPE_ALBUMS};
+
+    private final Random mRandom = new Random(42);
+
+    @Test
+    public void testDistance() {
+        SimilarityEngine engine = SimilarityEngine.get();
+        for (int i = 0; i < 20000; i++) {
+            // Also cover patterns longer than a single 64 bit vector
+            String s = randomString(i % 10 == 0 ? 150 : 20);
+            String t = randomString(i % 10 == 0 ? 150 : 20);
+            int expected = levenshtein(s, t);
+            assertEquals(s + " / " + t, expected, engine.distance(s, t));
+            assertEquals(s + " / " + t, expected, engine.distance(t, s));
+            int maxDistance = mRandom.nextInt(expected + 2);
+            int bounded = engine.distance(s, t, maxDistance);
+            if (expected <= maxDistance) {
+                assertEquals(s + " / " + t, expected, bounded);
+            } else {
+                assertEquals(s + " / " + t, maxDistance + 1, bounded);
+            }
+        }
+    }
+
+    @Test
+    public void testCleanUpString() {
+        for (int i = 0; i < 10000; i++) {
+            String s = randomString(20) + (i % 3 == 0 ? " \t\n x  " : "");
+            assertEquals(cleanUpString(s), SimilarityEngine.cleanUpString(s, false));
+        }
+    }
+
+    @Test
+    public void testHowSimilar() {
+        for (int i = 0; i < 50000; i++) {
+            Query query;
+            if (mRandom.nextBoolean()) {
+                query = new Query("qid", randomString(14) + "x", false);
+            } else {
+                query = new Query("qid", randomString(14) + "t",
+                        mRandom.nextBoolean() ? "" : randomString(14), randomString(14) + "a",
+                        false);
+            }
+            Result result = randomResult();
+            for (int searchType : SEARCH_TYPES) {
+                assertScore(query, result, searchType, 0F);
+                assertScore(query, result, searchType, MIN_SCORE);
+            }
+        }
+    }
+
+    @Test
+    public void testHowSimilarMatchingNames() {
+        // Nearly identical names, so that most scores are above MIN_SCORE
+        for (int i = 0; i < 20000; i++) {
+            Result result = randomResult();
+            String trackName = mutate(result.getTrack().getName()) + "t";
+            String albumName = mutate(result.getAlbum().getName());
+            String artistName = mutate(result.getArtist().getName()) + "a";
+            Query query = new Query("qid", trackName, albumName, artistName, false);
+            Query fullTextQuery = new Query("qid", artistName + " " + trackName, false);
+            for (int searchType : SEARCH_TYPES) {
+                assertScore(query, result, searchType, MIN_SCORE);
+                assertScore(fullTextQuery, result, searchType, MIN_SCORE);
+            }
+        }
+    }
+
+    /**
+     * Assert that the {@link SimilarityEngine}'s score is exactly the reference score, if that is
+     * at least minScore, and that it is lower than minScore otherwise.
+     */
+    private static void assertScore(Query query, Result result, int searchType, float minScore) {
+        float expected = referenceScore(query, result, searchType);
+        float actual = query.howSimilar(result, searchType, minScore);
+        String message = "searchType: " + searchType + ", query: \"" + query.getFullTextQuery()
+                + "\" \"" + query.getTrackName() + "\" \"" + query.getAlbumName() + "\" \""
+                + query.getArtistName() + "\", result: \"" + result.getTrack().getName()
+                + "\" \"" + result.getAlbum().getName() + "\" \""
+                + result.getArtist().getName() + "\"";
+        if (Float.isNaN(expected)) {
+            assertTrue(message, Float.isNaN(actual));
+        } else if (expected >= minScore) {
+            assertEquals(message, expected, actual, 0F);
+        } else {
+            assertTrue(message + ", score: " + actual, actual < minScore);
+        }
+    }
+
+    /**
+     * The original scoring, which computes every distance with {@link #levenshtein(String,
+     * String)}
+     */
+    private static float referenceScore(Query query, Result result, int searchType) {
+        String resultArtistName = cleanUpString(result.getArtist().getName());
+        String resultAlbumName = cleanUpString(result.getAlbum().getName());
+        String resultTrackName = cleanUpString(result.getTrack().getName());
+        String queryArtistName = query.getArtistName();
+        String queryAlbumName = query.getAlbumName();
+        String queryTrackName = query.getTrackName();
+        float distanceScoreArtist = score(queryArtistName, resultArtistName);
+        float distanceScoreAlbum = 0F;
+        if (Math.max(queryAlbumName.length(), resultAlbumName.length()) > 0) {
+            distanceScoreAlbum = score(queryAlbumName, resultAlbumName);
+        }
+        float distanceScoreTrack = score(queryTrackName, resultTrackName);
+
+        if (query.isFullTextQuery()) {
+            String searchString = cleanUpString(query.getFullTextQuery());
+            ArrayList<String> resultSearchStrings = new ArrayList<String>();
+            switch (searchType) {
+                case PipeLine.PIPELINE_SEARCHTYPE_TRACKS:
+                    resultSearchStrings
+                            .add(cleanUpString(resultArtistName + " " + resultTrackName));
+                    resultSearchStrings.add(resultTrackName);
+                    break;
+                case PipeLine.PIPELINE_SEARCHTYPE_ARTISTS:
+                    resultSearchStrings.add(resultArtistName);
+                    break;
+                case PipeLine.PIPELINE_SEARCHTYPE_ALBUMS:
+                    if (resultAlbumName.length() > 0) {
+                        resultSearchStrings
+                                .add(cleanUpString(resultArtistName + " " + resultAlbumName));
+                        resultSearchStrings.add(resultAlbumName);
+                    }
+                    break;
+            }
+            float maxResult = 0F;
+            for (String resultSearchString : resultSearchStrings) {
+                float res = Math.max(distanceScoreArtist, distanceScoreAlbum);
+                res = Math.max(res, score(searchString, resultSearchString));
+                res = Math.max(res, distanceScoreTrack);
+                if (resultSearchString.contains(searchString)) {
+                    res = Math.max(res, 0.9F);
+                }
+                maxResult = Math.max(res, maxResult);
+            }
+            return maxResult;
+        } else {
+            if (queryAlbumName.length() == 0) {
+                distanceScoreAlbum = 1F;
+            }
+            return (distanceScoreArtist * 4 + distanceScoreAlbum + distanceScoreTrack * 5) / 10;
+        }
+    }
+
+    private static float score(String s, String t) {
+        int maxLength = Math.max(s.length(), t.length());
+        return (float) (maxLength - levenshtein(s, t)) / maxLength;
+    }
+
+    private static String cleanUpString(String in) {
+        return in.toLowerCase().trim().replaceAll("[\\s]{2,}", " ");
+    }
+
+    /**
+     * The plain dynamic programming edit distance
+     */
+    private static int levenshtein(String s, String t) {
+        int n = s.length();
+        int m = t.length();
+        if (n == 0) {
+            return m;
+        }
+        if (m == 0) {
+            return n;
+        }
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= m; j++) {
+            char c = t.charAt(j - 1);
+            current[0] = j;
+            for (int i = 1; i <= n; i++) {
+                int cost = s.charAt(i - 1) == c ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1),
+                        previous[i - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[n];
+    }
+
+    private Result randomResult() {
+        Track track = new Track(1);
+        track.setName(randomString(14));
+        Artist artist = new Artist(1);
+        artist.setName(randomString(14));
+        Album album = new Album(1);
+        album.setName(randomString(14));
+        Result result = new Result();
+        result.setTrack(track);
+        result.setArtist(artist);
+        result.setAlbum(album);
+        return result;
+    }
+
+    /**
+     * @return a random {@link String}, which is occasionally a lot longer than maxLength
+     */
+    private String randomString(int maxLength) {
+        int length = mRandom.nextInt(mRandom.nextInt(10) == 0 ? 90 : maxLength);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(mRandom.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the lower-cased given {@link String} with a few random edits
+     */
+    private String mutate(String in) {
+        StringBuilder builder = new StringBuilder(in.toLowerCase());
+        int edits = mRandom.nextInt(3);
+        for (int i = 0; i < edits && builder.length() > 0; i++) {
+            int position = mRandom.nextInt(builder.length());
+            char c = ALPHABET.charAt(mRandom.nextInt(ALPHABET.length()));
+            switch (mRandom.nextInt(3)) {
+                case 0:
+                    builder.setCharAt(position, c);
+                    break;
+                case 1:
+                    builder.insert(position, c);
+                    break;
+                default:
+                    builder.deleteCharAt(position);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,73 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.resolver;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link Resolver} which doesn't resolve anything. Tests use it to give {@link Result}s a weight
+ * and to feed the {@link ResolverScheduler}.
+ */
+class TestResolver implements Resolver {
+
+    private final int mId;
+
+    private final int mWeight;
+
+    TestResolver(int id, int weight) {
+        mId = id;
+        mWeight = weight;
+    }
+
+    @Override
+    public boolean isResolving() {
+        return false;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    @Override
+    public void resolve(Query query) {
+    }
+
+    @Override
+    public void resolve(ArrayList<Query> queries) {
+    }
+
+    @Override
+    public void cancel(Query query) {
+    }
+
+    @Override
+    public int getId() {
+        return mId;
+    }
+
+    @Override
+    public int getWeight() {
+        return mWeight;
+    }
+
+    @Override
+    public int getTimeout() {
+        return 0;
+    }
+}
@@ -0,0 +1,144 @@
+/* == This file is part of Tomahawk Player - <http://tomahawk-player.org> ===
+ *
+ *   Copyright 2013, Enno Gottschalk <mrmaffen@googlemail.com>
+ *
+ *   Tomahawk is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   Tomahawk is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with Tomahawk. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tomahawk.libtomahawk.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the {@link TomahawkHttpClient} limits the number of concurrent background requests
+ * per host, without letting a slow host hold up the requests to other hosts.
+ */
+public class TomahawkHttpClientTest {
+
+    private static final int SLOW_REQUEST_COUNT = 12;
+
+    private HttpServer mServer;
+
+    private ExecutorService mServerExecutor;
+
+    private final CountDownLatch mSlowRequestsReleased = new CountDownLatch(1);
+
+    private final AtomicInteger mConcurrentSlowRequests = new AtomicInteger();
+
+    private final AtomicInteger mMaxConcurrentSlowRequests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        mServer.createContext("/slow", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                int concurrent = mConcurrentSlowRequests.incrementAndGet();
+                synchronized (mMaxConcurrentSlowRequests) {
+                    mMaxConcurrentSlowRequests.set(
+                            Math.max(mMaxConcurrentSlowRequests.get(), concurrent));
+                }
+                try {
+                    mSlowRequestsReleased.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                mConcurrentSlowRequests.decrementAndGet();
+                respond(exchange, "slow");
+            }
+        });
+        mServer.createContext("/fast", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, "fast");
+            }
+        });
+        mServerExecutor = Executors.newCachedThreadPool();
+        mServer.setExecutor(mServerExecutor);
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() {
+        mSlowRequestsReleased.countDown();
+        mServer.stop(0);
+        mServerExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testSlowHostDoesNotBlockOtherHosts() throws InterruptedException {
+        TomahawkHttpClient client = TomahawkHttpClient.getInstance();
+        int port = mServer.getAddress().getPort();
+        // "127.0.0.1" and "localhost" are different hosts to the client, but both reach the
+        // server. There are more slow requests than request threads.
+        final CountDownLatch slowResponses = new CountDownLatch(SLOW_REQUEST_COUNT);
+        final AtomicInteger successfulSlowResponses = new AtomicInteger();
+        for (int i = 0; i < SLOW_REQUEST_COUNT; i++) {
+            client.enqueue(null, "http://127.0.0.1:" + port + "/slow", null, null,
+                    new TomahawkHttpClient.Callback() {
+                        @Override
+                        public void onResponse(TomahawkHttpClient.Response response) {
+                            if ("slow".equals(response.body)) {
+                                successfulSlowResponses.incrementAndGet();
+                            }
+                            slowResponses.countDown();
+                        }
+                    });
+        }
+        final CountDownLatch fastResponse = new CountDownLatch(1);
+        final String[] fastBody = new String[1];
+        client.enqueue(null, "http://localhost:" + port + "/fast", null, null,
+                new TomahawkHttpClient.Callback() {
+                    @Override
+                    public void onResponse(TomahawkHttpClient.Response response) {
+                        fastBody[0] = response.body;
+                        fastResponse.countDown();
+                    }
+                });
+
+        assertTrue(fastResponse.await(5, TimeUnit.SECONDS));
+        assertEquals("fast", fastBody[0]);
+        assertEquals(SLOW_REQUEST_COUNT, slowResponses.getCount());
+
+        mSlowRequestsReleased.countDown();
+        assertTrue(slowResponses.await(10, TimeUnit.SECONDS));
+        assertEquals(SLOW_REQUEST_COUNT, successfulSlowResponses.get());
+        assertTrue(mMaxConcurrentSlowRequests.get() <= 4);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes("UTF-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}